@@ -0,0 +1,411 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable partition of the users of a follows graph into communities:
+ * groups of users who follow or mention each other more than they do users
+ * outside the group.
+ *
+ * Communities are found by label propagation. Every user starts with a label
+ * of its own; then, in each round, every user takes the label held by most
+ * of its neighbours, where following and being followed both count, and the
+ * user's own label counts once, with ties going to the smallest label.
+ *
+ * A round is two half-rounds, each relabelling a fixed half of the users,
+ * scattered by a hash of their ids, from the labels left by the previous
+ * half-round. Relabelling everybody at once from the same labels would let
+ * neighbours keep swapping labels forever; relabelling one user at a time
+ * would be sequential. Within a half-round users are relabelled in parallel
+ * on a ForkJoinPool into a new array, so the result does not depend on the
+ * number of threads. Each round takes time linear in the number of users
+ * plus edges, and rounds stop once no label changes.
+ */
+public class Communities {
+
+    /**
+     * Default maximum number of label propagation rounds.
+     */
+    public static final int DEFAULT_MAX_ROUNDS = 50;
+
+    /*
+     * Users plus edges handled by one task.
+     */
+    private static final int GRAIN = 1 << 14;
+
+    private final FollowsGraph graph;
+    private final int[] communityOf;
+    private final int[] memberStarts;
+    private final int[] memberIds;
+    private final int rounds;
+    /* Rep invariant:
+     *    communityOf.length == graph.size(), each in [0, size())
+     *    memberStarts.length == size() + 1, starts at 0, strictly increasing,
+     *      and ends at memberIds.length == graph.size()
+     *    memberIds[memberStarts[c]..memberStarts[c+1]) are the users u with
+     *      communityOf[u] == c, in increasing order
+     *    communities are numbered in increasing order of their first member
+     *    rounds >= 0
+     * Abstraction function:
+     *    represents the partition of graph's users in which u is in
+     *    community communityOf[u], found in rounds rounds
+     */
+
+    private Communities(FollowsGraph graph, int[] communityOf, int communities, int rounds) {
+        this.graph = graph;
+        this.communityOf = communityOf;
+        this.rounds = rounds;
+        this.memberStarts = new int[communities + 1];
+        for (int c : communityOf) {
+            memberStarts[c + 1]++;
+        }
+        for (int c = 0; c < communities; c++) {
+            memberStarts[c + 1] += memberStarts[c];
+        }
+        this.memberIds = new int[communityOf.length];
+        int[] next = Arrays.copyOf(memberStarts, communities);
+        for (int u = 0; u < communityOf.length; u++) {
+            memberIds[next[communityOf[u]]++] = u;
+        }
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert communityOf.length == graph.size();
+        assert memberStarts[memberStarts.length - 1] == memberIds.length;
+        assert rounds >= 0;
+    }
+
+    /**
+     * Find communities with the default maximum number of rounds, on the
+     * common ForkJoinPool.
+     *
+     * @param graph
+     *            social network to partition
+     * @return communities of graph's users
+     */
+    public static Communities detect(FollowsGraph graph) {
+        return detect(graph, DEFAULT_MAX_ROUNDS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Find communities.
+     *
+     * @param graph
+     *            social network to partition
+     * @param maxRounds
+     *            label propagation stops after this many rounds even if labels
+     *            are still changing, maxRounds >= 0
+     * @param pool
+     *            pool to run each round on
+     * @return communities of graph's users
+     */
+    public static Communities detect(FollowsGraph graph, int maxRounds, ForkJoinPool pool) {
+        if (maxRounds < 0) {
+            throw new IllegalArgumentException("requires maxRounds >= 0");
+        }
+        int n = graph.size();
+        int[] labels = new int[n];
+        for (int u = 0; u < n; u++) {
+            labels[u] = u;
+        }
+        int[] next = new int[n];
+        int rounds = 0;
+        while (rounds < maxRounds) {
+            int changed = 0;
+            for (int half = 0; half < 2; half++) {
+                changed += pool.invoke(new Round(graph, half, labels, next, 0, n));
+                int[] swap = labels;
+                labels = next;
+                next = swap;
+            }
+            rounds++;
+            if (changed == 0) {
+                break;
+            }
+        }
+
+        // renumber labels densely, in order of first member
+        int[] community = new int[n];
+        Arrays.fill(community, -1);
+        int communities = 0;
+        for (int u = 0; u < n; u++) {
+            if (community[labels[u]] < 0) {
+                community[labels[u]] = communities++;
+            }
+            labels[u] = community[labels[u]];
+        }
+        return new Communities(graph, labels, communities, rounds);
+    }
+
+    /**
+     * @return the graph these communities partition
+     */
+    public FollowsGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of communities
+     */
+    public int size() {
+        return memberStarts.length - 1;
+    }
+
+    /**
+     * @return the number of label propagation rounds run
+     */
+    public int rounds() {
+        return rounds;
+    }
+
+    /**
+     * @param user
+     *            a user id of graph()
+     * @return the community of that user, in [0, size())
+     */
+    public int community(int user) {
+        return communityOf[user];
+    }
+
+    /**
+     * @param community
+     *            a community, in [0, size())
+     * @return new array of the user ids in that community, in increasing order
+     */
+    public int[] members(int community) {
+        return Arrays.copyOfRange(memberIds, memberStarts[community], memberStarts[community + 1]);
+    }
+
+    /**
+     * @return a new mutable map from every username of graph() to its
+     *         community
+     */
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> map = new HashMap<>();
+        for (int u = 0; u < communityOf.length; u++) {
+            map.put(graph.username(u), communityOf[u]);
+        }
+        return map;
+    }
+
+    /**
+     * Rank the members of a community by how many members of the same
+     * community follow them.
+     *
+     * @param community
+     *            a community, in [0, size())
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the first min(k, community size) usernames of the community, in
+     *         descending order of followers within the community, with users
+     *         having equal counts in ascending order of username
+     */
+    public List<String> influencers(int community, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        int from = memberStarts[community];
+        int size = memberStarts[community + 1] - from;
+        int[] followerStarts = graph.followerStarts();
+        int[] followerIds = graph.followerIds();
+        int[] counts = new int[size];
+        for (int i = 0; i < size; i++) {
+            int u = memberIds[from + i];
+            for (int e = followerStarts[u]; e < followerStarts[u + 1]; e++) {
+                if (communityOf[followerIds[e]] == community) {
+                    counts[i]++;
+                }
+            }
+        }
+        int[] top = TopK.select(size, k, (a, b) -> counts[a] != counts[b]
+                ? counts[a] > counts[b]
+                : graph.username(memberIds[from + a]).compareTo(graph.username(memberIds[from + b])) < 0);
+        List<String> result = new ArrayList<>(top.length);
+        for (int i : top) {
+            result.add(graph.username(memberIds[from + i]));
+        }
+        return result;
+    }
+
+    /**
+     * Rank the members of every community, as influencers(int, int) does.
+     *
+     * @param k
+     *            number of users wanted per community, k >= 0
+     * @return list whose element c is influencers(c, k)
+     */
+    public List<List<String>> influencers(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        List<List<String>> result = new ArrayList<>(size());
+        for (int c = 0; c < size(); c++) {
+            result.add(influencers(c, k));
+        }
+        return result;
+    }
+
+    /*
+     * @return which half-round relabels user u: 0 or 1, scattered by a hash
+     *         so that neighbours are often in different halves
+     */
+    private static int half(int u) {
+        return (u * 0x9E3779B9) >>> 31;
+    }
+
+    /*
+     * One half-round of label propagation over users [lo, hi): the users of
+     * that half are relabelled from labels into next, and the others copied.
+     * Split in half until each task has about GRAIN work, returning how many
+     * labels changed.
+     */
+    private static class Round extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final FollowsGraph graph;
+        private final int half;
+        private final int[] labels;
+        private final int[] next;
+        private final int lo;
+        private final int hi;
+
+        Round(FollowsGraph graph, int half, int[] labels, int[] next, int lo, int hi) {
+            this.graph = graph;
+            this.half = half;
+            this.labels = labels;
+            this.next = next;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected Integer compute() {
+            int[] followsStarts = graph.followsStarts();
+            int[] followerStarts = graph.followerStarts();
+            int work = (hi - lo) + (followsStarts[hi] - followsStarts[lo])
+                    + (followerStarts[hi] - followerStarts[lo]);
+            if (hi - lo > 1 && work > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Round left = new Round(graph, half, labels, next, lo, mid);
+                left.fork();
+                int right = new Round(graph, half, labels, next, mid, hi).compute();
+                return left.join() + right;
+            }
+            int[] followsIds = graph.followsIds();
+            int[] followerIds = graph.followerIds();
+            LabelCounts counts = new LabelCounts();
+            int changed = 0;
+            for (int u = lo; u < hi; u++) {
+                if (half(u) != half) {
+                    next[u] = labels[u];
+                    continue;
+                }
+                counts.clear();
+                counts.add(labels[u]);
+                for (int e = followsStarts[u]; e < followsStarts[u + 1]; e++) {
+                    counts.add(labels[followsIds[e]]);
+                }
+                for (int e = followerStarts[u]; e < followerStarts[u + 1]; e++) {
+                    counts.add(labels[followerIds[e]]);
+                }
+                next[u] = counts.mostFrequent();
+                if (next[u] != labels[u]) {
+                    changed++;
+                }
+            }
+            return changed;
+        }
+    }
+
+    /*
+     * Open-addressing hash map from nonnegative labels to counts, cleared in
+     * time proportional to its size.
+     */
+    private static class LabelCounts {
+        private static final int EMPTY = -1;
+
+        private int[] keys = newKeys(1 << 6);
+        private int[] counts = new int[1 << 6];
+        private final IntList used = new IntList();
+        /* Rep invariant:
+         *    keys.length == counts.length is a power of 2,
+         *    used.size() < keys.length / 2
+         *    used holds the slot index of every key, in insertion order
+         */
+
+        void add(int label) {
+            int mask = keys.length - 1;
+            int h = label * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == label) {
+                    counts[i]++;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = label;
+            counts[i] = 1;
+            used.add(i);
+            if (used.size() >= keys.length / 2) {
+                grow();
+            }
+        }
+
+        /*
+         * @return the label with the greatest count, the smallest such label
+         *         if several have it; requires at least one label
+         */
+        int mostFrequent() {
+            int best = keys[used.get(0)];
+            int bestCount = counts[used.get(0)];
+            for (int k = 1; k < used.size(); k++) {
+                int slot = used.get(k);
+                if (counts[slot] > bestCount || (counts[slot] == bestCount && keys[slot] < best)) {
+                    best = keys[slot];
+                    bestCount = counts[slot];
+                }
+            }
+            return best;
+        }
+
+        void clear() {
+            for (int k = 0; k < used.size(); k++) {
+                keys[used.get(k)] = EMPTY;
+            }
+            used.clear();
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            int[] oldUsed = used.toArray();
+            keys = newKeys(2 * oldKeys.length);
+            counts = new int[keys.length];
+            used.clear();
+            int mask = keys.length - 1;
+            for (int slot : oldUsed) {
+                int h = oldKeys[slot] * 0x9E3779B9;
+                int i = (h ^ (h >>> 16)) & mask;
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[slot];
+                counts[i] = oldCounts[slot];
+                used.add(i);
+            }
+        }
+
+        private static int[] newKeys(int length) {
+            int[] keys = new int[length];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package twitter;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One kind of evidence that a user follows another, for FollowsEvidence.
+ *
+ * FollowsEvidence tokenizes each tweet once and passes the tokens to every
+ * extractor, which adds weighted (follower, followed) edges to a sink. Once
+ * every tweet has been seen, each extractor's finish() is called, so that an
+ * extractor may also add evidence gathered across tweets.
+ *
+ * The static methods make the built-in signals. Extractors may keep state
+ * while a graph is built, so a fresh extractor should be made for each build.
+ */
+@FunctionalInterface
+public interface EvidenceExtractor {
+
+    /**
+     * Receiver of weighted follow evidence.
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * Add evidence that one user follows another. Evidence for the same
+         * pair adds up, across tweets and extractors; evidence that a user
+         * follows themself is ignored.
+         *
+         * @param follower
+         *            a Twitter username, in any case
+         * @param followed
+         *            a Twitter username, in any case
+         * @param weight
+         *            strength of the evidence, finite
+         */
+        void add(String follower, String followed, double weight);
+    }
+
+    /**
+     * Add the evidence in one tweet.
+     *
+     * @param tweet
+     *            the tweet's tokens
+     * @param sink
+     *            receiver of the evidence
+     */
+    void extract(TweetTokens tweet, Sink sink);
+
+    /**
+     * Add any evidence gathered across tweets, after every tweet has been
+     * passed to extract(). Does nothing unless overridden.
+     *
+     * @param sink
+     *            receiver of the evidence
+     */
+    default void finish(Sink sink) {
+    }
+
+    /**
+     * Evidence as in SocialNetwork.guessFollowsGraph(): the author of a tweet
+     * follows each user the tweet mentions.
+     *
+     * @param weight
+     *            weight of each mention, positive
+     * @return extractor adding weight from the author to each mentioned user,
+     *         once per tweet
+     */
+    static EvidenceExtractor mentions(double weight) {
+        FollowsEvidence.checkWeight(weight);
+        return (tweet, sink) -> {
+            for (String mention : tweet.getMentions()) {
+                sink.add(tweet.getAuthor(), mention, weight);
+            }
+        };
+    }
+
+    /**
+     * Evidence from replies: a tweet whose text starts with a mention replies
+     * to that user, whom its author then probably follows.
+     *
+     * @param weight
+     *            weight of each reply, positive
+     * @return extractor adding weight from the author to the user replied to
+     */
+    static EvidenceExtractor replies(double weight) {
+        FollowsEvidence.checkWeight(weight);
+        return (tweet, sink) -> {
+            if (tweet.getReplyTo() != null) {
+                sink.add(tweet.getAuthor(), tweet.getReplyTo(), weight);
+            }
+        };
+    }
+
+    /**
+     * Evidence from co-mentions: users mentioned together in a tweet probably
+     * follow each other.
+     *
+     * @param weight
+     *            weight of each co-mention, positive
+     * @return extractor adding weight in both directions between each pair of
+     *         distinct users mentioned in the same tweet
+     */
+    static EvidenceExtractor coMentions(double weight) {
+        FollowsEvidence.checkWeight(weight);
+        return (tweet, sink) -> {
+            List<String> mentions = tweet.getMentions();
+            for (int i = 0; i < mentions.size(); i++) {
+                for (int j = i + 1; j < mentions.size(); j++) {
+                    sink.add(mentions.get(i), mentions.get(j), weight);
+                    sink.add(mentions.get(j), mentions.get(i), weight);
+                }
+            }
+        };
+    }
+
+    /**
+     * Evidence from shared hashtags: authors who use the same hashtag
+     * probably follow each other. A hashtag used by very many authors says
+     * little about any two of them, and would cost time quadratic in their
+     * number, so such hashtags are skipped.
+     *
+     * @param weight
+     *            weight of each shared hashtag, positive
+     * @param maxAuthors
+     *            hashtags used by more than this many distinct authors are
+     *            ignored, maxAuthors >= 2
+     * @return new extractor adding weight in both directions between each pair
+     *         of distinct authors who used the same hashtag, once per
+     *         hashtag, when every tweet has been seen
+     */
+    static EvidenceExtractor sharedHashtags(double weight, int maxAuthors) {
+        FollowsEvidence.checkWeight(weight);
+        if (maxAuthors < 2) {
+            throw new IllegalArgumentException("requires maxAuthors >= 2");
+        }
+        return new EvidenceExtractor() {
+            // hashtag -> its distinct authors, or null once there are too many
+            private final Map<String, Set<String>> authors = new HashMap<>();
+
+            @Override public void extract(TweetTokens tweet, Sink sink) {
+                for (String hashtag : tweet.getHashtags()) {
+                    Set<String> users = authors.get(hashtag);
+                    if (users == null) {
+                        if (authors.containsKey(hashtag)) {
+                            continue;
+                        }
+                        users = new LinkedHashSet<>();
+                        authors.put(hashtag, users);
+                    }
+                    if (users.add(tweet.getAuthor()) && users.size() > maxAuthors) {
+                        authors.put(hashtag, null);
+                    }
+                }
+            }
+
+            @Override public void finish(Sink sink) {
+                for (Set<String> users : authors.values()) {
+                    if (users == null) {
+                        continue;
+                    }
+                    String[] list = users.toArray(new String[0]);
+                    for (int i = 0; i < list.length; i++) {
+                        for (int j = i + 1; j < list.length; j++) {
+                            sink.add(list[i], list[j], weight);
+                            sink.add(list[j], list[i], weight);
+                        }
+                    }
+                }
+            }
+        };
+    }
+}
@@ -4,11 +4,11 @@
 package twitter;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Extract consists of methods that extract information from a list of tweets.
@@ -19,6 +19,11 @@ import java.util.regex.Pattern;
  */
 public class Extract {
 
+    /*
+     * Lists shorter than this are not worth splitting across threads.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
     /**
      * Get the time period spanned by tweets.
      * @param tweets
@@ -47,6 +52,25 @@ public class Extract {
         return new Timespan(start, end);
     }
 
+    /**
+     * Get the time period spanned by tweets, scanning large lists in parallel.
+     * Same specification as getTimespan(); lists too small to benefit from
+     * parallelism are scanned sequentially.
+     *
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the list.
+     */
+    public static Timespan getTimespanParallel(List<Tweet> tweets) {
+        if (tweets.size() < PARALLEL_THRESHOLD) {
+            return getTimespan(tweets);
+        }
+        return tweets.parallelStream()
+                .collect(TimespanAccumulator::new, TimespanAccumulator::add, TimespanAccumulator::merge)
+                .getTimespan();
+    }
+
     /**
      * Get usernames mentioned in a list of tweets.
      * 
@@ -64,19 +88,76 @@ public class Extract {
      */
     public static Set<String> getMentionedUsers(List<Tweet> tweets) {
         Set<String> mentionedUsers = new HashSet<>();
+        MentionScanner scanner = new MentionScanner();
+        for (Tweet tweet : tweets) {
+            scanner.addMentions(tweet.getText(), mentionedUsers);
+        }
+        return mentionedUsers;
+    }
 
-        // Updated regex to handle punctuation after the username
-        Pattern mentionPattern = Pattern.compile("(?<=^|\\s)@([A-Za-z0-9_]+)(?=\\s|$|\\p{Punct})");
+    /**
+     * Get hashtags used in a list of tweets.
+     * 
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return the set of hashtags used in the text of the tweets, without the
+     *         "#". A hashtag is "#" followed by a nonempty sequence of A-Z,
+     *         a-z, 0-9 or "_", taking the longest such sequence.
+     *         The "#" cannot be immediately preceded by any character valid
+     *         in a Twitter username, so "a#b" does NOT contain a hashtag.
+     *         Hashtags are case-insensitive, and the returned set contains
+     *         each hashtag at most once, in lower case.
+     */
+    public static Set<String> getHashtags(List<Tweet> tweets) {
+        Set<String> hashtags = new HashSet<>();
+        MentionScanner scanner = new MentionScanner();
+        for (Tweet tweet : tweets) {
+            scanner.scan(tweet.getText(), null, hashtags);
+        }
+        return hashtags;
+    }
 
+    /**
+     * Estimate the number of distinct usernames mentioned in a list of
+     * tweets, in bounded memory.
+     * 
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return a new HyperLogLog sketch with DEFAULT_PRECISION of the usernames
+     *         that getMentionedUsers(tweets) would return, so its estimate()
+     *         approximates getMentionedUsers(tweets).size(). Sketches of
+     *         separate lists may be merged to count their concatenation.
+     */
+    public static HyperLogLog getMentionedUsersSketch(List<Tweet> tweets) {
+        HyperLogLog sketch = new HyperLogLog();
+        List<String> mentions = new ArrayList<>();
+        MentionScanner scanner = new MentionScanner();
         for (Tweet tweet : tweets) {
-            Matcher matcher = mentionPattern.matcher(tweet.getText());
-            while (matcher.find()) {
-                mentionedUsers.add(matcher.group(1).toLowerCase());
+            scanner.addMentions(tweet.getText(), mentions);
+            for (String username : mentions) {
+                sketch.add(username);
             }
+            mentions.clear();
         }
-
-        return mentionedUsers;
+        return sketch;
     }
 
+    /**
+     * Estimate the number of distinct authors of a list of tweets, in bounded
+     * memory.
+     * 
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return a new HyperLogLog sketch with DEFAULT_PRECISION of the authors
+     *         of the tweets, compared case-insensitively. Sketches of separate
+     *         lists may be merged to count their concatenation.
+     */
+    public static HyperLogLog getAuthorsSketch(List<Tweet> tweets) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (Tweet tweet : tweets) {
+            sketch.add(tweet.getAuthor().toLowerCase(Locale.ROOT));
+        }
+        return sketch;
+    }
 
 }
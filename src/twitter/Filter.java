@@ -82,30 +82,122 @@ public class Filter {
             return result; // No words to search for
         }
 
-        // Normalize search words to lower case and remove duplicates
-        Set<String> wordSet = new HashSet<>();
-        for (String word : words) {
-            String trimmed = word.trim().toLowerCase(Locale.ROOT);
-            if (!trimmed.isEmpty()) {
-                wordSet.add(trimmed);
-            }
-        }
-
+        Set<String> wordSet = normalizeWords(words);
         if (wordSet.isEmpty()) {
             return result; // After trimming, no valid words to search for
         }
 
         for (Tweet tweet : tweets) {
-            String[] tweetWords = tweet.getText().toLowerCase(Locale.ROOT).split("\\W+");
-            for (String word : tweetWords) {
-                if (wordSet.contains(word)) {
-                    result.add(tweet);
-                    break; // Move to next tweet after finding a match
-                }
+            if (TweetWords.anyWord(tweet.getText(), wordSet::contains)) {
+                result.add(tweet);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Find tweets written by each of several users, in one pass over the
+     * tweets. Equivalent to calling writtenBy() once per username.
+     * 
+     * @param tweets
+     *            a list of tweets with distinct ids, not modified by this method.
+     * @param usernames
+     *            Twitter usernames, each required to be a valid Twitter
+     *            username as defined by Tweet.getAuthor()'s spec.
+     * @return map from each of the usernames to writtenBy(tweets, username):
+     *         all and only the tweets in the list whose author is that
+     *         username, in the same order as in the input list. Each list is
+     *         a distinct object, even for usernames that differ only in case.
+     */
+    public static Map<String, List<Tweet>> writtenByEach(List<Tweet> tweets, Collection<String> usernames) {
+        Map<String, List<Tweet>> byAuthor = new HashMap<>();
+        for (String username : usernames) {
+            byAuthor.put(username.toLowerCase(Locale.ROOT), new ArrayList<>());
+        }
+        for (Tweet tweet : tweets) {
+            List<Tweet> matches = byAuthor.get(tweet.getAuthor().toLowerCase(Locale.ROOT));
+            if (matches != null) {
+                matches.add(tweet);
+            }
+        }
+
+        Map<String, List<Tweet>> result = new HashMap<>();
+        Set<List<Tweet>> used = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String username : usernames) {
+            List<Tweet> matches = byAuthor.get(username.toLowerCase(Locale.ROOT));
+            result.put(username, used.add(matches) ? matches : new ArrayList<>(matches));
+        }
+        return result;
+    }
+
+    /**
+     * Find tweets that contain certain words, for each of several topics, in
+     * one pass over the tweets. Equivalent to calling containing() once per
+     * topic.
+     * 
+     * @param tweets
+     *            a list of tweets with distinct ids, not modified by this method.
+     * @param topics
+     *            map from topic names to lists of words to search for, as for
+     *            containing().
+     * @return map from each topic name to containing(tweets, words) for its
+     *         list of words: all and only the tweets in the list whose text
+     *         includes at least one of those words, compared
+     *         case-insensitively, in the same order as in the input list.
+     */
+    public static Map<String, List<Tweet>> containingByTopic(List<Tweet> tweets, Map<String, List<String>> topics) {
+        // invert the topics, so each word of a tweet is looked up only once
+        List<String> names = new ArrayList<>(topics.keySet());
+        List<List<Tweet>> matches = new ArrayList<>();
+        Map<String, List<Integer>> topicsOfWord = new HashMap<>();
+        for (int t = 0; t < names.size(); t++) {
+            matches.add(new ArrayList<>());
+            for (String word : normalizeWords(topics.get(names.get(t)))) {
+                topicsOfWord.computeIfAbsent(word, w -> new ArrayList<>()).add(t);
             }
         }
 
+        if (!topicsOfWord.isEmpty()) {
+            int[] lastMatch = new int[names.size()];
+            Arrays.fill(lastMatch, -1);
+            for (int i = 0; i < tweets.size(); i++) {
+                final int position = i;
+                final Tweet tweet = tweets.get(i);
+                TweetWords.forEachWord(tweet.getText(), word -> {
+                    List<Integer> wordTopics = topicsOfWord.get(word);
+                    if (wordTopics == null) {
+                        return;
+                    }
+                    for (int t : wordTopics) {
+                        if (lastMatch[t] != position) {
+                            lastMatch[t] = position;
+                            matches.get(t).add(tweet);
+                        }
+                    }
+                });
+            }
+        }
+
+        Map<String, List<Tweet>> result = new HashMap<>();
+        for (int t = 0; t < names.size(); t++) {
+            result.put(names.get(t), matches.get(t));
+        }
         return result;
     }
 
+    /*
+     * Normalize search words to lower case and remove duplicates and empty words.
+     */
+    static Set<String> normalizeWords(List<String> words) {
+        Set<String> wordSet = new HashSet<>();
+        for (String word : words) {
+            String trimmed = TweetWords.normalize(word.trim());
+            if (!trimmed.isEmpty()) {
+                wordSet.add(trimmed);
+            }
+        }
+        return wordSet;
+    }
+
 }
@@ -0,0 +1,106 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Guesses a follows graph by weighing several kinds of evidence at once.
+ *
+ * Each tweet is tokenized once, into TweetTokens, and passed to every
+ * EvidenceExtractor; the weights they give each (follower, followed) pair are
+ * summed, and a pair becomes a follow when its total weight reaches a
+ * threshold. With only EvidenceExtractor.mentions(1) and a threshold of 1,
+ * the result is SocialNetwork.guessFollowsGraph().
+ */
+public class FollowsEvidence implements EvidenceExtractor.Sink {
+
+    private final UsernameIds ids = new UsernameIds();
+    private final PairTable pairs = new PairTable();
+    private double[] weights = new double[16];
+    /* Rep invariant:
+     *    ids numbers distinct lower-case usernames
+     *    pairs maps each pair with evidence to 1 + its own index into
+     *      weights[0..pairs.size()), and holds no pair (u, u)
+     * Abstraction function:
+     *    represents the total evidence weight weights[pairs(u, v) - 1] that
+     *    ids.username(u) follows ids.username(v), over all pairs in pairs
+     */
+
+    private FollowsEvidence() {
+    }
+
+    /**
+     * Guess who might follow whom, from several kinds of evidence.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by
+     *            this method
+     * @param extractors
+     *            the kinds of evidence to weigh, each new to this call
+     * @param threshold
+     *            total evidence weight at which a pair becomes a follow,
+     *            positive
+     * @return a social network, as defined by SocialNetwork, in which A
+     *         follows B iff the weights given by the extractors to evidence
+     *         that A follows B sum to at least threshold. Usernames are in
+     *         lower case, and every user who follows somebody is a key.
+     */
+    public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets, List<EvidenceExtractor> extractors,
+            double threshold) {
+        checkWeight(threshold);
+        FollowsEvidence evidence = new FollowsEvidence();
+        MentionScanner scanner = new MentionScanner();
+        for (Tweet tweet : tweets) {
+            TweetTokens tokens = TweetTokens.of(tweet, scanner);
+            for (EvidenceExtractor extractor : extractors) {
+                extractor.extract(tokens, evidence);
+            }
+        }
+        for (EvidenceExtractor extractor : extractors) {
+            extractor.finish(evidence);
+        }
+        return evidence.toMap(threshold);
+    }
+
+    @Override public void add(String follower, String followed, double weight) {
+        String from = follower.toLowerCase(Locale.ROOT);
+        String to = followed.toLowerCase(Locale.ROOT);
+        if (!from.equals(to)) {
+            int u = ids.id(from);
+            int v = ids.id(to);
+            long slot = pairs.get(u, v);
+            if (slot == 0) {
+                slot = pairs.size() + 1;
+                pairs.add(u, v, slot);
+                if (slot > weights.length) {
+                    weights = Arrays.copyOf(weights, 2 * weights.length);
+                }
+            }
+            weights[(int) slot - 1] += weight;
+        }
+    }
+
+    private Map<String, Set<String>> toMap(double threshold) {
+        Map<String, Set<String>> map = new HashMap<>();
+        pairs.forEach((u, v, slot) -> {
+            if (weights[(int) slot - 1] >= threshold) {
+                map.computeIfAbsent(ids.username(u), k -> new HashSet<>()).add(ids.username(v));
+            }
+        });
+        return map;
+    }
+
+    /*
+     * Reject weights and thresholds that are not finite and positive.
+     */
+    static void checkWeight(double weight) {
+        if (!(weight > 0 && weight < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("requires finite positive weight");
+        }
+    }
+}
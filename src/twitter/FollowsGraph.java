@@ -0,0 +1,353 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable compact social network, holding the same information as the
+ * Map<String, Set<String>> form defined by SocialNetwork.
+ *
+ * Each distinct username, case-folded to lower case, is given a dense int id
+ * in [0, size()). The users that each user follows, and the users following
+ * each user, are stored in compressed sparse row form: one int array of ids
+ * grouped by user, plus an array of offsets where each user's group starts.
+ * An edge then costs two ints, one in each direction, instead of the hash
+ * nodes and set objects of the map form.
+ *
+ * fromMap() and toMap() convert between the two forms, so code written
+ * against the map form keeps working.
+ */
+public class FollowsGraph {
+
+    private final String[] usernames;
+    private final Map<String, Integer> ids;
+    private final int[] followsStarts;
+    private final int[] followsIds;
+    private final int[] followerStarts;
+    private final int[] followerIds;
+    /* Rep invariant:
+     *    usernames are distinct and lower case, and ids maps usernames[i] to i
+     *    followsStarts.length == followerStarts.length == usernames.length + 1
+     *    followsStarts and followerStarts start at 0, are nondecreasing, and
+     *      end at followsIds.length == followerIds.length
+     *    followsIds[followsStarts[u]..followsStarts[u+1]) are the ids that u
+     *      follows, strictly increasing and not including u
+     *    followerIds[followerStarts[u]..followerStarts[u+1]) are the ids that
+     *      follow u, strictly increasing; v is among u's followers iff u is
+     *      among the ids v follows
+     * Abstraction function:
+     *    represents the social network in which usernames[u] follows
+     *    usernames[v] iff v is among the ids u follows, over the set of
+     *    users usernames
+     */
+
+    private FollowsGraph(String[] usernames, Map<String, Integer> ids, int[] followsStarts, int[] followsIds) {
+        this.usernames = usernames;
+        this.ids = ids;
+        this.followsStarts = followsStarts;
+        this.followsIds = followsIds;
+
+        // followers by counting sort on the followed id; visiting followers
+        // in increasing id order keeps each group sorted
+        int users = usernames.length;
+        this.followerStarts = new int[users + 1];
+        for (int followed : followsIds) {
+            followerStarts[followed + 1]++;
+        }
+        for (int u = 0; u < users; u++) {
+            followerStarts[u + 1] += followerStarts[u];
+        }
+        this.followerIds = new int[followsIds.length];
+        int[] next = Arrays.copyOf(followerStarts, users);
+        for (int u = 0; u < users; u++) {
+            for (int e = followsStarts[u]; e < followsStarts[u + 1]; e++) {
+                followerIds[next[followsIds[e]]++] = u;
+            }
+        }
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert followsStarts.length == usernames.length + 1;
+        assert followerStarts.length == usernames.length + 1;
+        assert followsStarts[usernames.length] == followsIds.length;
+        assert followerIds.length == followsIds.length;
+    }
+
+    /**
+     * Convert a social network from its map form.
+     *
+     * @param followsGraph
+     *            a social network, as defined by SocialNetwork, not modified
+     *            by this method
+     * @return the same social network, over the users that are keys or
+     *         members of values of followsGraph. Usernames that differ only
+     *         in case are the same user, and self-follows are ignored.
+     */
+    public static FollowsGraph fromMap(Map<String, Set<String>> followsGraph) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            int follower = builder.id(entry.getKey().toLowerCase(Locale.ROOT));
+            for (String followed : entry.getValue()) {
+                builder.addEdge(follower, builder.id(followed.toLowerCase(Locale.ROOT)));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Guess the social network of a list of tweets, as
+     * FollowsGraphBuilder.build() does, without building its map form.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @return social network in which A follows B iff A wrote a tweet that
+     *         @-mentions B and A and B are different users, over the users
+     *         that follow or are followed by somebody
+     */
+    public static FollowsGraph fromTweets(List<Tweet> tweets) {
+        Builder builder = new Builder();
+        MentionScanner scanner = new MentionScanner();
+        List<String> mentions = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            mentions.clear();
+            scanner.addMentions(tweet.getText(), mentions);
+            if (mentions.isEmpty()) {
+                continue;
+            }
+            String author = tweet.getAuthor().toLowerCase(Locale.ROOT);
+            for (String mention : mentions) {
+                if (!mention.equals(author)) {
+                    builder.addEdge(builder.id(author), builder.id(mention));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert this social network to its map form.
+     *
+     * @return a new mutable social network, as defined by SocialNetwork, with
+     *         the same users and follows as this one, in lower case. Every
+     *         user who follows somebody is a key, and so is every user who
+     *         neither follows nor is followed, with an empty set.
+     */
+    public Map<String, Set<String>> toMap() {
+        Map<String, Set<String>> map = new HashMap<>();
+        for (int u = 0; u < usernames.length; u++) {
+            int from = followsStarts[u];
+            int to = followsStarts[u + 1];
+            if (from == to && followerCount(u) > 0) {
+                continue;
+            }
+            Set<String> follows = new HashSet<>();
+            for (int e = from; e < to; e++) {
+                follows.add(usernames[followsIds[e]]);
+            }
+            map.put(usernames[u], follows);
+        }
+        return map;
+    }
+
+    /**
+     * @return the number of users in this network
+     */
+    public int size() {
+        return usernames.length;
+    }
+
+    /**
+     * @return the number of (follower, followed) pairs in this network
+     */
+    public int edgeCount() {
+        return followsIds.length;
+    }
+
+    /**
+     * @param username
+     *            a Twitter username, in any case
+     * @return the id of that user in [0, size()), or -1 if the user is not
+     *         in this network
+     */
+    public int id(String username) {
+        Integer id = ids.get(username.toLowerCase(Locale.ROOT));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id
+     *            a user id in [0, size())
+     * @return that user's username, in lower case
+     */
+    public String username(int id) {
+        return usernames[id];
+    }
+
+    /**
+     * @param id
+     *            a user id in [0, size())
+     * @return the ids of the users that user follows, in increasing order
+     */
+    public int[] follows(int id) {
+        return Arrays.copyOfRange(followsIds, followsStarts[id], followsStarts[id + 1]);
+    }
+
+    /**
+     * @param id
+     *            a user id in [0, size())
+     * @return the ids of the users who follow that user, in increasing order
+     */
+    public int[] followers(int id) {
+        return Arrays.copyOfRange(followerIds, followerStarts[id], followerStarts[id + 1]);
+    }
+
+    /**
+     * @param id
+     *            a user id in [0, size())
+     * @return the number of users that user follows
+     */
+    public int followsCount(int id) {
+        return followsStarts[id + 1] - followsStarts[id];
+    }
+
+    /**
+     * @param id
+     *            a user id in [0, size())
+     * @return the number of users who follow that user
+     */
+    public int followerCount(int id) {
+        return followerStarts[id + 1] - followerStarts[id];
+    }
+
+    /**
+     * @param follower
+     *            a user id in [0, size())
+     * @param followed
+     *            a user id in [0, size())
+     * @return true iff follower follows followed
+     */
+    public boolean isFollowing(int follower, int followed) {
+        return Arrays.binarySearch(followsIds, followsStarts[follower], followsStarts[follower + 1], followed) >= 0;
+    }
+
+    /**
+     * Find the users with the most followers.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the first min(k, size()) usernames in descending order of
+     *         follower count, with users having equal follower counts in
+     *         ascending order of username
+     */
+    public List<String> influencers(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        int[] top = TopK.select(usernames.length, k, (a, b) -> {
+            int countA = followerCount(a);
+            int countB = followerCount(b);
+            return countA != countB ? countA > countB : usernames[a].compareTo(usernames[b]) < 0;
+        });
+        List<String> result = new ArrayList<>(top.length);
+        for (int id : top) {
+            result.add(usernames[id]);
+        }
+        return result;
+    }
+
+    /*
+     * Offsets and ids of the follows rows, for algorithms in this package
+     * that walk the whole graph. Not copied: callers must not modify them.
+     */
+    int[] followsStarts() {
+        return followsStarts;
+    }
+
+    int[] followsIds() {
+        return followsIds;
+    }
+
+    /*
+     * Offsets and ids of the followers rows. Not copied: callers must not
+     * modify them.
+     */
+    int[] followerStarts() {
+        return followerStarts;
+    }
+
+    int[] followerIds() {
+        return followerIds;
+    }
+
+    /*
+     * Mutable accumulator of users and edges, which sorts and deduplicates
+     * the edges into rows when built.
+     */
+    static class Builder {
+        private final UsernameIds ids = new UsernameIds();
+        private final IntList followers = new IntList();
+        private final IntList followed = new IntList();
+
+        /*
+         * @param username a lower-case username
+         * @return its id, assigning the next id if it is new
+         */
+        int id(String username) {
+            return ids.id(username);
+        }
+
+        /*
+         * Record that follower follows followed; self-follows and repeated
+         * edges are ignored.
+         */
+        void addEdge(int follower, int followed) {
+            if (follower != followed) {
+                this.followers.add(follower);
+                this.followed.add(followed);
+            }
+        }
+
+        FollowsGraph build() {
+            int users = ids.size();
+            int edges = followers.size();
+            int[] starts = new int[users + 1];
+            for (int e = 0; e < edges; e++) {
+                starts[followers.get(e) + 1]++;
+            }
+            for (int u = 0; u < users; u++) {
+                starts[u + 1] += starts[u];
+            }
+            int[] targets = new int[edges];
+            int[] next = Arrays.copyOf(starts, users);
+            for (int e = 0; e < edges; e++) {
+                targets[next[followers.get(e)]++] = followed.get(e);
+            }
+
+            // sort each row, then squeeze out repeated edges
+            int count = 0;
+            int rowStart = 0;
+            for (int u = 0; u < users; u++) {
+                int rowEnd = starts[u + 1];
+                Arrays.sort(targets, rowStart, rowEnd);
+                starts[u] = count;
+                for (int e = rowStart; e < rowEnd; e++) {
+                    if (e == rowStart || targets[e] != targets[e - 1]) {
+                        targets[count++] = targets[e];
+                    }
+                }
+                rowStart = rowEnd;
+            }
+            starts[users] = count;
+            return new FollowsGraph(ids.toArray(), ids.toMap(), starts,
+                    Arrays.copyOf(targets, count));
+        }
+    }
+}
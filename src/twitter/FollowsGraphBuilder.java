@@ -0,0 +1,160 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Build the follows graph that SocialNetwork.guessFollowsGraph() guesses,
+ * using several threads.
+ *
+ * The evidence that A follows B is that A wrote a tweet @-mentioning B, with
+ * mentions found by the rules of Extract.getMentionedUsers(). Usernames are
+ * case-folded to lower case and interned in a table shared by all threads, so
+ * each distinct username is a single String however often it occurs. The
+ * tweets are split into chunks of consecutive tweets; each chunk builds its
+ * own partial graph on a ForkJoinPool, and partial graphs are merged pairwise
+ * as the tasks join, smaller into larger, so no thread ever waits on a lock
+ * around a shared graph.
+ */
+public class FollowsGraphBuilder {
+
+    /**
+     * Default number of tweets scanned by each task.
+     */
+    public static final int DEFAULT_CHUNK_TWEETS = 1 << 14;
+
+    /**
+     * Guess the follows graph of a list of tweets, in parallel on the common
+     * ForkJoinPool.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @return a social network, as defined by SocialNetwork, in which A
+     *         follows B if and only if A wrote a tweet that @-mentions B and
+     *         A and B are different users. Every username is in lower case,
+     *         and only users who follow somebody are keys.
+     */
+    public static Map<String, Set<String>> build(List<Tweet> tweets) {
+        return build(tweets, ForkJoinPool.commonPool(), DEFAULT_CHUNK_TWEETS);
+    }
+
+    /**
+     * Guess the follows graph of a list of tweets, in parallel.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @param pool
+     *            pool to scan chunks on
+     * @param chunkTweets
+     *            number of tweets scanned by each task, at least 1
+     * @return the same social network as build(tweets)
+     */
+    public static Map<String, Set<String>> build(List<Tweet> tweets, ForkJoinPool pool, int chunkTweets) {
+        if (chunkTweets < 1) {
+            throw new IllegalArgumentException("requires chunkTweets >= 1");
+        }
+        BuildChunk task = new BuildChunk(tweets.toArray(new Tweet[0]), new ConcurrentHashMap<>(),
+                chunkTweets, 0, tweets.size());
+        return tweets.size() <= chunkTweets ? task.compute() : pool.invoke(task);
+    }
+
+    /*
+     * Build the partial graph of tweets [lo, hi), splitting the range in half
+     * until each task has at most chunkTweets tweets.
+     */
+    private static class BuildChunk extends RecursiveTask<Map<String, Set<String>>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Tweet[] tweets;
+        private final ConcurrentHashMap<String, String> names;
+        private final int chunkTweets;
+        private final int lo;
+        private final int hi;
+
+        BuildChunk(Tweet[] tweets, ConcurrentHashMap<String, String> names, int chunkTweets, int lo, int hi) {
+            this.tweets = tweets;
+            this.names = names;
+            this.chunkTweets = chunkTweets;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected Map<String, Set<String>> compute() {
+            if (hi - lo > chunkTweets) {
+                int mid = (lo + hi) >>> 1;
+                BuildChunk left = new BuildChunk(tweets, names, chunkTweets, lo, mid);
+                BuildChunk right = new BuildChunk(tweets, names, chunkTweets, mid, hi);
+                left.fork();
+                Map<String, Set<String>> rightGraph = right.compute();
+                return merge(left.join(), rightGraph);
+            }
+
+            Map<String, Set<String>> graph = new HashMap<>();
+            MentionScanner scanner = new MentionScanner();
+            List<String> mentions = new ArrayList<>();
+            for (int i = lo; i < hi; i++) {
+                Tweet tweet = tweets[i];
+                mentions.clear();
+                scanner.addMentions(tweet.getText(), mentions);
+                if (mentions.isEmpty()) {
+                    continue;
+                }
+                String author = intern(tweet.getAuthor().toLowerCase(Locale.ROOT));
+                Set<String> follows = null;
+                for (String mention : mentions) {
+                    if (mention.equals(author)) {
+                        continue;
+                    }
+                    if (follows == null) {
+                        follows = graph.computeIfAbsent(author, a -> new HashSet<>());
+                    }
+                    follows.add(intern(mention));
+                }
+            }
+            return graph;
+        }
+
+        /*
+         * @return the canonical String equal to name
+         */
+        private String intern(String name) {
+            String canonical = names.get(name);
+            if (canonical == null) {
+                canonical = names.putIfAbsent(name, name);
+            }
+            return canonical == null ? name : canonical;
+        }
+    }
+
+    /*
+     * Merge two partial graphs, reusing the larger map and, for each user,
+     * the larger set of follows.
+     *
+     * @return the union of the two graphs
+     */
+    private static Map<String, Set<String>> merge(Map<String, Set<String>> a, Map<String, Set<String>> b) {
+        Map<String, Set<String>> larger = a.size() >= b.size() ? a : b;
+        Map<String, Set<String>> smaller = larger == a ? b : a;
+        for (Map.Entry<String, Set<String>> entry : smaller.entrySet()) {
+            larger.merge(entry.getKey(), entry.getValue(), (x, y) -> {
+                if (x.size() < y.size()) {
+                    y.addAll(x);
+                    return y;
+                }
+                x.addAll(y);
+                return x;
+            });
+        }
+        return larger;
+    }
+}
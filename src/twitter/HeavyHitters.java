@@ -0,0 +1,221 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate counts of the most frequent items in a stream, in memory
+ * bounded by a fixed number of counters however many distinct items occur,
+ * by the Space-Saving algorithm.
+ *
+ * While fewer items than counters have been seen, every count is exact. After
+ * that, an item without a counter takes over the counter with the smallest
+ * count, inheriting that count as its possible overestimate. For a stream of
+ * n items and m counters, every estimated count exceeds the true count by at
+ * most n / m, and every item occurring more than n / m times holds a counter.
+ * Choosing m = ceil(1 / epsilon) thus bounds the error by epsilon * n.
+ *
+ * Updates take O(log m) time, with the counters kept in a binary min-heap on
+ * count. This class is not thread-safe.
+ */
+public class HeavyHitters {
+
+    /**
+     * Largest number of counters, 2^20, which with their index take on the
+     * order of 100 MB besides the items themselves.
+     */
+    public static final int MAX_CAPACITY = 1 << 20;
+
+    private final String[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private int size = 0;
+    private long total = 0;
+    /* Rep invariant:
+     *    items.length == counts.length == errors.length >= 1
+     *    items[0..size) are distinct and nonnull, and slots maps items[i] to i
+     *    0 <= errors[i] < counts[i] for i < size
+     *    counts[0..size) is a min-heap: counts[(i-1)/2] <= counts[i]
+     *    total >= sum of counts[0..size) - errors[0..size)
+     * Abstraction function:
+     *    represents a stream of total items, in which items[i] occurred
+     *    between counts[i] - errors[i] and counts[i] times, and every item not
+     *    among items occurred at most minCount() times
+     */
+
+    /**
+     * Make an empty tracker.
+     *
+     * @param capacity
+     *            number of counters, 1 <= capacity <= MAX_CAPACITY
+     */
+    public HeavyHitters(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("requires 1 <= capacity <= " + MAX_CAPACITY);
+        }
+        items = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+    }
+
+    /**
+     * Make an empty tracker with enough counters for an error bound.
+     *
+     * @param epsilon
+     *            largest overestimate wanted, as a fraction of the number of
+     *            items seen, 0 < epsilon <= 1 and ceil(1 / epsilon) <=
+     *            MAX_CAPACITY
+     * @return tracker with ceil(1 / epsilon) counters
+     */
+    public static HeavyHitters withError(double epsilon) {
+        if (!(epsilon > 0 && epsilon <= 1) || Math.ceil(1 / epsilon) > MAX_CAPACITY) {
+            throw new IllegalArgumentException("requires 0 < epsilon <= 1 and at most " + MAX_CAPACITY + " counters");
+        }
+        return new HeavyHitters((int) Math.ceil(1 / epsilon));
+    }
+
+    /**
+     * Count one occurrence of an item.
+     *
+     * @param item
+     *            item seen, nonnull; items are compared with equals()
+     */
+    public void add(String item) {
+        total++;
+        Integer slot = slots.get(item);
+        if (slot != null) {
+            counts[slot]++;
+            siftDown(slot);
+        } else if (size < items.length) {
+            items[size] = item;
+            counts[size] = 1;
+            errors[size] = 0;
+            slots.put(item, size);
+            siftUp(size++);
+        } else {
+            // take over the smallest counter, at the root
+            slots.remove(items[0]);
+            items[0] = item;
+            errors[0] = counts[0];
+            counts[0]++;
+            slots.put(item, 0);
+            siftDown(0);
+        }
+        checkRep();
+    }
+
+    /**
+     * @return number of items counted so far
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return number of counters
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * @return the largest number of times an item without a counter may have
+     *         occurred: 0 while some counter is free, else the smallest count
+     */
+    public long minCount() {
+        return size < items.length ? 0 : counts[0];
+    }
+
+    /**
+     * @param item
+     *            an item
+     * @return an upper bound on the number of times item occurred: its count
+     *         if it holds a counter, else minCount()
+     */
+    public long estimate(String item) {
+        Integer slot = slots.get(item);
+        return slot == null ? minCount() : counts[slot];
+    }
+
+    /**
+     * @param item
+     *            an item
+     * @return a lower bound on the number of times item occurred: its count
+     *         less its possible overestimate if it holds a counter, else 0
+     */
+    public long guaranteed(String item) {
+        Integer slot = slots.get(item);
+        return slot == null ? 0 : counts[slot] - errors[slot];
+    }
+
+    /**
+     * Find the items with the highest estimated counts.
+     *
+     * @param k
+     *            number of items wanted, k >= 0
+     * @return the first min(k, number of counters in use) items holding
+     *         counters, in descending order of estimate(), with items having
+     *         equal estimates in ascending order
+     */
+    public List<String> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        int[] top = TopK.select(size, k, (a, b) -> counts[a] != counts[b]
+                ? counts[a] > counts[b]
+                : items[a].compareTo(items[b]) < 0);
+        List<String> result = new ArrayList<>(top.length);
+        for (int slot : top) {
+            result.add(items[slot]);
+        }
+        return result;
+    }
+
+    private void checkRep() {
+        assert size <= items.length;
+        assert slots.size() == size;
+        assert size == 0 || errors[0] < counts[0];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                child++;
+            }
+            if (counts[i] <= counts[child]) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        long count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+        long error = errors[i];
+        errors[i] = errors[j];
+        errors[j] = error;
+        slots.put(items[i], i);
+        slots.put(items[j], j);
+    }
+}
@@ -0,0 +1,218 @@
+package twitter;
+
+/**
+ * Mutable HyperLogLog sketch estimating the number of distinct strings added
+ * to it, in memory that does not grow with that number.
+ *
+ * A sketch of precision p keeps m = 2^p one-byte registers: 4 KB at the
+ * default precision of 12. Each string is hashed to 64 bits; the first p bits
+ * pick a register, which keeps the largest position of the first 1 bit among
+ * the remaining bits of the strings it has seen. estimate() uses Ertl's
+ * improved estimator ("New cardinality estimation algorithms for HyperLogLog
+ * sketches", 2017), which corrects for empty and saturated registers in one
+ * formula, so there is no switch from linear counting to the raw estimate and
+ * no bias where the two meet. Its relative standard error is about
+ * 1.04 / sqrt(m) at every count, 1.6% at the default precision, and small
+ * counts are close to exact.
+ *
+ * Adding the same string twice, or in a different order, gives the same
+ * sketch. Sketches of the same precision merge by taking the larger of each
+ * pair of registers, giving exactly the sketch of the union of their strings,
+ * so shards of a stream can be counted separately and combined. This class is
+ * not thread-safe.
+ */
+public class HyperLogLog {
+
+    /**
+     * Default precision, for 2^12 registers.
+     */
+    public static final int DEFAULT_PRECISION = 12;
+
+    /**
+     * Smallest allowed precision.
+     */
+    public static final int MIN_PRECISION = 4;
+
+    /**
+     * Largest allowed precision.
+     */
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+    /* Rep invariant:
+     *    MIN_PRECISION <= precision <= MAX_PRECISION
+     *    registers.length == 2^precision
+     *    0 <= registers[i] <= 64 - precision + 1
+     * Abstraction function:
+     *    represents a set of strings, of which those hashing to register i
+     *    have at most registers[i] - 1 zero bits after the first precision
+     *    bits of their hash
+     */
+
+    /**
+     * Make an empty sketch with DEFAULT_PRECISION.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Make an empty sketch.
+     *
+     * @param precision
+     *            log2 of the number of registers, MIN_PRECISION <= precision
+     *            <= MAX_PRECISION
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                    "requires " + MIN_PRECISION + " <= precision <= " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private void checkRep() {
+        assert registers.length == 1 << precision;
+    }
+
+    /**
+     * Add a string to the set.
+     *
+     * @param item
+     *            string to add; strings are compared with equals()
+     */
+    public void add(String item) {
+        long hash = hash(item);
+        int register = (int) (hash >>> (64 - precision));
+        // the sentinel bit caps the rank at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    /**
+     * Add all the strings of another sketch to this one.
+     *
+     * @param that
+     *            sketch with the same precision, not modified by this method
+     */
+    public void merge(HyperLogLog that) {
+        if (that.precision != precision) {
+            throw new IllegalArgumentException("requires sketches of equal precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (that.registers[i] > registers[i]) {
+                registers[i] = that.registers[i];
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * @return estimated number of distinct strings added so far, with a
+     *         relative standard error of about standardError()
+     */
+    public long estimate() {
+        int m = registers.length;
+        int q = 64 - precision;
+        // Ertl's improved estimator, from the histogram of register values;
+        // alpha(m) in place of its limit 1 / (2 ln 2) keeps small m unbiased
+        int[] counts = new int[q + 2];
+        for (byte register : registers) {
+            counts[register]++;
+        }
+        double z = m * tau(1 - (double) counts[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + counts[k]);
+        }
+        z += m * sigma((double) counts[0] / m);
+        return Math.round(alpha(m) * m * m / z);
+    }
+
+    /**
+     * @return the precision of this sketch
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * @return the relative standard error of estimate(), 1.04 / sqrt(2^precision)
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /*
+     * sigma(x) = x + sum over k >= 1 of x^(2^k) * 2^(k - 1), for 0 <= x <= 1,
+     * which accounts for the empty registers; infinite at x = 1.
+     */
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    /*
+     * tau(x) = (1 - x - sum over k >= 1 of (1 - x^(2^-k))^2 * 2^-k) / 3, for
+     * 0 <= x <= 1, which accounts for the registers at the largest rank.
+     */
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+
+    /*
+     * 64-bit FNV-1a over the chars of s, with the MurmurHash3 finalizer to
+     * spread every input bit over the high bits that pick the register.
+     */
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
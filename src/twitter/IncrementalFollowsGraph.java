@@ -0,0 +1,297 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mutable social network guessed from a growing stream of tweets, by the
+ * same rules as FollowsGraph.fromTweets(): A follows B iff A wrote a tweet
+ * that @-mentions B, and A and B are different users.
+ *
+ * Adding tweets updates each user's follows and followers and keeps a
+ * leaderboard of the users with the most followers, in time proportional to
+ * the number of mentions added, whatever the number of tweets added before.
+ *
+ * This class is thread-safe. Writers are serialized, and the methods that
+ * query the whole graph hold the same lock. topInfluencers() takes no lock:
+ * after each addTweet() or addAll(), the current leaderboard is published as
+ * an immutable list, which readers see whole while writers keep appending.
+ */
+public class IncrementalFollowsGraph {
+
+    /**
+     * Default number of users on the leaderboard.
+     */
+    public static final int DEFAULT_LEADERBOARD_SIZE = 10;
+
+    private final int leaderboardSize;
+
+    private final UsernameIds ids = new UsernameIds();
+    private IntList[] follows = new IntList[16];
+    private IntList[] followers = new IntList[16];
+    private final PairTable edges = new PairTable();
+    private final MentionScanner scanner = new MentionScanner();
+    private final List<String> mentions = new ArrayList<>();
+
+    private final IntList leaderboard = new IntList();
+    private boolean[] onLeaderboard = new boolean[16];
+    private int last = -1;
+    private boolean changed = false;
+    private volatile List<String> published = Collections.emptyList();
+    /* Rep invariant:
+     *    ids numbers distinct lower-case usernames
+     *    follows[u] and followers[u] are nonnull for u < ids.size()
+     *    v is in follows[u] iff u is in followers[v] iff edges maps (u, v)
+     *      to 1; each at most once, and never u == v
+     *    leaderboard holds distinct ids, onLeaderboard[u] iff u is in it, and
+     *      it is the first min(leaderboardSize, ids.size()) ids in
+     *      ranking order
+     *    if changed is false, published is the usernames of leaderboard in
+     *      ranking order, and if last >= 0 it is the last of leaderboard in
+     *      ranking order
+     * Ranking order: descending follower count, then ascending username.
+     *
+     * Thread safety argument:
+     *    every field but published is accessed only while holding this
+     *    object's lock. published is volatile and always refers to an
+     *    unmodifiable list that is never changed after it is published.
+     */
+
+    /**
+     * Make an empty graph with a leaderboard of DEFAULT_LEADERBOARD_SIZE users.
+     */
+    public IncrementalFollowsGraph() {
+        this(DEFAULT_LEADERBOARD_SIZE);
+    }
+
+    /**
+     * Make an empty graph.
+     *
+     * @param leaderboardSize
+     *            number of users kept on the leaderboard, at least 1
+     */
+    public IncrementalFollowsGraph(int leaderboardSize) {
+        if (leaderboardSize < 1) {
+            throw new IllegalArgumentException("requires leaderboardSize >= 1");
+        }
+        this.leaderboardSize = leaderboardSize;
+    }
+
+    /**
+     * Add the evidence in one tweet.
+     *
+     * @param tweet
+     *            tweet to add
+     */
+    public synchronized void addTweet(Tweet tweet) {
+        add(tweet);
+        publish();
+    }
+
+    /**
+     * Add the evidence in a list of tweets.
+     *
+     * @param tweets
+     *            tweets to add, not modified by this method
+     */
+    public synchronized void addAll(List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            add(tweet);
+        }
+        publish();
+    }
+
+    /**
+     * Find the users with the most followers. Never blocks, even while
+     * tweets are being added.
+     *
+     * @return unmodifiable list of the first min(leaderboard size, number of
+     *         users) usernames, in lower case, in descending order of
+     *         follower count, with users having equal follower counts in
+     *         ascending order of username, as of the end of the last
+     *         addTweet() or addAll() to finish
+     */
+    public List<String> topInfluencers() {
+        return published;
+    }
+
+    /**
+     * @return the number of users who follow or are followed by somebody
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return the number of (follower, followed) pairs
+     */
+    public synchronized int edgeCount() {
+        return edges.size();
+    }
+
+    /**
+     * @param username
+     *            a Twitter username, in any case
+     * @return the number of users who follow that user
+     */
+    public synchronized int followerCount(String username) {
+        int id = ids.find(username.toLowerCase(Locale.ROOT));
+        return id < 0 ? 0 : followers[id].size();
+    }
+
+    /**
+     * @return an immutable copy of the current graph, with the same user ids
+     */
+    public synchronized FollowsGraph snapshot() {
+        FollowsGraph.Builder builder = new FollowsGraph.Builder();
+        for (int u = 0; u < ids.size(); u++) {
+            builder.id(ids.username(u));
+        }
+        for (int u = 0; u < ids.size(); u++) {
+            IntList row = follows[u];
+            for (int i = 0; i < row.size(); i++) {
+                builder.addEdge(u, row.get(i));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return a new mutable social network, as defined by SocialNetwork, with
+     *         the same users and follows as this graph, in lower case. Every
+     *         user who follows somebody is a key.
+     */
+    public synchronized Map<String, Set<String>> toMap() {
+        Map<String, Set<String>> map = new HashMap<>();
+        for (int u = 0; u < ids.size(); u++) {
+            IntList row = follows[u];
+            if (row.size() > 0) {
+                Set<String> followed = new HashSet<>();
+                for (int i = 0; i < row.size(); i++) {
+                    followed.add(ids.username(row.get(i)));
+                }
+                map.put(ids.username(u), followed);
+            }
+        }
+        return map;
+    }
+
+    private void add(Tweet tweet) {
+        mentions.clear();
+        scanner.addMentions(tweet.getText(), mentions);
+        if (mentions.isEmpty()) {
+            return;
+        }
+        String author = tweet.getAuthor().toLowerCase(Locale.ROOT);
+        for (String mention : mentions) {
+            if (mention.equals(author)) {
+                continue;
+            }
+            int follower = id(author);
+            int followed = id(mention);
+            if (edges.add(follower, followed, 1) == 1) {
+                follows[follower].add(followed);
+                followers[followed].add(follower);
+                promote(followed);
+            }
+        }
+    }
+
+    /*
+     * @return the id of username, adding it as the next id if it is new
+     */
+    private int id(String username) {
+        int id = ids.find(username);
+        if (id < 0) {
+            id = ids.id(username);
+            if (id == follows.length) {
+                follows = Arrays.copyOf(follows, 2 * id);
+                followers = Arrays.copyOf(followers, 2 * id);
+                onLeaderboard = Arrays.copyOf(onLeaderboard, 2 * id);
+            }
+            follows[id] = new IntList(2);
+            followers[id] = new IntList(2);
+            promote(id);
+        }
+        return id;
+    }
+
+    /*
+     * Update the leaderboard after user u is added or gains a follower.
+     * Follower counts never decrease, so only u can move onto the
+     * leaderboard, and only in place of its last user.
+     */
+    private void promote(int u) {
+        if (onLeaderboard[u]) {
+            changed = true;
+            if (u == last) {
+                last = -1;
+            }
+            return;
+        }
+        if (leaderboard.size() < leaderboardSize) {
+            leaderboard.add(u);
+            onLeaderboard[u] = true;
+            changed = true;
+            last = -1;
+            return;
+        }
+        if (last < 0) {
+            last = findLast();
+        }
+        if (before(u, last)) {
+            for (int i = 0; i < leaderboard.size(); i++) {
+                if (leaderboard.get(i) == last) {
+                    leaderboard.set(i, u);
+                }
+            }
+            onLeaderboard[last] = false;
+            onLeaderboard[u] = true;
+            changed = true;
+            last = -1;
+        }
+    }
+
+    /*
+     * @return the user on the leaderboard ranked last
+     */
+    private int findLast() {
+        int worst = leaderboard.get(0);
+        for (int i = 1; i < leaderboard.size(); i++) {
+            if (before(worst, leaderboard.get(i))) {
+                worst = leaderboard.get(i);
+            }
+        }
+        return worst;
+    }
+
+    /*
+     * @return true iff user a ranks strictly before user b
+     */
+    private boolean before(int a, int b) {
+        int countA = followers[a].size();
+        int countB = followers[b].size();
+        return countA != countB ? countA > countB : ids.username(a).compareTo(ids.username(b)) < 0;
+    }
+
+    private void publish() {
+        if (!changed) {
+            return;
+        }
+        int[] order = TopK.select(leaderboard.size(), leaderboard.size(),
+                (i, j) -> before(leaderboard.get(i), leaderboard.get(j)));
+        List<String> top = new ArrayList<>(order.length);
+        for (int i : order) {
+            top.add(ids.username(leaderboard.get(i)));
+        }
+        published = Collections.unmodifiableList(top);
+        changed = false;
+    }
+}
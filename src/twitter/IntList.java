@@ -0,0 +1,57 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of ints, to avoid boxing while building indexes and graphs.
+ */
+class IntList {
+
+    private int[] values;
+    private int size = 0;
+    /* Rep invariant: 0 <= size <= values.length, values.length > 0 */
+
+    IntList() {
+        this(16);
+    }
+
+    IntList(int initialCapacity) {
+        values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    void set(int index, int value) {
+        values[index] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /*
+     * Requires size() > 0.
+     *
+     * @return the last value, after removing it
+     */
+    int removeLast() {
+        return values[--size];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
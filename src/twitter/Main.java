@@ -57,8 +57,10 @@ public class Main {
         final Timespan span = Extract.getTimespan(tweets);
         System.err.println("ranging from " + span.getStart() + " to " + span.getEnd());
         
-        final Set<String> mentionedUsers = Extract.getMentionedUsers(tweets);
-        System.err.println("covers " + mentionedUsers.size() + " Twitter users");
+        final HyperLogLog mentionedUsers = Extract.getMentionedUsersSketch(tweets);
+        System.err.println("covers about " + mentionedUsers.estimate() + " Twitter users");
+        final HyperLogLog authors = Extract.getAuthorsSketch(tweets);
+        System.err.println("written by about " + authors.estimate() + " authors");
         
         // infer the follows graph
         final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
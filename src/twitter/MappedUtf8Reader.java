@@ -0,0 +1,147 @@
+package twitter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader that decodes UTF-8 straight from a memory-mapped byte range of a
+ * file into the caller's char buffer, with no intermediate byte buffer.
+ *
+ * The range is mapped a window at a time, so ranges larger than a single
+ * mapping allows can be read, and only the pages actually touched are brought
+ * into memory. Malformed input is replaced with U+FFFD, as InputStreamReader
+ * does.
+ */
+class MappedUtf8Reader extends Reader {
+
+    private static final long WINDOW_BYTES = 256L << 20;
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long end;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final String prefix;
+    private final String suffix;
+
+    private ByteBuffer window;
+    private long windowStart;
+    private int prefixRead = 0;
+    private int suffixRead = 0;
+    private boolean decoded = false;
+    private boolean flushed = false;
+    /* Rep invariant:
+     *    window covers bytes [windowStart, windowStart + window.limit()) of the
+     *    file, and windowStart + window.limit() <= end
+     *    flushed implies decoded
+     *    chars of prefix are produced before the range, and chars of suffix
+     *    after the decoder has been flushed
+     */
+
+    /**
+     * Make a reader over bytes [start, end) of a file.
+     *
+     * @param channel
+     *            open file to read
+     * @param start
+     *            offset of the first byte to read
+     * @param end
+     *            offset after the last byte to read; requires start <= end
+     * @param ownsChannel
+     *            true if closing this reader should close the channel
+     * @throws IOException if the range can't be mapped
+     */
+    MappedUtf8Reader(FileChannel channel, long start, long end, boolean ownsChannel) throws IOException {
+        this(channel, start, end, ownsChannel, "", "");
+    }
+
+    private MappedUtf8Reader(FileChannel channel, long start, long end, boolean ownsChannel,
+            String prefix, String suffix) throws IOException {
+        if (start > end) {
+            throw new IllegalArgumentException("requires start <= end");
+        }
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.end = end;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        map(start);
+    }
+
+    /**
+     * Make a reader over bytes [start, end) of a file holding comma-separated
+     * JSON values, which reads them as a JSON array by adding the brackets.
+     * The channel is left open when the reader is closed.
+     *
+     * @param channel
+     *            open file to read
+     * @param start
+     *            offset of the first byte to read
+     * @param end
+     *            offset after the last byte to read; requires start <= end
+     * @return reader that produces "[", then the decoded range, then "]"
+     * @throws IOException if the range can't be mapped
+     */
+    static MappedUtf8Reader arrayOf(FileChannel channel, long start, long end) throws IOException {
+        return new MappedUtf8Reader(channel, start, end, false, "[", "]");
+    }
+
+    @Override public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (prefixRead < prefix.length() && count < len) {
+            cbuf[off + count++] = prefix.charAt(prefixRead++);
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off + count, len - count);
+        while (!flushed && out.hasRemaining()) {
+            if (!decoded) {
+                boolean lastWindow = windowStart + window.limit() == end;
+                if (decoder.decode(window, out, lastWindow).isOverflow()) {
+                    break;
+                }
+                if (!lastWindow) {
+                    map(windowStart + window.position());
+                    continue;
+                }
+                decoded = true;
+            }
+            if (decoder.flush(out).isOverflow()) {
+                break;
+            }
+            flushed = true;
+        }
+        count = out.position() - off;
+        while (flushed && suffixRead < suffix.length() && count < len) {
+            cbuf[off + count++] = suffix.charAt(suffixRead++);
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    @Override public void close() throws IOException {
+        window = ByteBuffer.allocate(0);
+        decoded = true;
+        flushed = true;
+        prefixRead = prefix.length();
+        suffixRead = suffix.length();
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+
+    /*
+     * Map the next window of the range, starting at the given offset.
+     */
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, end - start));
+    }
+}
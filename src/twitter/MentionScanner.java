@@ -0,0 +1,109 @@
+package twitter;
+
+import java.util.Collection;
+
+/**
+ * Single-pass scanner that finds the username-mentions in tweet text, as
+ * specified by Extract.getMentionedUsers(): "@" followed by a Twitter username
+ * (a nonempty sequence of A-Z, a-z, 0-9, "_" or "-"), where the "@" is not
+ * immediately preceded by a username character and the username is not
+ * immediately followed by one.
+ *
+ * The same pass can also find hashtags: "#" not immediately preceded by a
+ * username character, followed by a nonempty sequence of A-Z, a-z, 0-9 or
+ * "_", taking the longest such sequence.
+ *
+ * The text is copied into a reusable char array and each accepted username is
+ * lowercased in place there, so a String is only made for accepted mentions.
+ * A MentionScanner is mutable because of that array, so it must not be shared
+ * between threads.
+ */
+class MentionScanner {
+
+    private static final int INITIAL_CAPACITY = 280;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+
+    /**
+     * Add the mentions found in a tweet's text to a collection.
+     *
+     * @param text
+     *            tweet text
+     * @param mentions
+     *            collection to add each mentioned username to, lowercased,
+     *            once per mention in order of appearance
+     */
+    void addMentions(String text, Collection<? super String> mentions) {
+        scan(text, mentions, null);
+    }
+
+    /**
+     * Add the mentions and hashtags found in a tweet's text to collections,
+     * in one pass over the text.
+     *
+     * @param text
+     *            tweet text
+     * @param mentions
+     *            collection to add each mentioned username to, lowercased,
+     *            once per mention in order of appearance; or null to skip
+     *            collecting mentions
+     * @param hashtags
+     *            collection to add each hashtag to, without the "#" and
+     *            lowercased, once per hashtag in order of appearance; or null
+     *            to skip hashtags
+     */
+    void scan(String text, Collection<? super String> mentions, Collection<? super String> hashtags) {
+        int length = text.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        text.getChars(0, length, chars, 0);
+
+        boolean afterUsernameChar = false;
+        int i = 0;
+        while (i < length) {
+            char c = chars[i];
+            boolean mention = c == '@';
+            if (!(mention || (c == '#' && hashtags != null)) || afterUsernameChar) {
+                afterUsernameChar = isUsernameChar(c);
+                i++;
+                continue;
+            }
+            int start = i + 1;
+            int end = start;
+            while (end < length && (mention ? isUsernameChar(chars[end]) : isHashtagChar(chars[end]))) {
+                char d = chars[end];
+                if (d >= 'A' && d <= 'Z') {
+                    chars[end] = (char) (d + ('a' - 'A'));
+                }
+                end++;
+            }
+            if (end > start) {
+                if (!mention) {
+                    hashtags.add(new String(chars, start, end - start));
+                } else if (mentions != null) {
+                    mentions.add(new String(chars, start, end - start));
+                }
+            }
+            afterUsernameChar = end > start;
+            i = end;
+        }
+    }
+
+    /**
+     * @param c character
+     * @return true iff c may appear in a Twitter username, as defined by
+     *         Tweet.getAuthor()'s spec
+     */
+    static boolean isUsernameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    /**
+     * @param c character
+     * @return true iff c may appear in a hashtag after the "#"
+     */
+    static boolean isHashtagChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
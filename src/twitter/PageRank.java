@@ -0,0 +1,254 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PageRank influence scores over a follows graph.
+ *
+ * A user's score is the long-run probability that a reader who keeps moving
+ * from a user to somebody that user follows, chosen uniformly, is reading that
+ * user; with probability 1 - damping at each step, and always from a user who
+ * follows nobody, the reader jumps to a user chosen uniformly instead. Unlike
+ * a follower count, a score only grows much when influential users follow
+ * you, so it is harder to inflate with many throwaway accounts.
+ *
+ * Scores are computed by power iteration on double arrays. Each iteration
+ * pulls score along the follower rows of the graph, split into ranges of
+ * roughly equal work that are computed in parallel on a ForkJoinPool.
+ */
+public class PageRank {
+
+    /**
+     * Default probability of following a link rather than jumping.
+     */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /**
+     * Default convergence tolerance, on the sum of the absolute changes in
+     * the scores made by one iteration.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+
+    /**
+     * Default maximum number of iterations.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    /*
+     * Users plus edges handled by one task, so that a range holding a user
+     * with very many followers is not split less than any other.
+     */
+    private static final int GRAIN = 1 << 14;
+
+    private PageRank() {
+    }
+
+    /**
+     * Compute PageRank scores with the default parameters, on the common
+     * ForkJoinPool.
+     *
+     * @param graph
+     *            social network to score
+     * @return array of graph.size() scores indexed by user id, each positive
+     *         and together summing to 1 (up to rounding)
+     */
+    public static double[] scores(FollowsGraph graph) {
+        return scores(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute PageRank scores.
+     *
+     * @param graph
+     *            social network to score
+     * @param damping
+     *            probability of following a link rather than jumping, in [0, 1)
+     * @param tolerance
+     *            iteration stops once one iteration changes the scores by at
+     *            most this much in total, tolerance >= 0
+     * @param maxIterations
+     *            iteration stops after this many iterations in any case,
+     *            maxIterations >= 1
+     * @param pool
+     *            pool to compute each iteration on
+     * @return array of graph.size() scores indexed by user id, each positive
+     *         and together summing to 1 (up to rounding)
+     */
+    public static double[] scores(FollowsGraph graph, double damping, double tolerance, int maxIterations,
+            ForkJoinPool pool) {
+        if (!(damping >= 0 && damping < 1)) {
+            throw new IllegalArgumentException("requires damping in [0, 1)");
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("requires tolerance >= 0");
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("requires maxIterations >= 1");
+        }
+        int n = graph.size();
+        double[] rank = new double[n];
+        if (n == 0) {
+            return rank;
+        }
+        Arrays.fill(rank, 1.0 / n);
+        double[] next = new double[n];
+        double[] share = new double[n];
+
+        Iteration iteration = new Iteration(graph, damping, share);
+        for (int i = 0; i < maxIterations; i++) {
+            iteration.rank = rank;
+            iteration.next = next;
+            double change = iteration.run(pool);
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            if (change <= tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Rank users by PageRank score, with the default parameters.
+     *
+     * @param graph
+     *            social network to score
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the first min(k, graph.size()) usernames in descending order
+     *         of score, with users having equal scores in ascending order of
+     *         username
+     */
+    public static List<String> influencers(FollowsGraph graph, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        double[] scores = scores(graph);
+        int[] top = TopK.select(graph.size(), k, (a, b) -> scores[a] != scores[b]
+                ? scores[a] > scores[b]
+                : graph.username(a).compareTo(graph.username(b)) < 0);
+        List<String> result = new ArrayList<>(top.length);
+        for (int id : top) {
+            result.add(graph.username(id));
+        }
+        return result;
+    }
+
+    /*
+     * One power iteration, computed in two parallel passes: first each
+     * user's share of its score for each user it follows, with the total
+     * score of users who follow nobody; then each user's new score, pulled
+     * from the shares of its followers.
+     */
+    private static class Iteration {
+        private final double damping;
+        private final int[] followsStarts;
+        private final int[] followerStarts;
+        private final int[] followerIds;
+        private final double[] share;
+        private double[] rank;
+        private double[] next;
+        private double base;
+
+        Iteration(FollowsGraph graph, double damping, double[] share) {
+            this.damping = damping;
+            this.followsStarts = graph.followsStarts();
+            this.followerStarts = graph.followerStarts();
+            this.followerIds = graph.followerIds();
+            this.share = share;
+        }
+
+        /*
+         * Compute next from rank.
+         *
+         * @return sum of |next[u] - rank[u]| over all users
+         */
+        double run(ForkJoinPool pool) {
+            int n = rank.length;
+            double dangling = pool.invoke(new Pass(this, true, 0, n));
+            base = ((1 - damping) + damping * dangling) / n;
+            return pool.invoke(new Pass(this, false, 0, n));
+        }
+
+        /*
+         * Fill share[lo..hi).
+         *
+         * @return total score of the users in [lo, hi) who follow nobody
+         */
+        double shares(int lo, int hi) {
+            double dangling = 0;
+            for (int u = lo; u < hi; u++) {
+                int follows = followsStarts[u + 1] - followsStarts[u];
+                if (follows == 0) {
+                    dangling += rank[u];
+                    share[u] = 0;
+                } else {
+                    share[u] = rank[u] / follows;
+                }
+            }
+            return dangling;
+        }
+
+        /*
+         * Fill next[lo..hi).
+         *
+         * @return sum of |next[u] - rank[u]| over [lo, hi)
+         */
+        double pull(int lo, int hi) {
+            double change = 0;
+            for (int u = lo; u < hi; u++) {
+                double sum = 0;
+                for (int e = followerStarts[u]; e < followerStarts[u + 1]; e++) {
+                    sum += share[followerIds[e]];
+                }
+                double score = base + damping * sum;
+                next[u] = score;
+                change += Math.abs(score - rank[u]);
+            }
+            return change;
+        }
+
+        /*
+         * @return users plus follower edges in [lo, hi)
+         */
+        int work(int lo, int hi) {
+            return (hi - lo) + (followerStarts[hi] - followerStarts[lo]);
+        }
+    }
+
+    /*
+     * One pass of an iteration over users [lo, hi), split in half until each
+     * task has about GRAIN work, returning the sum of the pass's results.
+     */
+    private static class Pass extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final Iteration iteration;
+        private final boolean shares;
+        private final int lo;
+        private final int hi;
+
+        Pass(Iteration iteration, boolean shares, int lo, int hi) {
+            this.iteration = iteration;
+            this.shares = shares;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected Double compute() {
+            if (hi - lo > 1 && iteration.work(lo, hi) > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Pass left = new Pass(iteration, shares, lo, mid);
+                left.fork();
+                double right = new Pass(iteration, shares, mid, hi).compute();
+                return left.join() + right;
+            }
+            return shares ? iteration.shares(lo, hi) : iteration.pull(lo, hi);
+        }
+    }
+}
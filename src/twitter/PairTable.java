@@ -0,0 +1,168 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * Mutable open-addressing hash map from pairs of nonnegative ints, such as
+ * (follower, followed) user ids, to nonzero long values, with no boxing.
+ *
+ * Each pair is packed into one long key, and found by linear probing from a
+ * multiplicative hash of it. A pair whose value becomes 0 is removed, moving
+ * later entries of its probe run back so lookups never need tombstones.
+ */
+class PairTable {
+
+    private static final long EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private long[] keys = newKeys(INITIAL_CAPACITY);
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size = 0;
+    /* Rep invariant:
+     *    keys.length == values.length is a power of 2, size < keys.length / 2
+     *    size is the number of keys != EMPTY
+     *    values[i] != 0 iff keys[i] != EMPTY
+     *    every key is reachable by linear probing from its hash slot
+     *      without passing an EMPTY slot
+     * Abstraction function:
+     *    represents the map from (key >>> 32, (int) key) to values[i], for
+     *    each key = keys[i] != EMPTY
+     */
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(int first, int second, long value);
+    }
+
+    /**
+     * @return the number of pairs with a nonzero value
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param first
+     *            nonnegative first int of a pair
+     * @param second
+     *            nonnegative second int of a pair
+     * @return the pair's value, or 0 if it has none
+     */
+    long get(int first, int second) {
+        return values[find(key(first, second))];
+    }
+
+    /**
+     * Add to a pair's value, taking a missing pair's value as 0 and removing
+     * the pair if its value becomes 0.
+     *
+     * @param first
+     *            nonnegative first int of a pair
+     * @param second
+     *            nonnegative second int of a pair
+     * @param delta
+     *            amount to add
+     * @return the pair's new value
+     */
+    long add(int first, int second, long delta) {
+        long key = key(first, second);
+        int i = find(key);
+        long value = values[i] + delta;
+        if (keys[i] == EMPTY) {
+            if (value != 0) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size >= keys.length / 2) {
+                    grow();
+                }
+            }
+        } else if (value == 0) {
+            remove(i);
+        } else {
+            values[i] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Call an action on every pair and its value, in no particular order.
+     * The action must not modify this table.
+     *
+     * @param action
+     *            called once per pair
+     */
+    void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept((int) (keys[i] >>> 32), (int) keys[i], values[i]);
+            }
+        }
+    }
+
+    /*
+     * @return the slot holding key, or the EMPTY slot where it would go
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /*
+     * Empty slot i, moving back any later entry of the same probe run
+     * that could no longer be reached.
+     */
+    private void remove(int i) {
+        int mask = keys.length - 1;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // move j into the hole unless its home lies cyclically in (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+        size--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = newKeys(2 * oldKeys.length);
+        values = new long[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = find(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private static long key(int first, int second) {
+        return ((long) first << 32) | second;
+    }
+
+    private static long[] newKeys(int length) {
+        long[] keys = new long[length];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
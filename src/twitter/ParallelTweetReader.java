@@ -0,0 +1,237 @@
+package twitter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.json.JsonException;
+
+/**
+ * Read a file containing a JSON array of tweets using several threads.
+ *
+ * The file is first scanned once, byte by byte, to find where each top-level
+ * tweet object starts and ends. Consecutive tweets are grouped into chunks of
+ * roughly equal size, each chunk is memory-mapped and parsed by a
+ * TweetStreamReader on a ForkJoinPool, and the parsed chunks are concatenated
+ * in file order. The result is the same list, in the same order, that
+ * TweetStreamReader produces reading the file sequentially.
+ */
+public class ParallelTweetReader {
+
+    /**
+     * Default target size of a chunk, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    private static final int SCAN_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Read every tweet in a file, in parallel on the common ForkJoinPool.
+     *
+     * @param file
+     *            file containing a JSON array of tweets in UTF-8
+     * @return the tweets in the file, in file order
+     * @throws IOException if the file can't be read
+     * @throws JsonException if the file is not a well-formed array of tweets
+     */
+    public static List<Tweet> readTweets(Path file) throws IOException {
+        return readTweets(file, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Read every tweet in a file, in parallel.
+     *
+     * @param file
+     *            file containing a JSON array of tweets in UTF-8
+     * @param pool
+     *            pool to parse chunks on
+     * @param chunkBytes
+     *            target size of a chunk in bytes, at least 1. A chunk holds
+     *            whole tweets only, so it may be larger than this.
+     * @return the tweets in the file, in file order
+     * @throws IOException if the file can't be read
+     * @throws JsonException if the file is not a well-formed array of tweets
+     */
+    public static List<Tweet> readTweets(Path file, ForkJoinPool pool, int chunkBytes) throws IOException {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("requires chunkBytes >= 1");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = findChunks(channel, chunkBytes);
+            int chunks = bounds.length / 2;
+            List<List<Tweet>> parts = new ArrayList<>(Collections.nCopies(chunks, (List<Tweet>) null));
+            pool.invoke(new ParseChunks(channel, bounds, parts, 0, chunks));
+
+            int total = 0;
+            for (List<Tweet> part : parts) {
+                total += part.size();
+            }
+            List<Tweet> tweets = new ArrayList<>(total);
+            for (List<Tweet> part : parts) {
+                tweets.addAll(part);
+            }
+            return tweets;
+        }
+    }
+
+    /*
+     * Parse chunks [lo, hi) into parts, splitting the range in half until
+     * each task has a single chunk.
+     */
+    private static class ParseChunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final List<List<Tweet>> parts;
+        private final int lo;
+        private final int hi;
+
+        ParseChunks(FileChannel channel, long[] bounds, List<List<Tweet>> parts, int lo, int hi) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.parts = parts;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ParseChunks(channel, bounds, parts, lo, mid),
+                          new ParseChunks(channel, bounds, parts, mid, hi));
+                return;
+            }
+            if (hi == lo) {
+                return;
+            }
+            try {
+                parts.set(lo, parseChunk(channel, bounds[2 * lo], bounds[2 * lo + 1]));
+            } catch (IOException ioe) {
+                throw new JsonException("Unable to read tweets", ioe);
+            }
+        }
+    }
+
+    /*
+     * Parse the tweets in bytes [start, end) of the file, which hold one or
+     * more complete tweet objects separated by commas.
+     */
+    private static List<Tweet> parseChunk(FileChannel channel, long start, long end) throws IOException {
+        return TweetStreamReader.readTweets(MappedUtf8Reader.arrayOf(channel, start, end));
+    }
+
+    /*
+     * Scan a file holding a JSON array of objects and group its objects into
+     * chunks of about chunkBytes bytes each.
+     *
+     * Only the structure of the array is checked: its elements must all be
+     * objects, and strings are tracked so that brackets inside them are
+     * ignored. The contents of each object are left to the chunk parser.
+     *
+     * @return chunk bounds as pairs of byte offsets: chunk i is
+     *         [bounds[2i], bounds[2i+1]), starting at the '{' of its first
+     *         object and ending after the '}' of its last.
+     */
+    private static long[] findChunks(FileChannel channel, int chunkBytes) throws IOException {
+        long[] bounds = new long[16];
+        int size = 0;
+
+        boolean started = false;  // seen the opening '['
+        boolean finished = false; // seen the closing ']'
+        boolean needObject = false; // seen a ',' but not the object after it
+        boolean inString = false;
+        boolean escaped = false;
+        int depth = 0;            // 1 inside the top-level array, 2 inside a tweet, ...
+        long chunkStart = -1;     // start of the current chunk, or -1 if none is open
+        long objectEnd = -1;      // end of the last complete object
+
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = 0;
+        while (channel.read(buffer, position) > 0) {
+            buffer.flip();
+            byte[] bytes = buffer.array();
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++, position++) {
+                byte b = bytes[i];
+                if (depth >= 2) {
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (b == '\\') {
+                            escaped = true;
+                        } else if (b == '"') {
+                            inString = false;
+                        }
+                    } else if (b == '"') {
+                        inString = true;
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                        if (depth == 1) {
+                            objectEnd = position + 1;
+                        }
+                    }
+                } else if (isWhitespace(b)) {
+                    continue;
+                } else if (finished) {
+                    throw new JsonException("Unexpected content after tweet array at byte " + position);
+                } else if (!started) {
+                    if (b != '[') {
+                        throw new JsonException("Expected START_ARRAY at byte " + position);
+                    }
+                    started = true;
+                    depth = 1;
+                } else if (b == '{' && (needObject || objectEnd < 0)) {
+                    needObject = false;
+                    if (chunkStart < 0) {
+                        chunkStart = position;
+                    } else if (position - chunkStart >= chunkBytes) {
+                        bounds = addChunk(bounds, size, chunkStart, objectEnd);
+                        size += 2;
+                        chunkStart = position;
+                    }
+                    depth = 2;
+                } else if (b == ']' && !needObject) {
+                    finished = true;
+                    depth = 0;
+                } else if (b == ',' && !needObject && objectEnd >= 0) {
+                    needObject = true;
+                } else {
+                    throw new JsonException("Unexpected '" + (char) b + "' in tweet array at byte " + position);
+                }
+            }
+            buffer.clear();
+        }
+        if (!finished) {
+            throw new JsonException("Unexpected end of input");
+        }
+        if (chunkStart >= 0) {
+            bounds = addChunk(bounds, size, chunkStart, objectEnd);
+            size += 2;
+        }
+        return Arrays.copyOf(bounds, size);
+    }
+
+    private static long[] addChunk(long[] bounds, int size, long start, long end) {
+        if (size + 2 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[size] = start;
+        bounds[size + 1] = end;
+        return bounds;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -3,9 +3,13 @@
  */
 package twitter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * SocialNetwork provides methods that operate on a social network.
@@ -41,7 +45,7 @@ public class SocialNetwork {
      *         either authors or @-mentions in the list of tweets.
      */
     public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) {
-        throw new RuntimeException("not implemented");
+        return FollowsGraphBuilder.build(tweets);
     }
 
     /**
@@ -54,7 +58,88 @@ public class SocialNetwork {
      *         descending order of follower count.
      */
     public static List<String> influencers(Map<String, Set<String>> followsGraph) {
-        throw new RuntimeException("not implemented");
+        return influencers(followsGraph, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the k people in a social network who have the most followers.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @param k
+     *            number of people wanted, k >= 0
+     * @return the first min(k, n) of the n distinct Twitter usernames in
+     *         followsGraph, in lower case, in descending order of follower
+     *         count; people with equal follower counts are in ascending
+     *         order of username. Takes O(n log k) time after one counting
+     *         pass over the graph.
+     */
+    public static List<String> influencers(Map<String, Set<String>> followsGraph, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        // number each user, counting followers in a primitive array
+        UsernameIds ids = new UsernameIds();
+        int[] followers = new int[16];
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            String follower = entry.getKey().toLowerCase(Locale.ROOT);
+            ids.id(follower);
+            for (String username : entry.getValue()) {
+                String followed = username.toLowerCase(Locale.ROOT);
+                int id = ids.id(followed);
+                if (followers.length <= id) {
+                    followers = Arrays.copyOf(followers, Math.max(2 * followers.length, id + 1));
+                }
+                if (!followed.equals(follower)) {
+                    followers[id]++;
+                }
+            }
+        }
+
+        final int[] counts = Arrays.copyOf(followers, Math.max(followers.length, ids.size()));
+        int[] top = TopK.select(ids.size(), k, (a, b) -> counts[a] != counts[b]
+                ? counts[a] > counts[b]
+                : ids.username(a).compareTo(ids.username(b)) < 0);
+        List<String> result = new ArrayList<>(top.length);
+        for (int id : top) {
+            result.add(ids.username(id));
+        }
+        return result;
+    }
+
+    /**
+     * Find the people in a social network who have the greatest influence, in
+     * the sense of PageRank: being followed by influential people counts for
+     * more than being followed by people nobody follows.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @return a list of all distinct Twitter usernames in followsGraph, in
+     *         lower case, in descending order of PageRank score as computed
+     *         by PageRank.scores(); people with equal scores are in ascending
+     *         order of username.
+     */
+    public static List<String> influencersByPageRank(Map<String, Set<String>> followsGraph) {
+        return PageRank.influencers(FollowsGraph.fromMap(followsGraph), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Extend a social network with follows inferred by triadic closure: if A
+     * follows several people who all follow C, A probably follows C too.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above), not modified by this
+     *            method
+     * @param minCommon
+     *            minimum number of people A follows who follow C for A to be
+     *            inferred to follow C, minCommon >= 1
+     * @return a new social network (as defined above), in lower case, in
+     *         which A follows C iff A follows C in followsGraph, or A and C
+     *         are different and at least minCommon people that A follows in
+     *         followsGraph follow C in followsGraph
+     */
+    public static Map<String, Set<String>> closeTriads(Map<String, Set<String>> followsGraph, int minCommon) {
+        return TriadicClosure.close(FollowsGraph.fromMap(followsGraph), minCommon, ForkJoinPool.commonPool()).toMap();
     }
 
 }
@@ -0,0 +1,91 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Mutable running summary of the timespan of a growing collection of tweets.
+ *
+ * Adding a tweet or merging another accumulator takes constant time, so the
+ * timespan of a stream of tweets can be kept up to date without rescanning
+ * the tweets seen so far.
+ */
+public class TimespanAccumulator {
+
+    private Instant start = null;
+    private Instant end = null;
+    /* Rep invariant:
+     *    start == null iff end == null
+     *    if start != null, start <= end
+     * Abstraction function:
+     *    represents the empty collection if start == null, else a collection
+     *    of tweets whose earliest timestamp is start and latest is end
+     */
+
+    /**
+     * Make an accumulator that has seen no tweets.
+     */
+    public TimespanAccumulator() {
+    }
+
+    /**
+     * Add a tweet's timestamp to the timespan.
+     *
+     * @param tweet
+     *            tweet to add
+     */
+    public void add(Tweet tweet) {
+        add(tweet.getTimestamp());
+    }
+
+    /**
+     * Add the timestamps of a list of tweets to the timespan.
+     *
+     * @param tweets
+     *            tweets to add, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            add(tweet.getTimestamp());
+        }
+    }
+
+    /**
+     * Add all the tweets seen by another accumulator to this one.
+     *
+     * @param that
+     *            accumulator to merge, not modified by this method
+     */
+    public void merge(TimespanAccumulator that) {
+        if (that.start != null) {
+            add(that.start);
+            add(that.end);
+        }
+    }
+
+    /**
+     * @return true iff no tweets have been added
+     */
+    public boolean isEmpty() {
+        return start == null;
+    }
+
+    /**
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet added so far, or null if none have been added
+     */
+    public Timespan getTimespan() {
+        return start == null ? null : new Timespan(start, end);
+    }
+
+    private void add(Instant timestamp) {
+        if (start == null) {
+            start = timestamp;
+            end = timestamp;
+        } else if (timestamp.compareTo(start) < 0) {
+            start = timestamp;
+        } else if (timestamp.compareTo(end) > 0) {
+            end = timestamp;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package twitter;
+
+/**
+ * Selection of the best k of n items numbered 0..n-1, with a bounded binary
+ * heap of item numbers, in O(n log k) time and O(k) extra space, without
+ * sorting all n items or boxing them.
+ */
+class TopK {
+
+    /**
+     * Strict total order on item numbers.
+     */
+    @FunctionalInterface
+    interface Ranking {
+        /**
+         * @return true iff item a ranks strictly before item b
+         */
+        boolean before(int a, int b);
+    }
+
+    private TopK() {
+    }
+
+    /**
+     * @param n
+     *            number of items, n >= 0
+     * @param k
+     *            number of items wanted, k >= 0
+     * @param ranking
+     *            strict total order on [0, n)
+     * @return the first min(k, n) items of [0, n) in ranking order
+     */
+    static int[] select(int n, int k, Ranking ranking) {
+        int size = Math.min(n, k);
+        // heap[0] is the item ranked last among those kept so far
+        int[] heap = new int[size];
+        int count = 0;
+        for (int item = 0; item < n; item++) {
+            if (count < size) {
+                heap[count] = item;
+                siftUp(heap, count++, ranking);
+            } else if (size > 0 && ranking.before(item, heap[0])) {
+                heap[0] = item;
+                siftDown(heap, count, ranking);
+            }
+        }
+        // removing the last-ranked item repeatedly fills the result from the back
+        int[] result = new int[count];
+        while (count > 0) {
+            result[count - 1] = heap[0];
+            heap[0] = heap[--count];
+            siftDown(heap, count, ranking);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int i, Ranking ranking) {
+        int item = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranking.before(heap[parent], item)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, Ranking ranking) {
+        if (size == 0) {
+            return;
+        }
+        int item = heap[0];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && ranking.before(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranking.before(item, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+}
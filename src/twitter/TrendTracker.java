@@ -0,0 +1,141 @@
+package twitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tracks the trending hashtags and mentioned users over a stream of tweets,
+ * in bounded memory.
+ *
+ * Each tweet is scanned once for both its mentions, as defined by
+ * Extract.getMentionedUsers(), and its hashtags, as defined by
+ * Extract.getHashtags(). A hashtag or user counts once per tweet that uses
+ * it, however many times the tweet repeats it. Counts are kept by two
+ * HeavyHitters with the same number of counters, so memory does not grow
+ * with the number of distinct hashtags or users, and each estimated count
+ * exceeds the true number of tweets by at most (tweets seen) / capacity.
+ *
+ * This class is not thread-safe.
+ */
+public class TrendTracker {
+
+    /**
+     * Default number of counters for hashtags, and for users.
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final HeavyHitters hashtags;
+    private final HeavyHitters mentions;
+    private final MentionScanner scanner = new MentionScanner();
+    private final Set<String> tweetHashtags = new HashSet<>();
+    private final Set<String> tweetMentions = new HashSet<>();
+    private long tweets = 0;
+    /* Rep invariant:
+     *    hashtags.capacity() == mentions.capacity()
+     *    tweetHashtags and tweetMentions are empty between calls
+     * Abstraction function:
+     *    represents the tweets tweets seen so far, with the tweets using each
+     *    hashtag counted by hashtags and those mentioning each user by
+     *    mentions
+     */
+
+    /**
+     * Make an empty tracker with DEFAULT_CAPACITY counters each for hashtags
+     * and users.
+     */
+    public TrendTracker() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Make an empty tracker.
+     *
+     * @param capacity
+     *            number of counters each for hashtags and users, 1 <= capacity
+     *            <= HeavyHitters.MAX_CAPACITY
+     */
+    public TrendTracker(int capacity) {
+        this.hashtags = new HeavyHitters(capacity);
+        this.mentions = new HeavyHitters(capacity);
+    }
+
+    /**
+     * Count the hashtags and mentions of one tweet.
+     *
+     * @param tweet
+     *            tweet to count
+     */
+    public void addTweet(Tweet tweet) {
+        scanner.scan(tweet.getText(), tweetMentions, tweetHashtags);
+        for (String hashtag : tweetHashtags) {
+            hashtags.add(hashtag);
+        }
+        for (String mention : tweetMentions) {
+            mentions.add(mention);
+        }
+        tweetHashtags.clear();
+        tweetMentions.clear();
+        tweets++;
+    }
+
+    /**
+     * Count the hashtags and mentions of a list of tweets.
+     *
+     * @param tweets
+     *            tweets to count, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            addTweet(tweet);
+        }
+    }
+
+    /**
+     * @return number of tweets counted so far
+     */
+    public long tweets() {
+        return tweets;
+    }
+
+    /**
+     * @param k
+     *            number of hashtags wanted, k >= 0
+     * @return up to k of the hashtags used by the most tweets, in lower case
+     *         without the "#", as HeavyHitters.top() orders them
+     */
+    public List<String> topHashtags(int k) {
+        return hashtags.top(k);
+    }
+
+    /**
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return up to k of the users mentioned by the most tweets, in lower
+     *         case, as HeavyHitters.top() orders them
+     */
+    public List<String> topMentions(int k) {
+        return mentions.top(k);
+    }
+
+    /**
+     * @param hashtag
+     *            a hashtag without the "#", in any case
+     * @return an upper bound on the number of tweets using that hashtag, as
+     *         HeavyHitters.estimate() gives it
+     */
+    public long hashtagCount(String hashtag) {
+        return hashtags.estimate(hashtag.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param username
+     *            a Twitter username, in any case
+     * @return an upper bound on the number of tweets mentioning that user, as
+     *         HeavyHitters.estimate() gives it
+     */
+    public long mentionCount(String username) {
+        return mentions.estimate(username.toLowerCase(Locale.ROOT));
+    }
+}
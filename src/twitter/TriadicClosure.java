@@ -0,0 +1,278 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Follow inference by triadic closure: if A follows B and B follows C, A
+ * probably follows C too, once enough of the users A follows also follow C.
+ *
+ * A pair (A, C) is suggested when |follows(A) & followers(C)| reaches a
+ * minimum number of common users. Walking every path A -> B -> C would cost
+ * time quadratic in the degrees of hub users B. Instead, for each A, the
+ * users B it follows are ordered by how many users they follow, and only the
+ * first |follows(A)| - minCommon + 1 of them, the light ones, are walked:
+ * a C with minCommon common users is followed by at least one of those B.
+ * Sorting the users reached gives the candidates C with how many light B
+ * follow each. The remaining minCommon - 1 heavy B are then counted by
+ * intersecting the sorted candidates with each heavy B's sorted follows row,
+ * merging rows of similar length and galloping through the longer row
+ * otherwise, so a hub's row is searched rather than walked. Users A are
+ * processed in parallel on a ForkJoinPool.
+ */
+public class TriadicClosure {
+
+    /**
+     * Default minimum number of common users.
+     */
+    public static final int DEFAULT_MIN_COMMON = 2;
+
+    /*
+     * Users plus follows edges handled by one task.
+     */
+    private static final int GRAIN = 1 << 12;
+
+    /*
+     * Length ratio above which an intersection gallops instead of merging.
+     */
+    private static final int GALLOP_RATIO = 16;
+
+    private TriadicClosure() {
+    }
+
+    /**
+     * Close triads with the default minimum number of common users, on the
+     * common ForkJoinPool.
+     *
+     * @param graph
+     *            social network to extend
+     * @return see close(FollowsGraph, int, ForkJoinPool)
+     */
+    public static FollowsGraph close(FollowsGraph graph) {
+        return close(graph, DEFAULT_MIN_COMMON, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Close triads.
+     *
+     * @param graph
+     *            social network to extend
+     * @param minCommon
+     *            minimum number of users that A follows and that follow C for
+     *            A to be inferred to follow C, minCommon >= 1
+     * @param pool
+     *            pool to compute the inference on
+     * @return social network with the same users and ids as graph, in which
+     *         A follows C iff A follows C in graph, or A != C and at least
+     *         minCommon users that A follows in graph follow C in graph
+     */
+    public static FollowsGraph close(FollowsGraph graph, int minCommon, ForkJoinPool pool) {
+        if (minCommon < 1) {
+            throw new IllegalArgumentException("requires minCommon >= 1");
+        }
+        int[][] inferred = new int[graph.size()][];
+        pool.invoke(new Infer(graph, minCommon, inferred, 0, graph.size()));
+
+        FollowsGraph.Builder builder = new FollowsGraph.Builder();
+        for (int u = 0; u < graph.size(); u++) {
+            builder.id(graph.username(u));
+        }
+        int[] followsStarts = graph.followsStarts();
+        int[] followsIds = graph.followsIds();
+        for (int u = 0; u < graph.size(); u++) {
+            for (int e = followsStarts[u]; e < followsStarts[u + 1]; e++) {
+                builder.addEdge(u, followsIds[e]);
+            }
+            for (int c : inferred[u]) {
+                builder.addEdge(u, c);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Count, for each id of one strictly increasing range, whether it is in
+     * another.
+     *
+     * @param a
+     *            array holding the first range
+     * @param aFrom
+     *            start of the first range, inclusive
+     * @param aTo
+     *            end of the first range, exclusive
+     * @param b
+     *            array holding the second range
+     * @param bFrom
+     *            start of the second range, inclusive
+     * @param bTo
+     *            end of the second range, exclusive
+     * @param counts
+     *            counts[i - aFrom] is incremented for each a[i] in the second
+     *            range
+     * @return number of ids in both ranges
+     */
+    static int countCommon(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] counts) {
+        int aLength = aTo - aFrom;
+        int bLength = bTo - bFrom;
+        if (aLength == 0 || bLength == 0) {
+            return 0;
+        }
+        int common = 0;
+        if (aLength / bLength >= GALLOP_RATIO) {
+            // gallop through a for each id of b
+            int i = aFrom;
+            for (int j = bFrom; j < bTo && i < aTo; j++) {
+                i = gallop(a, i, aTo, b[j]);
+                if (i < aTo && a[i] == b[j]) {
+                    counts[i - aFrom]++;
+                    common++;
+                    i++;
+                }
+            }
+        } else if (bLength / aLength >= GALLOP_RATIO) {
+            // gallop through b for each id of a
+            int j = bFrom;
+            for (int i = aFrom; i < aTo && j < bTo; i++) {
+                j = gallop(b, j, bTo, a[i]);
+                if (j < bTo && b[j] == a[i]) {
+                    counts[i - aFrom]++;
+                    common++;
+                    j++;
+                }
+            }
+        } else {
+            int i = aFrom;
+            int j = bFrom;
+            while (i < aTo && j < bTo) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    counts[i - aFrom]++;
+                    common++;
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return common;
+    }
+
+    /*
+     * @return the first index in [from, to) of the strictly increasing range
+     *         x[from..to) holding an id >= target, or to if there is none
+     */
+    private static int gallop(int[] x, int from, int to, int target) {
+        // find a range x[from + step/2 .. from + step] that must hold the index
+        int step = 1;
+        while (from + step < to && x[from + step] < target) {
+            step <<= 1;
+        }
+        int found = Arrays.binarySearch(x, from + (step >>> 1), Math.min(from + step + 1, to), target);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /*
+     * Infers follows for users [lo, hi), split in half until each task has
+     * about GRAIN work; each user's inferred follows go in its own row of
+     * inferred, so tasks never write the same row.
+     */
+    private static class Infer extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FollowsGraph graph;
+        private final int minCommon;
+        private final int[][] inferred;
+        private final int lo;
+        private final int hi;
+
+        Infer(FollowsGraph graph, int minCommon, int[][] inferred, int lo, int hi) {
+            this.graph = graph;
+            this.minCommon = minCommon;
+            this.inferred = inferred;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected void compute() {
+            int[] followsStarts = graph.followsStarts();
+            if (hi - lo > 1 && (hi - lo) + (followsStarts[hi] - followsStarts[lo]) > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Infer(graph, minCommon, inferred, lo, mid),
+                        new Infer(graph, minCommon, inferred, mid, hi));
+                return;
+            }
+            int[] followsIds = graph.followsIds();
+            long[] byDegree = new long[0];
+            int[] reached = new int[0];
+            int[] counts = new int[0];
+            IntList found = new IntList();
+            for (int a = lo; a < hi; a++) {
+                int from = followsStarts[a];
+                int to = followsStarts[a + 1];
+                int degree = to - from;
+                if (degree < minCommon) {
+                    inferred[a] = new int[0];
+                    continue;
+                }
+                // users a follows, by ascending number of users they follow
+                if (byDegree.length < degree) {
+                    byDegree = new long[Math.max(degree, 2 * byDegree.length)];
+                }
+                for (int e = from; e < to; e++) {
+                    int b = followsIds[e];
+                    byDegree[e - from] = ((long) (followsStarts[b + 1] - followsStarts[b]) << 32) | b;
+                }
+                Arrays.sort(byDegree, 0, degree);
+                int light = degree - minCommon + 1;
+
+                // every user followed by a light user, with repeats, sorted
+                int size = 0;
+                for (int k = 0; k < light; k++) {
+                    int b = (int) byDegree[k];
+                    int rowLength = followsStarts[b + 1] - followsStarts[b];
+                    if (reached.length < size + rowLength) {
+                        reached = Arrays.copyOf(reached, Math.max(size + rowLength, 2 * reached.length));
+                    }
+                    System.arraycopy(followsIds, followsStarts[b], reached, size, rowLength);
+                    size += rowLength;
+                }
+                Arrays.sort(reached, 0, size);
+
+                // distinct candidates, each counting the light users it is followed by
+                if (counts.length < size) {
+                    counts = new int[Math.max(size, 2 * counts.length)];
+                }
+                int candidates = 0;
+                for (int k = 0; k < size; k++) {
+                    if (candidates > 0 && reached[candidates - 1] == reached[k]) {
+                        counts[candidates - 1]++;
+                    } else {
+                        reached[candidates] = reached[k];
+                        counts[candidates++] = 1;
+                    }
+                }
+                for (int k = light; k < degree; k++) {
+                    int b = (int) byDegree[k];
+                    countCommon(reached, 0, candidates, followsIds, followsStarts[b], followsStarts[b + 1], counts);
+                }
+
+                // candidates with enough common users that a does not already follow
+                found.clear();
+                int e = from;
+                for (int k = 0; k < candidates; k++) {
+                    int c = reached[k];
+                    while (e < to && followsIds[e] < c) {
+                        e++;
+                    }
+                    if (counts[k] >= minCommon && c != a && (e == to || followsIds[e] != c)) {
+                        found.add(c);
+                    }
+                }
+                inferred[a] = found.toArray();
+            }
+        }
+    }
+}
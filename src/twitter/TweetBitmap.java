@@ -0,0 +1,432 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed set of tweet positions (nonnegative ints), in the style
+ * of a Roaring bitmap.
+ *
+ * Positions are grouped by their high 16 bits into containers of up to 65536
+ * positions each. A sparse container is a sorted array of the low 16 bits; a
+ * dense one is a 65536-bit bitmap. Set operations combine containers with the
+ * same high bits, using 64-bit word operations when both are dense.
+ */
+public class TweetBitmap {
+
+    /*
+     * A container holding at most this many positions is stored as an array;
+     * at that size, the array and the bitmap take the same space.
+     */
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private static final TweetBitmap EMPTY = new TweetBitmap(new char[0], new Container[0], 0);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int size;
+    /* Rep invariant:
+     *    keys[0..size) are strictly increasing
+     *    containers[i] holds the low 16 bits of the positions whose high 16
+     *      bits are keys[i], and is nonempty
+     *    a container of at most ARRAY_MAX positions is an ArrayContainer;
+     *      a larger one is a BitmapContainer
+     * Abstraction function:
+     *    represents the set { (keys[i] << 16) | low : i < size, low in containers[i] }
+     */
+
+    private TweetBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * @return the empty set
+     */
+    public static TweetBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param n
+     *            number of positions, n >= 0
+     * @return the set of positions [0, n)
+     */
+    public static TweetBitmap range(int n) {
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[i] = i;
+        }
+        return of(positions, 0, n);
+    }
+
+    /**
+     * @param positions
+     *            array of nonnegative positions, with positions[from..to) in
+     *            strictly increasing order
+     * @param from
+     *            start of the range to use
+     * @param to
+     *            end of the range to use
+     * @return the set of positions[from..to)
+     */
+    public static TweetBitmap of(int[] positions, int from, int to) {
+        char[] keys = new char[4];
+        Container[] containers = new Container[4];
+        int size = 0;
+        int i = from;
+        while (i < to) {
+            int high = positions[i] >>> 16;
+            int end = i;
+            while (end < to && positions[end] >>> 16 == high) {
+                end++;
+            }
+            char[] lows = new char[end - i];
+            for (int j = i; j < end; j++) {
+                lows[j - i] = (char) positions[j];
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = (char) high;
+            containers[size++] = new ArrayContainer(lows, lows.length).normalize();
+            i = end;
+        }
+        return new TweetBitmap(keys, containers, size);
+    }
+
+    /**
+     * @return the number of positions in this set
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return true iff this set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param position
+     *            a position
+     * @return true iff position is in this set
+     */
+    public boolean contains(int position) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (position >>> 16));
+        return position >= 0 && i >= 0 && containers[i].contains((char) position);
+    }
+
+    /**
+     * @param that
+     *            another set
+     * @return the intersection of this and that
+     */
+    public TweetBitmap and(TweetBitmap that) {
+        int capacity = Math.min(this.size, that.size);
+        char[] keys = new char[capacity];
+        Container[] containers = new Container[capacity];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.size && j < that.size) {
+            if (this.keys[i] < that.keys[j]) {
+                i++;
+            } else if (this.keys[i] > that.keys[j]) {
+                j++;
+            } else {
+                Container result = this.containers[i++].and(that.containers[j++]);
+                if (result != null) {
+                    keys[size] = this.keys[i - 1];
+                    containers[size++] = result;
+                }
+            }
+        }
+        return new TweetBitmap(keys, containers, size);
+    }
+
+    /**
+     * @param that
+     *            another set
+     * @return the union of this and that
+     */
+    public TweetBitmap or(TweetBitmap that) {
+        int capacity = this.size + that.size;
+        char[] keys = new char[capacity];
+        Container[] containers = new Container[capacity];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.size || j < that.size) {
+            if (j == that.size || (i < this.size && this.keys[i] < that.keys[j])) {
+                keys[size] = this.keys[i];
+                containers[size++] = this.containers[i++];
+            } else if (i == this.size || this.keys[i] > that.keys[j]) {
+                keys[size] = that.keys[j];
+                containers[size++] = that.containers[j++];
+            } else {
+                keys[size] = this.keys[i];
+                containers[size++] = this.containers[i++].or(that.containers[j++]);
+            }
+        }
+        return new TweetBitmap(keys, containers, size);
+    }
+
+    /**
+     * @param that
+     *            another set
+     * @return the positions in this set that are not in that
+     */
+    public TweetBitmap andNot(TweetBitmap that) {
+        char[] keys = new char[this.size];
+        Container[] containers = new Container[this.size];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < this.size; i++) {
+            while (j < that.size && that.keys[j] < this.keys[i]) {
+                j++;
+            }
+            Container result = this.containers[i];
+            if (j < that.size && that.keys[j] == this.keys[i]) {
+                result = result.andNot(that.containers[j]);
+            }
+            if (result != null) {
+                keys[size] = this.keys[i];
+                containers[size++] = result;
+            }
+        }
+        return new TweetBitmap(keys, containers, size);
+    }
+
+    /**
+     * Call an action on each position in this set, in increasing order.
+     *
+     * @param action
+     *            called once per position
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * @return the positions in this set, in increasing order
+     */
+    public int[] toArray() {
+        int[] positions = new int[cardinality()];
+        int[] count = { 0 };
+        forEach(position -> positions[count[0]++] = position);
+        return positions;
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /*
+     * Set of 16-bit values; the low bits of the positions sharing one key.
+     * Operations return null rather than an empty container.
+     */
+    private static abstract class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract long[] toWords();
+
+        abstract Container and(Container that);
+
+        abstract Container andNot(Container that);
+
+        Container or(Container that) {
+            long[] words = toWords();
+            long[] other = that.toWords();
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                words[w] |= other[w];
+            }
+            return new BitmapContainer(words).normalize();
+        }
+    }
+
+    private static class ArrayContainer extends Container {
+        private final char[] values;
+        private final int length;
+        /* Rep invariant: values[0..length) strictly increasing, length > 0 */
+
+        ArrayContainer(char[] values, int length) {
+            this.values = values;
+            this.length = length;
+        }
+
+        /*
+         * @return this, or an equivalent bitmap container if this is too large
+         */
+        Container normalize() {
+            return length <= ARRAY_MAX ? this : new BitmapContainer(toWords());
+        }
+
+        @Override int cardinality() {
+            return length;
+        }
+
+        @Override boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, length, value) >= 0;
+        }
+
+        @Override void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < length; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < length; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override Container and(Container that) {
+            return filter(that, true);
+        }
+
+        @Override Container andNot(Container that) {
+            return filter(that, false);
+        }
+
+        @Override Container or(Container that) {
+            if (that instanceof ArrayContainer && length + that.cardinality() <= ARRAY_MAX) {
+                ArrayContainer other = (ArrayContainer) that;
+                char[] merged = new char[length + other.length];
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < length || j < other.length) {
+                    if (j == other.length || (i < length && values[i] < other.values[j])) {
+                        merged[count++] = values[i++];
+                    } else if (i == length || values[i] > other.values[j]) {
+                        merged[count++] = other.values[j++];
+                    } else {
+                        merged[count++] = values[i++];
+                        j++;
+                    }
+                }
+                return new ArrayContainer(merged, count);
+            }
+            return super.or(that);
+        }
+
+        /*
+         * @return the values of this that are (if keep) or are not (if !keep)
+         *         in that, or null if there are none
+         */
+        private Container filter(Container that, boolean keep) {
+            char[] kept = new char[length];
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                if (that.contains(values[i]) == keep) {
+                    kept[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(kept, count);
+        }
+    }
+
+    private static class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+        /* Rep invariant: words.length == BITMAP_WORDS, cardinality == bit count of words */
+
+        BitmapContainer(long[] words) {
+            this.words = words;
+            int bits = 0;
+            for (long word : words) {
+                bits += Long.bitCount(word);
+            }
+            this.cardinality = bits;
+        }
+
+        /*
+         * @return this, an equivalent array container if this is small
+         *         enough, or null if this is empty
+         */
+        Container normalize() {
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[cardinality];
+            int[] count = { 0 };
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+
+        @Override int cardinality() {
+            return cardinality;
+        }
+
+        @Override boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override void forEach(int high, IntConsumer action) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override long[] toWords() {
+            return words.clone();
+        }
+
+        @Override Container and(Container that) {
+            if (that instanceof ArrayContainer) {
+                return that.and(this);
+            }
+            long[] result = toWords();
+            long[] other = ((BitmapContainer) that).words;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] &= other[w];
+            }
+            return new BitmapContainer(result).normalize();
+        }
+
+        @Override Container andNot(Container that) {
+            long[] result = toWords();
+            if (that instanceof BitmapContainer) {
+                long[] other = ((BitmapContainer) that).words;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    result[w] &= ~other[w];
+                }
+            } else {
+                ArrayContainer other = (ArrayContainer) that;
+                for (int i = 0; i < other.length; i++) {
+                    result[other.values[i] >>> 6] &= ~(1L << other.values[i]);
+                }
+            }
+            return new BitmapContainer(result).normalize();
+        }
+    }
+}
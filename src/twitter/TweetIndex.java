@@ -0,0 +1,416 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable index over a fixed list of tweets that answers the queries of
+ * Filter without scanning the whole list: authors map to the positions of
+ * their tweets, timestamps are kept sorted for binary search, and words map
+ * to sorted posting lists of the tweets that contain them.
+ *
+ * The index is built once, in time linear in the number of tweets, and each
+ * query then costs time proportional to the size of its result. Results
+ * satisfy the same specifications as the corresponding Filter methods,
+ * including returning tweets in the same order as in the indexed list.
+ *
+ * The conditions can also be combined into a TweetQuery, which find()
+ * evaluates as operations on compressed bitmaps of tweet positions, building
+ * the result list only once.
+ */
+public class TweetIndex {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Tweet[] tweets;
+
+    private final Map<String, Integer> authorIds;
+    private final int[] authorStarts;
+    private final int[] authorPositions;
+
+    private final long[] sortedNanos;
+    private final int[] timePositions;
+
+    private final Map<String, Integer> wordIds;
+    private final int[] wordStarts;
+    private final int[] wordPositions;
+
+    private final TweetBitmap all;
+    /* Rep invariant:
+     *    authorIds maps each lowercased author in tweets to a distinct id in [0, authors)
+     *    authorStarts.length == authors + 1, authorStarts[0] == 0,
+     *      authorStarts[authors] == tweets.length, and authorStarts is nondecreasing
+     *    authorPositions[authorStarts[a]..authorStarts[a+1]) are the positions in
+     *      tweets of the tweets by author a, in increasing order
+     *    sortedNanos.length == timePositions.length == tweets.length
+     *    timePositions is a permutation of [0, tweets.length), and
+     *      sortedNanos[i] == epochNanos(tweets[timePositions[i]].getTimestamp())
+     *    sortedNanos is nondecreasing, and timePositions is increasing
+     *      among equal sortedNanos
+     *    wordIds maps each word of each tweet's text, as split and normalized
+     *      by TweetWords, to a distinct id in [0, words)
+     *    wordStarts.length == words + 1 and wordStarts is nondecreasing
+     *    wordPositions[wordStarts[w]..wordStarts[w+1]) are the positions in
+     *      tweets of the tweets containing word w, in increasing order
+     *    all is the set of positions [0, tweets.length)
+     */
+
+    /**
+     * Index a list of tweets.
+     *
+     * @param tweets
+     *            a list of tweets with distinct ids, not modified by this
+     *            method. Later changes to the list do not affect the index.
+     */
+    public TweetIndex(List<Tweet> tweets) {
+        this.tweets = tweets.toArray(new Tweet[0]);
+        int size = this.tweets.length;
+
+        // number each distinct author, then counting-sort positions by author
+        this.authorIds = new HashMap<>();
+        int[] authorOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            String author = this.tweets[i].getAuthor().toLowerCase(Locale.ROOT);
+            Integer id = authorIds.get(author);
+            if (id == null) {
+                id = authorIds.size();
+                authorIds.put(author, id);
+            }
+            authorOf[i] = id;
+        }
+        this.authorStarts = new int[authorIds.size() + 1];
+        for (int author : authorOf) {
+            authorStarts[author + 1]++;
+        }
+        for (int a = 0; a < authorIds.size(); a++) {
+            authorStarts[a + 1] += authorStarts[a];
+        }
+        this.authorPositions = new int[size];
+        int[] next = new int[authorIds.size()];
+        for (int i = 0; i < size; i++) {
+            int author = authorOf[i];
+            authorPositions[authorStarts[author] + next[author]++] = i;
+        }
+
+        // sort positions by timestamp, stably so equal timestamps stay in input order
+        this.sortedNanos = new long[size];
+        this.timePositions = new int[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            sortedNanos[i] = epochNanos(this.tweets[i].getTimestamp());
+            timePositions[i] = i;
+            sorted &= i == 0 || sortedNanos[i - 1] <= sortedNanos[i];
+        }
+        if (!sorted) {
+            sortByNanos(sortedNanos, timePositions);
+        }
+
+        // record each (word, tweet) pair once, then counting-sort tweets by word
+        this.wordIds = new HashMap<>();
+        IntList pairWords = new IntList();
+        IntList pairPositions = new IntList();
+        IntList lastPosition = new IntList();
+        for (int i = 0; i < size; i++) {
+            final int position = i;
+            TweetWords.forEachWord(this.tweets[i].getText(), word -> {
+                Integer id = wordIds.get(word);
+                if (id == null) {
+                    id = wordIds.size();
+                    wordIds.put(word, id);
+                    lastPosition.add(-1);
+                }
+                if (lastPosition.get(id) != position) {
+                    lastPosition.set(id, position);
+                    pairWords.add(id);
+                    pairPositions.add(position);
+                }
+            });
+        }
+        this.wordStarts = new int[wordIds.size() + 1];
+        for (int p = 0; p < pairWords.size(); p++) {
+            wordStarts[pairWords.get(p) + 1]++;
+        }
+        for (int w = 0; w < wordIds.size(); w++) {
+            wordStarts[w + 1] += wordStarts[w];
+        }
+        this.wordPositions = new int[pairWords.size()];
+        int[] nextWord = new int[wordIds.size()];
+        for (int p = 0; p < pairWords.size(); p++) {
+            int word = pairWords.get(p);
+            wordPositions[wordStarts[word] + nextWord[word]++] = pairPositions.get(p);
+        }
+
+        this.all = TweetBitmap.range(size);
+    }
+
+    /**
+     * @return the number of tweets indexed
+     */
+    public int size() {
+        return tweets.length;
+    }
+
+    /**
+     * Find tweets written by a particular user. Same specification as
+     * Filter.writtenBy() applied to the indexed list.
+     *
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return all and only the indexed tweets whose author is username,
+     *         in the same order as in the indexed list.
+     */
+    public List<Tweet> writtenBy(String username) {
+        Integer author = authorIds.get(username.toLowerCase(Locale.ROOT));
+        if (author == null) {
+            return new ArrayList<>();
+        }
+        return tweetsAt(authorPositions, authorStarts[author], authorStarts[author + 1]);
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan. Same
+     * specification as Filter.inTimespan() applied to the indexed list.
+     *
+     * @param timespan
+     *            timespan
+     * @return all and only the indexed tweets that were sent during the
+     *         timespan, in the same order as in the indexed list.
+     */
+    public List<Tweet> inTimespan(Timespan timespan) {
+        int[] positions = positionsIn(timespan);
+        return tweetsAt(positions, 0, positions.length);
+    }
+
+    /**
+     * Find tweets that contain certain words. Same specification as
+     * Filter.containing() applied to the indexed list.
+     *
+     * @param words
+     *            a list of words to search for in the tweets.
+     *            A word is a nonempty sequence of nonspace characters.
+     * @return all and only the indexed tweets such that the tweet text (when
+     *         represented as a sequence of nonempty words bounded by space
+     *         characters and the ends of the string) includes *at least one*
+     *         of the words found in the words list. Word comparison is not
+     *         case-sensitive. The returned tweets are in the same order as in
+     *         the indexed list.
+     */
+    public List<Tweet> containing(List<String> words) {
+        int[] positions = positionsContaining(words);
+        return tweetsAt(positions, 0, positions.length);
+    }
+
+    /**
+     * Find tweets that satisfy a query combining the conditions above.
+     *
+     * @param query
+     *            query to evaluate against this index
+     * @return all and only the indexed tweets that satisfy the query, in the
+     *         same order as in the indexed list
+     */
+    public List<Tweet> find(TweetQuery query) {
+        TweetBitmap matches = query.evaluate(this);
+        List<Tweet> result = new ArrayList<>(matches.cardinality());
+        matches.forEach(position -> result.add(tweets[position]));
+        return result;
+    }
+
+    /*
+     * @return the positions of all indexed tweets
+     */
+    TweetBitmap allBitmap() {
+        return all;
+    }
+
+    /*
+     * @return the positions of the tweets that writtenBy(username) finds
+     */
+    TweetBitmap authorBitmap(String username) {
+        Integer author = authorIds.get(username.toLowerCase(Locale.ROOT));
+        if (author == null) {
+            return TweetBitmap.empty();
+        }
+        return TweetBitmap.of(authorPositions, authorStarts[author], authorStarts[author + 1]);
+    }
+
+    /*
+     * @return the positions of the tweets that inTimespan(timespan) finds
+     */
+    TweetBitmap timespanBitmap(Timespan timespan) {
+        int[] positions = positionsIn(timespan);
+        return TweetBitmap.of(positions, 0, positions.length);
+    }
+
+    /*
+     * @return the positions of the tweets that containing(words) finds
+     */
+    TweetBitmap wordsBitmap(List<String> words) {
+        // posting lists are already sorted, so union them as bitmaps
+        TweetBitmap union = TweetBitmap.empty();
+        for (String word : Filter.normalizeWords(words)) {
+            Integer id = wordIds.get(word);
+            if (id != null) {
+                union = union.or(TweetBitmap.of(wordPositions, wordStarts[id], wordStarts[id + 1]));
+            }
+        }
+        return union;
+    }
+
+    /*
+     * @return the positions of the tweets sent during timespan, in
+     *         increasing order
+     */
+    private int[] positionsIn(Timespan timespan) {
+        Instant start = timespan.getStart();
+        Instant end = timespan.getEnd();
+        long endNanos = epochNanos(end);
+        int from = firstAtLeast(epochNanos(start));
+        int to = endNanos == Long.MAX_VALUE ? sortedNanos.length : firstAtLeast(endNanos + 1);
+
+        int[] positions = new int[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            long nanos = sortedNanos[i];
+            int position = timePositions[i];
+            if (nanos == Long.MIN_VALUE || nanos == Long.MAX_VALUE) {
+                // clamped by epochNanos, so compare exactly
+                Instant timestamp = tweets[position].getTimestamp();
+                if (timestamp.isBefore(start) || timestamp.isAfter(end)) {
+                    continue;
+                }
+            }
+            positions[count++] = position;
+        }
+        Arrays.sort(positions, 0, count);
+        return count == positions.length ? positions : Arrays.copyOf(positions, count);
+    }
+
+    /*
+     * @return the positions of the tweets containing at least one of words,
+     *         in increasing order
+     */
+    private int[] positionsContaining(List<String> words) {
+        List<Integer> found = new ArrayList<>();
+        int total = 0;
+        for (String word : Filter.normalizeWords(words)) {
+            Integer id = wordIds.get(word);
+            if (id != null) {
+                found.add(id);
+                total += wordStarts[id + 1] - wordStarts[id];
+            }
+        }
+        if (found.size() == 1) {
+            int id = found.get(0);
+            return Arrays.copyOfRange(wordPositions, wordStarts[id], wordStarts[id + 1]);
+        }
+
+        // union of the posting lists, back in input order
+        int[] positions = new int[total];
+        int count = 0;
+        for (int id : found) {
+            int length = wordStarts[id + 1] - wordStarts[id];
+            System.arraycopy(wordPositions, wordStarts[id], positions, count, length);
+            count += length;
+        }
+        Arrays.sort(positions);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || positions[distinct - 1] != positions[i]) {
+                positions[distinct++] = positions[i];
+            }
+        }
+        return distinct == positions.length ? positions : Arrays.copyOf(positions, distinct);
+    }
+
+    /*
+     * @return the least i such that sortedNanos[i] >= nanos, or
+     *         sortedNanos.length if there is none
+     */
+    private int firstAtLeast(long nanos) {
+        int lo = 0;
+        int hi = sortedNanos.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedNanos[mid] < nanos) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * @return nanoseconds since 1970-01-01T00:00:00Z, clamped to the range
+     *         of a long. Order-preserving, but instants more than about 292
+     *         years from 1970 may share the value Long.MIN_VALUE or
+     *         Long.MAX_VALUE.
+     */
+    private static long epochNanos(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * NANOS_PER_SECOND + instant.getNano();
+    }
+
+    /*
+     * Stable merge sort of keys, applying the same permutation to values.
+     */
+    private static void sortByNanos(long[] keys, int[] values) {
+        int n = keys.length;
+        long[] keyBuffer = new long[n];
+        int[] valueBuffer = new int[n];
+        long[] fromKeys = keys;
+        int[] fromValues = values;
+        long[] toKeys = keyBuffer;
+        int[] toValues = valueBuffer;
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (i < mid && (j >= hi || fromKeys[i] <= fromKeys[j])) {
+                        toKeys[k] = fromKeys[i];
+                        toValues[k] = fromValues[i++];
+                    } else {
+                        toKeys[k] = fromKeys[j];
+                        toValues[k] = fromValues[j++];
+                    }
+                }
+            }
+            long[] swapKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swapKeys;
+            int[] swapValues = fromValues;
+            fromValues = toValues;
+            toValues = swapValues;
+        }
+        if (fromKeys != keys) {
+            System.arraycopy(fromKeys, 0, keys, 0, n);
+            System.arraycopy(fromValues, 0, values, 0, n);
+        }
+    }
+
+    /*
+     * @return the tweets at positions[from..to), in that order
+     */
+    private List<Tweet> tweetsAt(int[] positions, int from, int to) {
+        List<Tweet> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(tweets[positions[i]]);
+        }
+        return result;
+    }
+}
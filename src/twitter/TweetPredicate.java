@@ -0,0 +1,172 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable conjunction of the conditions of Filter, tested against each
+ * tweet in a single pass.
+ *
+ * Chaining Filter.writtenBy(), Filter.inTimespan() and Filter.containing()
+ * scans the list once per condition and builds a list between each step.
+ * A TweetPredicate instead tests every condition on one tweet before moving
+ * to the next, cheapest first: the timestamp, then the author, and only then
+ * the text. Testing stops at the first condition that fails, so a text is
+ * never split unless the tweet passes the other conditions. The text is then
+ * split into words once, with each word checked against every word list not
+ * yet matched, stopping as soon as all of them are.
+ *
+ * For example, the tweets by alyssa during a timespan that mention java:
+ *
+ *   TweetPredicate.all().writtenBy("alyssa").inTimespan(timespan)
+ *       .containing(Arrays.asList("java")).filter(tweets)
+ */
+public class TweetPredicate implements Predicate<Tweet> {
+
+    private static final TweetPredicate ALL = new TweetPredicate(false, null, null, null, Collections.emptyList());
+    private static final TweetPredicate NONE = new TweetPredicate(true, null, null, null, Collections.emptyList());
+
+    private final boolean none;
+    private final Instant start;
+    private final Instant end;
+    private final String author;
+    private final List<Set<String>> wordSets;
+    /* Rep invariant:
+     *    if none, no other field matters
+     *    start and end are both null or both nonnull, and if nonnull then
+     *      !start.isAfter(end)
+     *    wordSets is unmodifiable, and each set in it is nonempty and holds
+     *      words normalized by TweetWords.normalize()
+     * Abstraction function:
+     *    represents the predicate that is false if none, and otherwise true
+     *    of a tweet iff
+     *      start is null or the tweet's timestamp is in [start, end], and
+     *      author is null or the tweet's author is author ignoring case, and
+     *      each set in wordSets contains at least one word of the tweet's text
+     */
+
+    private TweetPredicate(boolean none, Instant start, Instant end, String author, List<Set<String>> wordSets) {
+        this.none = none;
+        this.start = start;
+        this.end = end;
+        this.author = author;
+        this.wordSets = wordSets;
+    }
+
+    /**
+     * @return predicate satisfied by every tweet
+     */
+    public static TweetPredicate all() {
+        return ALL;
+    }
+
+    /**
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return predicate satisfied by the tweets that satisfy this predicate
+     *         and that Filter.writtenBy() would find for username
+     */
+    public TweetPredicate writtenBy(String username) {
+        if (none || (author != null && !author.equalsIgnoreCase(username))) {
+            return NONE;
+        }
+        return new TweetPredicate(false, start, end, username, wordSets);
+    }
+
+    /**
+     * @param timespan
+     *            timespan
+     * @return predicate satisfied by the tweets that satisfy this predicate
+     *         and that Filter.inTimespan() would find for timespan
+     */
+    public TweetPredicate inTimespan(Timespan timespan) {
+        Instant newStart = timespan.getStart();
+        Instant newEnd = timespan.getEnd();
+        if (start != null) {
+            newStart = newStart.isAfter(start) ? newStart : start;
+            newEnd = newEnd.isBefore(end) ? newEnd : end;
+        }
+        if (none || newStart.isAfter(newEnd)) {
+            return NONE;
+        }
+        return new TweetPredicate(false, newStart, newEnd, author, wordSets);
+    }
+
+    /**
+     * @param words
+     *            a list of words, as for Filter.containing(). Later changes
+     *            to the list do not affect the predicate.
+     * @return predicate satisfied by the tweets that satisfy this predicate
+     *         and that Filter.containing() would find for words
+     */
+    public TweetPredicate containing(List<String> words) {
+        Set<String> wordSet = Filter.normalizeWords(words);
+        if (none || wordSet.isEmpty()) {
+            return NONE;
+        }
+        List<Set<String>> newWordSets = new ArrayList<>(wordSets);
+        newWordSets.add(wordSet);
+        return new TweetPredicate(false, start, end, author, Collections.unmodifiableList(newWordSets));
+    }
+
+    /**
+     * @param tweet
+     *            a tweet
+     * @return true iff tweet satisfies every condition of this predicate
+     */
+    @Override public boolean test(Tweet tweet) {
+        if (none) {
+            return false;
+        }
+        if (start != null) {
+            Instant timestamp = tweet.getTimestamp();
+            if (timestamp.isBefore(start) || timestamp.isAfter(end)) {
+                return false;
+            }
+        }
+        // usernames are ASCII, so this agrees with comparing lowercased names
+        if (author != null && !author.equalsIgnoreCase(tweet.getAuthor())) {
+            return false;
+        }
+        if (wordSets.isEmpty()) {
+            return true;
+        }
+        boolean[] matched = new boolean[wordSets.size()];
+        int[] unmatched = { wordSets.size() };
+        return TweetWords.anyWord(tweet.getText(), word -> {
+            for (int i = 0; i < matched.length; i++) {
+                if (!matched[i] && wordSets.get(i).contains(word)) {
+                    matched[i] = true;
+                    unmatched[0]--;
+                }
+            }
+            return unmatched[0] == 0;
+        });
+    }
+
+    /**
+     * Find tweets that satisfy this predicate, in one pass over the list.
+     *
+     * @param tweets
+     *            a list of tweets with distinct ids, not modified by this method.
+     * @return all and only the tweets in the list that satisfy this predicate,
+     *         in the same order as in the input list.
+     */
+    public List<Tweet> filter(List<Tweet> tweets) {
+        List<Tweet> result = new ArrayList<>();
+        if (none) {
+            return result;
+        }
+        for (Tweet tweet : tweets) {
+            if (test(tweet)) {
+                result.add(tweet);
+            }
+        }
+        return result;
+    }
+}
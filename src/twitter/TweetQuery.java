@@ -0,0 +1,100 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boolean query over tweets, built from the conditions of Filter and
+ * evaluated by TweetIndex.find().
+ *
+ * For example, the tweets by alyssa that mention either java or python
+ * during a timespan, except those that mention scala:
+ *
+ *   TweetQuery.writtenBy("alyssa")
+ *       .and(TweetQuery.containing(Arrays.asList("java", "python")))
+ *       .and(TweetQuery.inTimespan(timespan))
+ *       .and(TweetQuery.containing(Arrays.asList("scala")).not())
+ *
+ * A query evaluates to the compressed bitmap of the positions in the index's
+ * list of the tweets that satisfy it, so combining conditions costs word-level
+ * bitmap operations rather than building and scanning intermediate lists.
+ */
+@FunctionalInterface
+public interface TweetQuery {
+
+    /**
+     * @param index
+     *            index to evaluate this query against
+     * @return the positions in the indexed list of all and only the tweets
+     *         that satisfy this query
+     */
+    TweetBitmap evaluate(TweetIndex index);
+
+    /**
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return query satisfied by the tweets that Filter.writtenBy(tweets,
+     *         username) would find
+     */
+    static TweetQuery writtenBy(String username) {
+        return index -> index.authorBitmap(username);
+    }
+
+    /**
+     * @param timespan
+     *            timespan
+     * @return query satisfied by the tweets that Filter.inTimespan(tweets,
+     *         timespan) would find
+     */
+    static TweetQuery inTimespan(Timespan timespan) {
+        return index -> index.timespanBitmap(timespan);
+    }
+
+    /**
+     * @param words
+     *            a list of words, as for Filter.containing(). Later changes
+     *            to the list do not affect the query.
+     * @return query satisfied by the tweets that Filter.containing(tweets,
+     *         words) would find
+     */
+    static TweetQuery containing(List<String> words) {
+        List<String> copy = new ArrayList<>(words);
+        return index -> index.wordsBitmap(copy);
+    }
+
+    /**
+     * @param that
+     *            another query
+     * @return query satisfied by the tweets that satisfy both this and that
+     */
+    default TweetQuery and(TweetQuery that) {
+        return index -> this.evaluate(index).and(that.evaluate(index));
+    }
+
+    /**
+     * @param that
+     *            another query
+     * @return query satisfied by the tweets that satisfy this, that, or both
+     */
+    default TweetQuery or(TweetQuery that) {
+        return index -> this.evaluate(index).or(that.evaluate(index));
+    }
+
+    /**
+     * @return query satisfied by the tweets that do not satisfy this
+     */
+    default TweetQuery not() {
+        return index -> index.allBitmap().andNot(this.evaluate(index));
+    }
+
+    /**
+     * @param that
+     *            another query
+     * @return query satisfied by the tweets that satisfy this but not that;
+     *         equivalent to and(that.not()), without complementing that
+     */
+    default TweetQuery andNot(TweetQuery that) {
+        return index -> this.evaluate(index).andNot(that.evaluate(index));
+    }
+}
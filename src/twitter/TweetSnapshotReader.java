@@ -0,0 +1,202 @@
+package twitter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load tweets from a binary snapshot written by TweetSnapshotWriter.
+ *
+ * Loading a snapshot does no JSON parsing or date parsing, and each distinct
+ * author is decoded into a single String shared by all of its tweets.
+ */
+public class TweetSnapshotReader {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    /*
+     * Fewest bytes a tweet record can take: five one-byte integers.
+     */
+    private static final int MIN_TWEET_BYTES = 5;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_BYTES];
+    private int position = 0;
+    private int limit = 0;
+    private long unread;
+    /* Rep invariant:
+     *    0 <= position <= limit <= buffer.length
+     *    buffer[position..limit) holds bytes read from in but not yet decoded
+     *    unread >= 0 is the number of bytes left in in, or UNKNOWN
+     */
+
+    private TweetSnapshotReader(InputStream in, long unread) {
+        this.in = in;
+        this.unread = unread;
+    }
+
+    /**
+     * Load a snapshot from a file.
+     *
+     * @param file
+     *            file written by TweetSnapshotWriter
+     * @return the tweets in the snapshot, with the same field values and in
+     *         the same order as when they were written
+     * @throws IOException if the file can't be read or is not a valid snapshot
+     */
+    public static List<Tweet> readFromFile(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(new TweetSnapshotReader(in, Files.size(file)));
+        }
+    }
+
+    /**
+     * Load a snapshot from a stream. The stream is not closed, but may have
+     * been read past the end of the snapshot.
+     *
+     * @param in
+     *            stream holding a snapshot written by TweetSnapshotWriter
+     * @return the tweets in the snapshot, with the same field values and in
+     *         the same order as when they were written
+     * @throws IOException if the stream can't be read or is not a valid snapshot
+     */
+    public static List<Tweet> read(InputStream in) throws IOException {
+        return read(new TweetSnapshotReader(in, UNKNOWN));
+    }
+
+    private static List<Tweet> read(TweetSnapshotReader reader) throws IOException {
+        for (byte b : TweetSnapshotWriter.MAGIC) {
+            if (reader.readByte() != b) {
+                throw new IOException("Not a tweet snapshot");
+            }
+        }
+        int version = reader.readByte();
+        if (version != TweetSnapshotWriter.VERSION) {
+            throw new IOException("Unsupported tweet snapshot version " + version);
+        }
+
+        // every author takes at least its length byte; in a stream of unknown
+        // size the lists grow only as records are actually read
+        int authorCount = reader.readCount(1);
+        List<String> authors = new ArrayList<>(Math.min(authorCount, BUFFER_BYTES));
+        for (int i = 0; i < authorCount; i++) {
+            authors.add(reader.readString());
+        }
+
+        int count = reader.readCount(MIN_TWEET_BYTES);
+        List<Tweet> tweets = new ArrayList<>(Math.min(count, BUFFER_BYTES));
+        long id = 0;
+        long second = 0;
+        for (int i = 0; i < count; i++) {
+            long author = reader.readVarLong();
+            if (author < 0 || author >= authors.size()) {
+                throw new IOException("Corrupt tweet snapshot: author " + author + " out of range");
+            }
+            id += unzigzag(reader.readVarLong());
+            second += unzigzag(reader.readVarLong());
+            long nanos = reader.readVarLong();
+            if (nanos < 0 || nanos >= NANOS_PER_SECOND) {
+                throw new IOException("Corrupt tweet snapshot: " + nanos + " nanoseconds");
+            }
+            String text = reader.readString();
+            Instant timestamp;
+            try {
+                timestamp = Instant.ofEpochSecond(second, nanos);
+            } catch (DateTimeException e) {
+                throw new IOException("Corrupt tweet snapshot: " + second + " seconds out of range", e);
+            }
+            tweets.add(new Tweet(id, authors.get((int) author), text, timestamp));
+        }
+        return tweets;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /*
+     * Read a count of items, each taking at least minBytes bytes of the
+     * input, so the count must fit in an int and in the bytes left; checked
+     * before anything is allocated for the items.
+     */
+    private int readCount(int minBytes) throws IOException {
+        long count = readVarLong();
+        if (count < 0 || count > Integer.MAX_VALUE || count > bytesLeft() / minBytes) {
+            throw new IOException("Corrupt tweet snapshot: count " + count + " exceeds the bytes left");
+        }
+        return (int) count;
+    }
+
+    /*
+     * @return number of undecoded bytes left in the input, or UNKNOWN
+     */
+    private long bytesLeft() {
+        return unread == UNKNOWN ? UNKNOWN : limit - position + unread;
+    }
+
+    private String readString() throws IOException {
+        int length = readCount(1);
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position == limit) {
+                require(1);
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt tweet snapshot: integer too long");
+    }
+
+    private int readByte() throws IOException {
+        require(1);
+        return buffer[position++];
+    }
+
+    /*
+     * Make sure at least n undecoded bytes are in the buffer, growing it if
+     * necessary. The buffer only grows once it is full of bytes actually
+     * read, so a corrupt length in a stream of unknown size is caught at the
+     * end of the stream without first allocating that length.
+     */
+    private void require(int n) throws IOException {
+        if (limit - position >= n) {
+            return;
+        }
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        while (limit < n) {
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(n, 2L * buffer.length));
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new EOFException("Truncated tweet snapshot");
+            }
+            limit += read;
+            if (unread != UNKNOWN) {
+                unread = Math.max(0, unread - read);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package twitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write a list of tweets in a compact binary snapshot format, which
+ * TweetSnapshotReader loads much faster than TweetReader parses JSON.
+ *
+ * A snapshot is laid out as:
+ *   magic "TWSN", format version byte,
+ *   number of distinct authors, then each author as length-prefixed UTF-8,
+ *   number of tweets, then for each tweet:
+ *     index of its author in the author table,
+ *     id minus the previous tweet's id (zigzag),
+ *     timestamp epoch seconds minus the previous tweet's (zigzag),
+ *     timestamp nanoseconds,
+ *     text as length-prefixed UTF-8.
+ * Every integer is a variable-length unsigned LEB128 value, so small values
+ * and deltas between tweets close in id and time take only a byte or two.
+ */
+public class TweetSnapshotWriter {
+
+    static final byte[] MAGIC = { 'T', 'W', 'S', 'N' };
+    static final int VERSION = 1;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private int size = 0;
+
+    private TweetSnapshotWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Write a snapshot of tweets to a file, replacing its contents.
+     *
+     * @param tweets
+     *            tweets to write, not modified by this method
+     * @param file
+     *            file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void writeToFile(List<Tweet> tweets, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(tweets, out);
+        }
+    }
+
+    /**
+     * Write a snapshot of tweets to a stream. The stream is flushed but not
+     * closed.
+     *
+     * @param tweets
+     *            tweets to write, not modified by this method
+     * @param out
+     *            stream to write to
+     * @throws IOException if the stream can't be written
+     */
+    public static void write(List<Tweet> tweets, OutputStream out) throws IOException {
+        Map<String, Integer> authorIndex = new HashMap<>();
+        List<String> authors = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            if (!authorIndex.containsKey(tweet.getAuthor())) {
+                authorIndex.put(tweet.getAuthor(), authors.size());
+                authors.add(tweet.getAuthor());
+            }
+        }
+
+        TweetSnapshotWriter writer = new TweetSnapshotWriter(out);
+        writer.writeBytes(MAGIC, MAGIC.length);
+        writer.writeByte(VERSION);
+        writer.writeVarLong(authors.size());
+        for (String author : authors) {
+            writer.writeString(author);
+        }
+        writer.writeVarLong(tweets.size());
+        long previousId = 0;
+        long previousSecond = 0;
+        for (Tweet tweet : tweets) {
+            Instant timestamp = tweet.getTimestamp();
+            writer.writeVarLong(authorIndex.get(tweet.getAuthor()));
+            writer.writeVarLong(zigzag(tweet.getId() - previousId));
+            writer.writeVarLong(zigzag(timestamp.getEpochSecond() - previousSecond));
+            writer.writeVarLong(timestamp.getNano());
+            writer.writeString(tweet.getText());
+            previousId = tweet.getId();
+            previousSecond = timestamp.getEpochSecond();
+        }
+        writer.flush();
+    }
+
+    /*
+     * Map signed values to unsigned ones so that values near zero, positive
+     * or negative, have short encodings.
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        writeBytes(bytes, bytes.length);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        if (size + 10 > buffer.length) {
+            drain();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (size == buffer.length) {
+            drain();
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes, int length) throws IOException {
+        if (length > buffer.length - size) {
+            drain();
+            if (length > buffer.length) {
+                out.write(bytes, 0, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, size, length);
+        size += length;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, size);
+        size = 0;
+    }
+
+    private void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+}
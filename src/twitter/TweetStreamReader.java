@@ -0,0 +1,357 @@
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Read tweets one at a time from a JSON array of tweets, in the same format
+ * accepted by TweetReader.
+ *
+ * Unlike TweetReader, which loads the whole JSON document into memory before
+ * building any Tweet, a TweetStreamReader uses a pull parser and only holds
+ * the tweet currently being parsed, so arbitrarily large inputs can be read in
+ * bounded memory. The tweets produced are the same, and in the same order, as
+ * those TweetReader would produce from the same input.
+ */
+public class TweetStreamReader implements Iterator<Tweet>, Closeable {
+
+    private final JsonParser parser;
+    private final TwitterDateParser dates = new TwitterDateParser();
+    private boolean started = false;
+    private boolean finished = false;
+    private Tweet next = null;
+    /* Rep invariant:
+     *    next != null implies started && !finished
+     */
+
+    /**
+     * Make a TweetStreamReader over a stream containing a JSON array of tweets.
+     * Nothing is read until the first call to hasNext() or next().
+     *
+     * @param reader
+     *            stream to read from; closed when this reader is closed.
+     */
+    public TweetStreamReader(Reader reader) {
+        this.parser = Json.createParser(reader);
+    }
+
+    /**
+     * @return true iff there is at least one more tweet in the stream
+     * @throws JsonException if the stream is not a well-formed array of tweets
+     */
+    @Override public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        if (!started) {
+            expect(Event.START_ARRAY);
+            started = true;
+        }
+        Event event = nextEvent();
+        if (event == Event.END_ARRAY) {
+            finished = true;
+            return false;
+        }
+        if (event != Event.START_OBJECT) {
+            throw new JsonException("Expected a tweet object but found " + event);
+        }
+        next = readTweet();
+        return true;
+    }
+
+    /**
+     * @return the next tweet in the stream
+     * @throws NoSuchElementException if there are no more tweets
+     * @throws JsonException if the stream is not a well-formed array of tweets
+     */
+    @Override public Tweet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Tweet tweet = next;
+        next = null;
+        return tweet;
+    }
+
+    /**
+     * Close this reader and the underlying stream.
+     */
+    @Override public void close() {
+        parser.close();
+    }
+
+    /**
+     * Get a lazily-parsed stream of tweets. Closing the returned stream closes
+     * the reader.
+     *
+     * @param reader
+     *            stream containing a JSON array of tweets
+     * @return the tweets in the stream, in order
+     */
+    public static Stream<Tweet> stream(Reader reader) {
+        TweetStreamReader tweets = new TweetStreamReader(reader);
+        Spliterator<Tweet> spliterator = Spliterators.spliteratorUnknownSize(tweets,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(tweets::close);
+    }
+
+    /**
+     * Get a lazily-parsed stream of tweets from a web server. Closing the
+     * returned stream closes the connection.
+     *
+     * @param url
+     *            URL of server to retrieve tweets from
+     * @return the tweets retrieved from the server, in order
+     * @throws IOException if the url is invalid, the server is unreachable,
+     *                     or some other network-related error occurs.
+     */
+    public static Stream<Tweet> streamTweetsFromWeb(URL url) throws IOException {
+        return stream(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get a lazily-parsed stream of tweets from a file. The file is
+     * memory-mapped and decoded as UTF-8 straight from the mapping. Closing
+     * the returned stream closes the file.
+     *
+     * @param file
+     *            file containing a JSON array of tweets in UTF-8
+     * @return the tweets in the file, in order
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public static Stream<Tweet> streamTweetsFromFile(Path file) throws IOException {
+        return stream(openMapped(file));
+    }
+
+    /**
+     * Parse every tweet in a file, handing each one to a callback as soon as
+     * it has been read. The file is memory-mapped and decoded as UTF-8
+     * straight from the mapping.
+     *
+     * @param file
+     *            file containing a JSON array of tweets in UTF-8
+     * @param action
+     *            called once per tweet, in file order
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public static void forEachTweetInFile(Path file, Consumer<? super Tweet> action) throws IOException {
+        forEach(openMapped(file), action);
+    }
+
+    /**
+     * Read every tweet in a file into a list. The file is memory-mapped and
+     * decoded as UTF-8 straight from the mapping.
+     *
+     * @param file
+     *            file containing a JSON array of tweets in UTF-8
+     * @return the tweets in the file, in order
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public static List<Tweet> readTweetsFromFile(Path file) throws IOException {
+        return readTweets(openMapped(file));
+    }
+
+    /*
+     * Open a file for reading through a MappedUtf8Reader that closes the file
+     * when it is closed.
+     */
+    private static Reader openMapped(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedUtf8Reader(channel, 0, channel.size(), true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parse every tweet in a stream, handing each one to a callback as soon as
+     * it has been read. The reader is closed afterwards.
+     *
+     * @param reader
+     *            stream containing a JSON array of tweets
+     * @param action
+     *            called once per tweet, in stream order
+     */
+    public static void forEach(Reader reader, Consumer<? super Tweet> action) {
+        try (TweetStreamReader tweets = new TweetStreamReader(reader)) {
+            tweets.forEachRemaining(action);
+        }
+    }
+
+    /**
+     * Read every tweet in a stream into a list. The reader is closed afterwards.
+     *
+     * @param reader
+     *            stream containing a JSON array of tweets
+     * @return the tweets in the stream, in order
+     */
+    public static List<Tweet> readTweets(Reader reader) {
+        List<Tweet> tweets = new ArrayList<>();
+        forEach(reader, tweets::add);
+        return tweets;
+    }
+
+    /*
+     * Read the fields of one tweet object, whose START_OBJECT has already been
+     * consumed, up to and including its END_OBJECT.
+     *
+     * Only the four fields a Tweet needs are extracted: the top-level "id",
+     * "text" and "created_at", and the screen name, either as a top-level
+     * "user.screen_name" key or as "screen_name" inside a "user" object.
+     * Every other value is skipped event by event without being converted
+     * to a String or stored.
+     */
+    private Tweet readTweet() {
+        String id = null;
+        String screenName = null;
+        String text = null;
+        String createdAt = null;
+        for (Event event = nextEvent(); event != Event.END_OBJECT; event = nextEvent()) {
+            String key = parser.getString();
+            Event value = nextEvent();
+            switch (key) {
+            case "id":
+                id = scalarOrSkip(value);
+                break;
+            case "text":
+                text = scalarOrSkip(value);
+                break;
+            case "created_at":
+                createdAt = scalarOrSkip(value);
+                break;
+            case "user.screen_name":
+                screenName = scalarOrSkip(value);
+                break;
+            case "user":
+                if (value == Event.START_OBJECT) {
+                    String nested = readScreenName();
+                    if (nested != null) {
+                        screenName = nested;
+                    }
+                } else {
+                    skip(value);
+                }
+                break;
+            default:
+                skip(value);
+                break;
+            }
+        }
+        return createTweet(id, screenName, text, createdAt);
+    }
+
+    /*
+     * Read a user object, whose START_OBJECT has already been consumed, up to
+     * and including its END_OBJECT.
+     *
+     * @return the user's screen_name, or null if it has none
+     */
+    private String readScreenName() {
+        String screenName = null;
+        for (Event event = nextEvent(); event != Event.END_OBJECT; event = nextEvent()) {
+            String key = parser.getString();
+            Event value = nextEvent();
+            if (key.equals("screen_name")) {
+                screenName = scalarOrSkip(value);
+            } else {
+                skip(value);
+            }
+        }
+        return screenName;
+    }
+
+    /*
+     * @return the text of the current value if it is a string or number;
+     *         otherwise skip the value and return null.
+     */
+    private String scalarOrSkip(Event value) {
+        if (value == Event.VALUE_STRING || value == Event.VALUE_NUMBER) {
+            return parser.getString();
+        }
+        skip(value);
+        return null;
+    }
+
+    /*
+     * Skip the value that starts with the given event, including any nested
+     * objects and arrays.
+     */
+    private void skip(Event value) {
+        if (value != Event.START_OBJECT && value != Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (nextEvent()) {
+            case START_OBJECT:
+            case START_ARRAY:
+                depth++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /*
+     * Construct a Tweet from its extracted field values.
+     */
+    private Tweet createTweet(String id, String screenName, String text, String createdAt) {
+        long tweetId = Long.parseLong(requireField(id, "id"));
+        Instant timestamp = dates.parse(requireField(createdAt, "created_at"));
+        return new Tweet(tweetId, requireField(screenName, "user.screen_name"),
+                requireField(text, "text"), timestamp);
+    }
+
+    private static String requireField(String value, String name) {
+        if (value == null) {
+            throw new JsonException("Tweet is missing field " + name);
+        }
+        return value;
+    }
+
+    private void expect(Event expected) {
+        Event event = nextEvent();
+        if (event != expected) {
+            throw new JsonException("Expected " + expected + " but found " + event);
+        }
+    }
+
+    private Event nextEvent() {
+        if (!parser.hasNext()) {
+            throw new JsonException("Unexpected end of input");
+        }
+        return parser.next();
+    }
+}
@@ -0,0 +1,104 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable result of tokenizing one tweet for follow evidence: its author,
+ * the users it mentions, its hashtags, and the user it replies to, all in
+ * lower case. Made by FollowsEvidence in a single pass over the tweet's text
+ * and shared by every EvidenceExtractor, so that adding a signal does not add
+ * a pass.
+ */
+public class TweetTokens {
+
+    private final Tweet tweet;
+    private final String author;
+    private final List<String> mentions;
+    private final List<String> hashtags;
+    private final String replyTo;
+    /* Rep invariant:
+     *    author == tweet.getAuthor() in lower case
+     *    mentions are the distinct users mentioned in tweet's text, as defined
+     *      by Extract.getMentionedUsers(), in lower case, in order of first
+     *      appearance, and unmodifiable; likewise hashtags
+     *    replyTo is null, or the first of mentions when the text starts,
+     *      after any whitespace, with "@" and that username
+     */
+
+    private TweetTokens(Tweet tweet, List<String> mentions, List<String> hashtags, String replyTo) {
+        this.tweet = tweet;
+        this.author = tweet.getAuthor().toLowerCase(Locale.ROOT);
+        this.mentions = mentions;
+        this.hashtags = hashtags;
+        this.replyTo = replyTo;
+    }
+
+    /*
+     * Tokenize a tweet with a scanner, which is reused across calls.
+     */
+    static TweetTokens of(Tweet tweet, MentionScanner scanner) {
+        String text = tweet.getText();
+        Set<String> mentions = new LinkedHashSet<>();
+        Set<String> hashtags = new LinkedHashSet<>();
+        scanner.scan(text, mentions, hashtags);
+
+        String replyTo = null;
+        int i = 0;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (i + 1 < text.length() && text.charAt(i) == '@' && MentionScanner.isUsernameChar(text.charAt(i + 1))) {
+            replyTo = mentions.iterator().next();
+        }
+        return new TweetTokens(tweet, unmodifiable(mentions), unmodifiable(hashtags), replyTo);
+    }
+
+    private static List<String> unmodifiable(Set<String> set) {
+        return set.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(set));
+    }
+
+    /**
+     * @return the tweet these tokens came from
+     */
+    public Tweet getTweet() {
+        return tweet;
+    }
+
+    /**
+     * @return the tweet's author, in lower case
+     */
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * @return unmodifiable list of the distinct users the tweet mentions, in
+     *         lower case, in order of first mention; may include the author
+     */
+    public List<String> getMentions() {
+        return mentions;
+    }
+
+    /**
+     * @return unmodifiable list of the distinct hashtags in the tweet, as
+     *         found by MentionScanner, without the "#" and in lower case,
+     *         in order of first appearance
+     */
+    public List<String> getHashtags() {
+        return hashtags;
+    }
+
+    /**
+     * @return the user the tweet replies to, in lower case: the username
+     *         mentioned at the very start of the text, ignoring whitespace;
+     *         or null if the text does not start with a mention
+     */
+    public String getReplyTo() {
+        return replyTo;
+    }
+}
@@ -0,0 +1,69 @@
+package twitter;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Splits tweet text into words as specified by Filter.containing(): a word is
+ * a nonempty sequence of nonspace characters bounded by space characters or
+ * the ends of the text, and words are compared case-insensitively.
+ */
+class TweetWords {
+
+    private TweetWords() {
+    }
+
+    /**
+     * Call an action on each word of a text, in order, normalized with
+     * normalize(). A word that occurs more than once is passed each time.
+     *
+     * @param text
+     *            text to split
+     * @param action
+     *            called once per word
+     */
+    static void forEachWord(String text, Consumer<String> action) {
+        anyWord(text, word -> {
+            action.accept(word);
+            return false;
+        });
+    }
+
+    /**
+     * Test the words of a text, in order, normalized with normalize(), until
+     * one passes.
+     *
+     * @param text
+     *            text to split
+     * @param test
+     *            called on each word until it returns true
+     * @return true iff test returned true for some word of text
+     */
+    static boolean anyWord(String text, Predicate<String> test) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i > start && test.test(normalize(text.substring(start, i)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param word
+     *            a word
+     * @return the form of word used for case-insensitive comparison
+     */
+    static String normalize(String word) {
+        return word.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,189 @@
+package twitter;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Parser for the timestamps in Twitter's created_at field, which have the
+ * fixed layout "EEE MMM dd HH:mm:ss Z yyyy", for example
+ * "Wed Feb 17 10:00:00 +0000 2016".
+ *
+ * Well-formed timestamps are converted straight to epoch seconds by reading
+ * digits at fixed offsets, without going through DateTimeFormatter or
+ * ZonedDateTime. The start of the day is cached, so consecutive tweets from
+ * the same day only pay for the time of day. Anything that doesn't fit the
+ * fast path is handed to the DateTimeFormatter, which either parses it or
+ * reports the error.
+ *
+ * A TwitterDateParser is mutable because of its cache, so it must not be
+ * shared between threads.
+ */
+public class TwitterDateParser {
+
+    /**
+     * Formatter for the created_at layout, used for input the fast path
+     * doesn't handle.
+     */
+    public static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US);
+
+    private static final int LENGTH = "Wed Feb 17 10:00:00 +0000 2016".length();
+    private static final int DAY_PREFIX_LENGTH = "Wed Feb 17".length();
+    private static final int YEAR_START = "Wed Feb 17 10:00:00 +0000 ".length();
+    private static final String[] DAYS = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 60 * SECONDS_PER_MINUTE;
+    private static final int SECONDS_PER_DAY = 24 * SECONDS_PER_HOUR;
+    private static final int MAX_OFFSET_HOURS = 18;
+
+    private final char[] cachedDay = new char[DAY_PREFIX_LENGTH + 4];
+    private boolean cacheValid = false;
+    private long cachedDaySeconds;
+    /* Rep invariant:
+     *    if cacheValid, cachedDay holds the day prefix and year of a valid
+     *    timestamp whose date starts at cachedDaySeconds (UTC epoch seconds)
+     */
+
+    /**
+     * Parse a created_at timestamp.
+     *
+     * @param text
+     *            timestamp in the layout "EEE MMM dd HH:mm:ss Z yyyy"
+     * @return the instant the timestamp represents
+     * @throws DateTimeParseException if text is not a valid timestamp
+     */
+    public Instant parse(CharSequence text) {
+        return Instant.ofEpochSecond(parseEpochSecond(text));
+    }
+
+    /**
+     * Parse a created_at timestamp.
+     *
+     * @param text
+     *            timestamp in the layout "EEE MMM dd HH:mm:ss Z yyyy"
+     * @return the timestamp in seconds since 1970-01-01T00:00:00Z
+     * @throws DateTimeParseException if text is not a valid timestamp
+     */
+    public long parseEpochSecond(CharSequence text) {
+        if (text.length() == LENGTH
+                && text.charAt(3) == ' ' && text.charAt(7) == ' ' && text.charAt(10) == ' '
+                && text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(19) == ' '
+                && text.charAt(25) == ' ') {
+            int hour = twoDigits(text, 11);
+            int minute = twoDigits(text, 14);
+            int second = twoDigits(text, 17);
+            int offset = offsetSeconds(text);
+            if (hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60
+                    && offset != Integer.MIN_VALUE
+                    && (cachedDayMatches(text) || cacheDay(text))) {
+                return cachedDaySeconds + hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second - offset;
+            }
+        }
+        return ZonedDateTime.parse(text, FORMAT).toEpochSecond();
+    }
+
+    /*
+     * @return true iff the day prefix and year of text are the cached ones
+     */
+    private boolean cachedDayMatches(CharSequence text) {
+        if (!cacheValid) {
+            return false;
+        }
+        for (int i = 0; i < DAY_PREFIX_LENGTH; i++) {
+            if (text.charAt(i) != cachedDay[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            if (text.charAt(YEAR_START + i) != cachedDay[DAY_PREFIX_LENGTH + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Parse the date of text and cache it.
+     *
+     * @return true if the date was valid and is now cached; false if text
+     *         must go through the formatter
+     */
+    private boolean cacheDay(CharSequence text) {
+        int month = MONTHS.indexOf(text.subSequence(4, 7).toString());
+        int day = twoDigits(text, 8);
+        int year = fourDigits(text, YEAR_START);
+        if (month < 0 || month % 3 != 0 || day < 0 || year < 1) {
+            return false;
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.of(year, month / 3 + 1, day);
+        } catch (DateTimeException dte) {
+            return false;
+        }
+        String dayOfWeek = DAYS[date.getDayOfWeek().getValue() - 1];
+        for (int i = 0; i < 3; i++) {
+            if (text.charAt(i) != dayOfWeek.charAt(i)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < DAY_PREFIX_LENGTH; i++) {
+            cachedDay[i] = text.charAt(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            cachedDay[DAY_PREFIX_LENGTH + i] = text.charAt(YEAR_START + i);
+        }
+        cachedDaySeconds = date.toEpochDay() * SECONDS_PER_DAY;
+        cacheValid = true;
+        return true;
+    }
+
+    /*
+     * @return the "+HHMM" zone offset of text in seconds, or Integer.MIN_VALUE
+     *         if it is malformed
+     */
+    private static int offsetSeconds(CharSequence text) {
+        char sign = text.charAt(20);
+        int hours = twoDigits(text, 21);
+        int minutes = twoDigits(text, 23);
+        if ((sign != '+' && sign != '-') || hours < 0 || minutes < 0 || minutes >= 60) {
+            return Integer.MIN_VALUE;
+        }
+        int seconds = hours * SECONDS_PER_HOUR + minutes * SECONDS_PER_MINUTE;
+        if (seconds > MAX_OFFSET_HOURS * SECONDS_PER_HOUR) {
+            return Integer.MIN_VALUE;
+        }
+        return sign == '+' ? seconds : -seconds;
+    }
+
+    /*
+     * @return the value of the two decimal digits at start, or -1 if they
+     *         aren't both digits
+     */
+    private static int twoDigits(CharSequence text, int start) {
+        int tens = digit(text.charAt(start));
+        int ones = digit(text.charAt(start + 1));
+        return tens < 0 || ones < 0 ? -1 : tens * 10 + ones;
+    }
+
+    /*
+     * @return the value of the four decimal digits at start, or -1 if they
+     *         aren't all digits
+     */
+    private static int fourDigits(CharSequence text, int start) {
+        int high = twoDigits(text, start);
+        int low = twoDigits(text, start + 2);
+        return high < 0 || low < 0 ? -1 : high * 100 + low;
+    }
+
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+}
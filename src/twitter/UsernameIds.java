@@ -0,0 +1,112 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable numbering of usernames by small int ids, so graphs and counts can
+ * be kept in arrays indexed by id.
+ *
+ * Ids are handed out in increasing order from 0. A removed id is kept on a
+ * free list and handed out again before any new id, so every id stays below
+ * bound(), which only grows when no removed id is free.
+ */
+class UsernameIds {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final IntList free = new IntList();
+    /* Rep invariant:
+     *    usernames[i] is null iff i is in free, and free holds distinct ids
+     *    the other usernames are distinct, and ids maps usernames[i] to i
+     * Abstraction function:
+     *    represents the numbering in which usernames[i] has id i, for each
+     *    i not in free
+     */
+
+    /**
+     * @param username
+     *            a username, in the case it is to be stored in
+     * @return its id, numbering it with the most recently freed id, or else
+     *         the next new id, if it has none
+     */
+    int id(String username) {
+        Integer id = ids.get(username);
+        if (id == null) {
+            if (free.size() > 0) {
+                id = free.removeLast();
+                usernames.set(id, username);
+            } else {
+                id = usernames.size();
+                usernames.add(username);
+            }
+            ids.put(username, id);
+        }
+        return id;
+    }
+
+    /**
+     * @param username
+     *            a username, in the case it is stored in
+     * @return its id, or -1 if it has none
+     */
+    int find(String username) {
+        Integer id = ids.get(username);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id
+     *            an id in use
+     * @return the username with that id
+     */
+    String username(int id) {
+        return usernames.get(id);
+    }
+
+    /**
+     * Free a username's id, to be handed out again.
+     *
+     * @param id
+     *            an id in use
+     */
+    void remove(int id) {
+        ids.remove(usernames.get(id));
+        usernames.set(id, null);
+        free.add(id);
+    }
+
+    /**
+     * @return number of ids in use, which are 0 to size() - 1 if none has
+     *         been removed
+     */
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return one more than the largest id handed out so far; every id in
+     *         use is below it
+     */
+    int bound() {
+        return usernames.size();
+    }
+
+    /**
+     * @return a new array of the usernames, indexed by id; requires that no
+     *         id has been removed
+     */
+    String[] toArray() {
+        assert free.size() == 0;
+        return usernames.toArray(new String[0]);
+    }
+
+    /**
+     * @return a new mutable map from each username to its id
+     */
+    Map<String, Integer> toMap() {
+        return new HashMap<>(ids);
+    }
+}
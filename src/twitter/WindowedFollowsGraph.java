@@ -0,0 +1,306 @@
+package twitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Mutable social network guessed only from recent tweets: A follows B iff A
+ * wrote a tweet in the current window that @-mentions B, and A and B are
+ * different users.
+ *
+ * The window ends at the latest timestamp seen, given by a tweet or by
+ * advanceTo(), and covers the preceding window duration. Evidence is kept in
+ * buckets of a fixed duration, and a bucket expires as a whole once all of
+ * it is older than the window, so the graph may still hold evidence up to
+ * one bucket older than the window. Each edge counts the tweets supporting
+ * it, and disappears when its last supporting tweet expires; expiring a
+ * bucket costs time proportional to the mentions in it, not to the size of
+ * the graph. A user left with no edges is forgotten and their id reused, so
+ * memory and the cost of size() and influencers() follow the users in the
+ * window, not every user ever seen.
+ *
+ * This class is thread-safe: every method holds this object's lock.
+ */
+public class WindowedFollowsGraph {
+
+    /**
+     * Default window duration.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofHours(24);
+
+    /**
+     * Default bucket duration.
+     */
+    public static final Duration DEFAULT_BUCKET = Duration.ofMinutes(15);
+
+    private final long windowMillis;
+    private final long bucketMillis;
+
+    private final UsernameIds ids = new UsernameIds();
+    private int[] followerCounts = new int[16];
+    private int[] degrees = new int[16];
+    private final PairTable evidence = new PairTable();
+    private final TreeMap<Long, IntList> buckets = new TreeMap<>();
+    private long latest = Long.MIN_VALUE;
+    private final MentionScanner scanner = new MentionScanner();
+    private final Set<String> mentions = new HashSet<>();
+    /* Rep invariant:
+     *    windowMillis > 0, bucketMillis > 0
+     *    ids numbers distinct lower-case usernames, exactly the users u
+     *      with degrees[u] > 0
+     *    followerCounts.length == degrees.length >= ids.bound()
+     *    each bucket b holds (follower, followed) id pairs, one per tweet
+     *      with a timestamp in [b * bucketMillis, (b + 1) * bucketMillis)
+     *      and each distinct user it mentions other than its author
+     *    every bucket ends after latest - windowMillis
+     *    evidence maps each pair to the number of times it occurs in the
+     *      buckets, and holds no pair with a count of 0
+     *    followerCounts[v] is the number of pairs (u, v) in evidence, and
+     *      degrees[u] the number of pairs in evidence that include u
+     * Abstraction function:
+     *    represents the social network in which ids.username(u) follows
+     *    ids.username(v) iff (u, v) is in evidence, over the users numbered
+     *    by ids, as of time latest
+     *
+     * Thread safety argument:
+     *    all fields are accessed only while holding this object's lock
+     */
+
+    /**
+     * Make an empty graph with the default window and bucket durations.
+     */
+    public WindowedFollowsGraph() {
+        this(DEFAULT_WINDOW, DEFAULT_BUCKET);
+    }
+
+    /**
+     * Make an empty graph.
+     *
+     * @param window
+     *            how far back from the latest timestamp tweets count,
+     *            at least 1 millisecond
+     * @param bucket
+     *            granularity of expiry, at least 1 millisecond
+     */
+    public WindowedFollowsGraph(Duration window, Duration bucket) {
+        if (window.toMillis() < 1 || bucket.toMillis() < 1) {
+            throw new IllegalArgumentException("requires window and bucket of at least 1 ms");
+        }
+        this.windowMillis = window.toMillis();
+        this.bucketMillis = bucket.toMillis();
+    }
+
+    /**
+     * Add the evidence in one tweet, first advancing the window to the
+     * tweet's timestamp if it is later than the end of the window.
+     *
+     * @param tweet
+     *            tweet to add
+     * @return true iff the tweet was recent enough to be added; a tweet whose
+     *         bucket has already expired is ignored
+     */
+    public synchronized boolean addTweet(Tweet tweet) {
+        long time = tweet.getTimestamp().toEpochMilli();
+        advance(time);
+        long bucket = Math.floorDiv(time, bucketMillis);
+        if (expired(bucket)) {
+            return false;
+        }
+        mentions.clear();
+        scanner.addMentions(tweet.getText(), mentions);
+        String author = tweet.getAuthor().toLowerCase(Locale.ROOT);
+        mentions.remove(author);
+        if (mentions.isEmpty()) {
+            return true;
+        }
+        IntList pairs = buckets.computeIfAbsent(bucket, b -> new IntList());
+        int follower = id(author);
+        for (String mention : mentions) {
+            int followed = id(mention);
+            pairs.add(follower);
+            pairs.add(followed);
+            if (evidence.add(follower, followed, 1) == 1) {
+                followerCounts[followed]++;
+                degrees[follower]++;
+                degrees[followed]++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add the evidence in a list of tweets, in list order.
+     *
+     * @param tweets
+     *            tweets to add, not modified by this method
+     */
+    public synchronized void addAll(List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            addTweet(tweet);
+        }
+    }
+
+    /**
+     * Move the end of the window forward to a time, expiring evidence that
+     * falls out of the window. Does nothing if the window already ends at
+     * or after that time.
+     *
+     * @param time
+     *            new end of the window
+     */
+    public synchronized void advanceTo(Instant time) {
+        advance(time.toEpochMilli());
+    }
+
+    /**
+     * @return the number of users who follow or are followed by somebody in
+     *         the current window
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /*
+     * @return the number of user ids ever needed at once, which bounds the
+     *         per-user arrays; for tests
+     */
+    synchronized int idBound() {
+        return ids.bound();
+    }
+
+    /**
+     * @return the number of (follower, followed) pairs in the current window
+     */
+    public synchronized int edgeCount() {
+        return evidence.size();
+    }
+
+    /**
+     * @param follower
+     *            a Twitter username, in any case
+     * @param followed
+     *            a Twitter username, in any case
+     * @return the number of tweets in the current window by follower that
+     *         mention followed
+     */
+    public synchronized int evidence(String follower, String followed) {
+        int u = ids.find(follower.toLowerCase(Locale.ROOT));
+        int v = ids.find(followed.toLowerCase(Locale.ROOT));
+        return u < 0 || v < 0 ? 0 : (int) evidence.get(u, v);
+    }
+
+    /**
+     * @param username
+     *            a Twitter username, in any case
+     * @return the number of users who follow that user in the current window
+     */
+    public synchronized int followerCount(String username) {
+        int id = ids.find(username.toLowerCase(Locale.ROOT));
+        return id < 0 ? 0 : followerCounts[id];
+    }
+
+    /**
+     * @return a new mutable social network, as defined by SocialNetwork, of
+     *         the current window, in lower case. Every user who follows
+     *         somebody is a key.
+     */
+    public synchronized Map<String, Set<String>> toMap() {
+        Map<String, Set<String>> map = new HashMap<>();
+        evidence.forEach((u, v, count) -> map.computeIfAbsent(ids.username(u), k -> new HashSet<>()).add(ids.username(v)));
+        return map;
+    }
+
+    /**
+     * Rank the users of the current window by follower count.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the first min(k, size()) usernames, in lower case, in
+     *         descending order of follower count in the current window, with
+     *         users having equal follower counts in ascending order of
+     *         username
+     */
+    public synchronized List<String> influencers(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        int[] active = new int[ids.size()];
+        int n = 0;
+        for (int u = 0; u < ids.bound(); u++) {
+            if (degrees[u] > 0) {
+                active[n++] = u;
+            }
+        }
+        int[] top = TopK.select(n, k, (a, b) -> {
+            int countA = followerCounts[active[a]];
+            int countB = followerCounts[active[b]];
+            return countA != countB
+                    ? countA > countB
+                    : ids.username(active[a]).compareTo(ids.username(active[b])) < 0;
+        });
+        List<String> result = new ArrayList<>(top.length);
+        for (int i : top) {
+            result.add(ids.username(active[i]));
+        }
+        return result;
+    }
+
+    /*
+     * @return true iff every time in the bucket is older than the window
+     */
+    private boolean expired(long bucket) {
+        return latest != Long.MIN_VALUE && (bucket + 1) * bucketMillis <= latest - windowMillis;
+    }
+
+    /*
+     * Move latest forward to time, removing the evidence in expired buckets.
+     */
+    private void advance(long time) {
+        if (time <= latest) {
+            return;
+        }
+        latest = time;
+        while (!buckets.isEmpty() && expired(buckets.firstKey())) {
+            IntList pairs = buckets.pollFirstEntry().getValue();
+            for (int i = 0; i < pairs.size(); i += 2) {
+                int follower = pairs.get(i);
+                int followed = pairs.get(i + 1);
+                if (evidence.add(follower, followed, -1) == 0) {
+                    followerCounts[followed]--;
+                    release(follower);
+                    release(followed);
+                }
+            }
+        }
+    }
+
+    /*
+     * Remove one edge from user u's degree, freeing u's id once it has none.
+     */
+    private void release(int u) {
+        if (--degrees[u] == 0) {
+            ids.remove(u);
+        }
+    }
+
+    /*
+     * @return the id of username, numbering it if it is new
+     */
+    private int id(String username) {
+        int id = ids.id(username);
+        if (id == degrees.length) {
+            followerCounts = Arrays.copyOf(followerCounts, 2 * id);
+            degrees = Arrays.copyOf(degrees, 2 * id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,45 @@
+package twitter;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark for Communities over a large synthetic follows graph with skewed
+ * follower counts. Not a unit test: run main() by hand with assertions
+ * disabled.
+ */
+public class CommunitiesBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int EDGES = 10_000_000;
+    private static final int FIXED_ROUNDS = 10;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of users and number of edges to generate
+     */
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : USERS;
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : EDGES;
+        FollowsGraph graph = PageRankBenchmark.randomGraph(users, edges, new Random(6005));
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d users, %d edges, %d cores%n", graph.size(), graph.edgeCount(), cores);
+
+        for (int threads = 1; threads < 2 * cores; threads *= 2) {
+            int poolThreads = Math.min(threads, cores);
+            ForkJoinPool pool = new ForkJoinPool(poolThreads);
+            try {
+                SocialNetworkBenchmark.measure("at most " + FIXED_ROUNDS + " rounds, " + poolThreads + " threads", edges, "edge",
+                        () -> Communities.detect(graph, FIXED_ROUNDS, pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        Communities communities = SocialNetworkBenchmark.measure("to convergence", edges, "edge",
+                () -> Communities.detect(graph));
+        System.out.printf("%d communities after %d rounds%n", communities.size(), communities.rounds());
+        SocialNetworkBenchmark.measure("influencers, top 10 of each", edges, "edge",
+                () -> communities.influencers(10));
+    }
+}
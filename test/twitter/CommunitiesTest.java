@@ -0,0 +1,180 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class CommunitiesTest {
+
+    /*
+     * Testing Strategy for Communities:
+     *
+     * detect():
+     * - graph: empty, one follow, dense groups joined by single follows, a
+     *   random graph
+     * - maxRounds: 0, 1, enough to converge
+     * - pool: 1 thread, several threads; same result for both
+     * - invalid maxRounds rejected
+     *
+     * size(), community(), members(), toMap():
+     * - every user in exactly one community, numbered by first member
+     *
+     * influencers():
+     * - k: 0, less than, more than the community size
+     * - followers from outside the community not counted
+     * - equal counts ordered by username
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test an empty graph, one follow, and no rounds
+    @Test
+    public void testSmallGraphs() {
+        Communities empty = Communities.detect(FollowsGraph.fromMap(new HashMap<>()));
+        assertEquals("Expected no communities", 0, empty.size());
+        assertEquals("Expected no influencers", 0, empty.influencers(3).size());
+
+        Map<String, Set<String>> pair = new HashMap<>();
+        pair.put("a", new HashSet<>(Arrays.asList("b")));
+        Communities together = Communities.detect(FollowsGraph.fromMap(pair));
+        assertEquals("Expected one community", 1, together.size());
+        assertEquals("Expected b first", Arrays.asList("b", "a"), together.influencers(0, 5));
+        assertEquals("Expected no users", Arrays.asList(), together.influencers(0, 0));
+
+        Communities apart = Communities.detect(FollowsGraph.fromMap(pair), 0, ForkJoinPool.commonPool());
+        assertEquals("Expected a community per user", 2, apart.size());
+        assertEquals("Expected no rounds", 0, apart.rounds());
+    }
+
+    // Test dense groups joined by single follows are found, and their influencers
+    @Test
+    public void testGroups() {
+        Map<String, Set<String>> map = new HashMap<>();
+        String[] groups = { "red", "green", "blue" };
+        for (String group : groups) {
+            for (int i = 0; i < 6; i++) {
+                Set<String> follows = map.computeIfAbsent(group + i, u -> new HashSet<>());
+                for (int j = 0; j < 6; j++) {
+                    if (i != j && (i + j) % 5 != 0) {
+                        follows.add(group + j);
+                    }
+                }
+            }
+            // group0 is followed by the whole group
+            for (int i = 1; i < 6; i++) {
+                map.get(group + i).add(group + 0);
+            }
+        }
+        map.get("red1").add("green5");
+        map.get("green1").add("blue5");
+        map.get("blue2").add("green5");
+        map.get("blue3").add("green5");
+
+        FollowsGraph graph = FollowsGraph.fromMap(map);
+        Communities communities = Communities.detect(graph);
+        assertEquals("Expected three communities", 3, communities.size());
+        Map<String, Integer> assignment = communities.toMap();
+        assertEquals("Expected every user", graph.size(), assignment.size());
+        for (String group : groups) {
+            for (int i = 0; i < 6; i++) {
+                assertEquals("Expected " + group + i + " with its group",
+                        assignment.get(group + 0), assignment.get(group + i));
+            }
+            List<String> top = communities.influencers(assignment.get(group + 0), 2);
+            assertEquals("Expected group leader first", group + 0, top.get(0));
+        }
+        // green1, green2 and green5 have 4 followers in the group; green5 has 3 more from outside
+        assertEquals("Expected outside followers ignored", Arrays.asList("green0", "green1"),
+                communities.influencers(assignment.get("green0"), 2));
+        assertTrue("Expected rounds to stop early", communities.rounds() < Communities.DEFAULT_MAX_ROUNDS);
+        checkPartition(communities);
+    }
+
+    // Test a random graph gives the same communities on any number of threads
+    @Test
+    public void testThreadsAgree() {
+        Random random = new Random(6005);
+        int users = 3000;
+        FollowsGraph.Builder builder = new FollowsGraph.Builder();
+        for (int u = 0; u < users; u++) {
+            builder.id("user" + u);
+        }
+        for (int e = 0; e < 4 * users; e++) {
+            int follower = random.nextInt(users);
+            // mostly within blocks of 100 users
+            int followed = random.nextInt(10) == 0 ? random.nextInt(users)
+                    : follower / 100 * 100 + random.nextInt(100);
+            builder.addEdge(follower, followed);
+        }
+        FollowsGraph graph = builder.build();
+        for (int rounds : new int[] { 1, 30 }) {
+            ForkJoinPool one = new ForkJoinPool(1);
+            ForkJoinPool four = new ForkJoinPool(4);
+            try {
+                Communities sequential = Communities.detect(graph, rounds, one);
+                Communities parallel = Communities.detect(graph, rounds, four);
+                assertEquals("Expected same rounds", sequential.rounds(), parallel.rounds());
+                assertEquals("Expected same communities", sequential.toMap(), parallel.toMap());
+                checkPartition(parallel);
+            } finally {
+                one.shutdown();
+                four.shutdown();
+            }
+        }
+    }
+
+    // Test invalid parameters are rejected
+    @Test
+    public void testInvalidParameters() {
+        FollowsGraph graph = FollowsGraph.fromMap(new HashMap<>());
+        try {
+            Communities.detect(graph, -1, ForkJoinPool.commonPool());
+            fail("Expected negative maxRounds to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            Communities.detect(graph).influencers(-1);
+            fail("Expected negative k to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /*
+     * Check every user is a member of exactly its community, and communities
+     * are numbered by first member.
+     */
+    private static void checkPartition(Communities communities) {
+        int users = communities.graph().size();
+        boolean[] seen = new boolean[users];
+        int lastFirst = -1;
+        for (int c = 0; c < communities.size(); c++) {
+            int[] members = communities.members(c);
+            assertTrue("Expected nonempty community", members.length > 0);
+            assertTrue("Expected numbering by first member", members[0] > lastFirst);
+            lastFirst = members[0];
+            for (int u : members) {
+                assertFalse("Expected user in one community", seen[u]);
+                seen[u] = true;
+                assertEquals("Expected member's community", c, communities.community(u));
+            }
+        }
+        for (boolean s : seen) {
+            assertTrue("Expected every user in a community", s);
+        }
+    }
+}
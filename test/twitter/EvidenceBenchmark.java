@@ -0,0 +1,89 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for FollowsEvidence: the cost of tokenizing alone, of each
+ * evidence signal on top of it, and of all signals in one pass against one
+ * pass per signal. Not a unit test: run main() by hand with assertions
+ * disabled.
+ */
+public class EvidenceBenchmark {
+
+    private static final int TWEETS = 1_000_000;
+    private static final int HASHTAGS = 20_000;
+    private static final int MAX_AUTHORS = 50;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of tweets to generate
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : TWEETS;
+        List<Tweet> tweets = withHashtags(ExtractBenchmark.makeTweets(count), new Random(6005));
+        System.out.printf("%d tweets%n", count);
+
+        SocialNetworkBenchmark.measure("tokenize only", count,
+                () -> FollowsEvidence.guessFollowsGraph(tweets, Collections.emptyList(), 1));
+        SocialNetworkBenchmark.measure("mentions", count,
+                () -> FollowsEvidence.guessFollowsGraph(tweets, signals(0), 1));
+        SocialNetworkBenchmark.measure("replies", count,
+                () -> FollowsEvidence.guessFollowsGraph(tweets, signals(1), 1));
+        SocialNetworkBenchmark.measure("co-mentions", count,
+                () -> FollowsEvidence.guessFollowsGraph(tweets, signals(2), 1));
+        SocialNetworkBenchmark.measure("shared hashtags", count,
+                () -> FollowsEvidence.guessFollowsGraph(tweets, signals(3), 1));
+        SocialNetworkBenchmark.measure("all signals, one pass", count,
+                () -> FollowsEvidence.guessFollowsGraph(tweets, signals(0, 1, 2, 3), 1));
+        SocialNetworkBenchmark.measure("all signals, one pass per signal", count, () -> {
+            List<Object> graphs = new ArrayList<>();
+            for (int signal = 0; signal < 4; signal++) {
+                graphs.add(FollowsEvidence.guessFollowsGraph(tweets, signals(signal), 1));
+            }
+            return graphs;
+        });
+        SocialNetworkBenchmark.measure("FollowsGraphBuilder, for comparison", count,
+                () -> FollowsGraphBuilder.build(tweets));
+    }
+
+    /*
+     * @return new extractors for the given signals: 0 mentions, 1 replies,
+     *         2 co-mentions, 3 shared hashtags
+     */
+    private static List<EvidenceExtractor> signals(int... signals) {
+        List<EvidenceExtractor> extractors = new ArrayList<>();
+        for (int signal : signals) {
+            switch (signal) {
+            case 0:
+                extractors.add(EvidenceExtractor.mentions(1));
+                break;
+            case 1:
+                extractors.add(EvidenceExtractor.replies(1));
+                break;
+            case 2:
+                extractors.add(EvidenceExtractor.coMentions(0.5));
+                break;
+            default:
+                extractors.add(EvidenceExtractor.sharedHashtags(0.5, MAX_AUTHORS));
+            }
+        }
+        return extractors;
+    }
+
+    /*
+     * @return the tweets, each given a hashtag from a skewed vocabulary
+     */
+    private static List<Tweet> withHashtags(List<Tweet> tweets, Random random) {
+        List<Tweet> result = new ArrayList<>(tweets.size());
+        for (Tweet tweet : tweets) {
+            int topic = (int) (HASHTAGS * Math.pow(random.nextDouble(), 2));
+            result.add(new Tweet(tweet.getId(), tweet.getAuthor(), tweet.getText() + " #topic" + topic,
+                    tweet.getTimestamp()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark for Extract over a large synthetic list of tweets. Not a unit
+ * test: run main() by hand with assertions disabled.
+ */
+public class ExtractBenchmark {
+
+    private static final int TWEETS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private static final String[] WORDS = {
+        "rivest", "talk", "in", "30", "minutes", "#hype", "is", "it", "reasonable", "so", "much?",
+        "email", "bob@mit.edu", "(see", "this)", "-", "and", "the", "6.005", "ps1"
+    };
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of tweets to generate
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : TWEETS;
+        List<Tweet> tweets = makeTweets(count);
+        System.out.printf("%d tweets%n", count);
+        measure("getMentionedUsers (regex)", tweets, ExtractBenchmark::regexMentionedUsers);
+        Set<String> exact = measure("getMentionedUsers", tweets, Extract::getMentionedUsers);
+        measure("getHashtags", tweets, Extract::getHashtags);
+        measure("exact mention counts (HashMap)", tweets, ExtractBenchmark::exactMentionCounts);
+        TrendTracker trends = measure("TrendTracker, 1000 counters", tweets, all -> {
+            TrendTracker tracker = new TrendTracker();
+            tracker.addAll(all);
+            return tracker;
+        });
+        System.out.printf("  top mentions %s, top hashtags %s%n", trends.topMentions(5), trends.topHashtags(1));
+        HyperLogLog users = measure("getMentionedUsersSketch", tweets, Extract::getMentionedUsersSketch);
+        HyperLogLog sharded = measure("getMentionedUsersSketch, 16 shards", tweets,
+                ExtractBenchmark::shardedMentionedUsers);
+        System.out.printf("  %d mentioned users, estimated %d (%d sharded), standard error %.1f%%%n",
+                exact.size(), users.estimate(), sharded.estimate(), 100 * users.standardError());
+        HyperLogLog authors = measure("getAuthorsSketch", tweets, Extract::getAuthorsSketch);
+        System.out.printf("  %d authors, estimated %d%n",
+                tweets.stream().map(tweet -> tweet.getAuthor().toLowerCase()).distinct().count(), authors.estimate());
+        measure("getTimespan", tweets, Extract::getTimespan);
+        measure("getTimespanParallel", tweets, Extract::getTimespanParallel);
+        TimespanAccumulator accumulator = new TimespanAccumulator();
+        accumulator.addAll(tweets);
+        List<Tweet> refresh = tweets.subList(0, Math.min(1000, tweets.size()));
+        measure("TimespanAccumulator, 1000 new", refresh, newTweets -> {
+            accumulator.addAll(newTweets);
+            return accumulator.getTimespan();
+        });
+    }
+
+    /*
+     * Time an operation over the tweets.
+     */
+    static <T> T measure(String name, List<Tweet> tweets, Function<List<Tweet>, T> operation) {
+        T result = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            result = operation.apply(tweets);
+        }
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = TweetReaderBenchmark.allocatedBytes();
+            long start = System.nanoTime();
+            result = operation.apply(tweets);
+            nanos += System.nanoTime() - start;
+            bytes += TweetReaderBenchmark.allocatedBytes() - startBytes;
+        }
+        System.out.printf("%-34s %9.2f ms %8.1f ns/tweet %8.1f bytes/tweet%n", name,
+                nanos / 1e6 / ROUNDS, (double) nanos / ROUNDS / tweets.size(), (double) bytes / ROUNDS / tweets.size());
+        return result;
+    }
+
+    /*
+     * The regex-based getMentionedUsers that MentionScanner replaced, kept as
+     * a baseline.
+     */
+    static Set<String> regexMentionedUsers(List<Tweet> tweets) {
+        Set<String> mentionedUsers = new HashSet<>();
+        Pattern mentionPattern = Pattern.compile("(?<=^|\\s)@([A-Za-z0-9_]+)(?=\\s|$|\\p{Punct})");
+        for (Tweet tweet : tweets) {
+            Matcher matcher = mentionPattern.matcher(tweet.getText());
+            while (matcher.find()) {
+                mentionedUsers.add(matcher.group(1).toLowerCase());
+            }
+        }
+        return mentionedUsers;
+    }
+
+    /*
+     * Exact number of tweets mentioning each user, the unbounded baseline
+     * for TrendTracker.
+     */
+    static Map<String, Long> exactMentionCounts(List<Tweet> tweets) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Tweet tweet : tweets) {
+            for (String user : Extract.getMentionedUsers(Collections.singletonList(tweet))) {
+                counts.merge(user, 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /*
+     * Sketch the mentioned users of 16 shards in parallel and merge them, as
+     * separate machines would.
+     */
+    static HyperLogLog shardedMentionedUsers(List<Tweet> tweets) {
+        int shards = 16;
+        return IntStream.range(0, shards).parallel()
+                .mapToObj(i -> Extract.getMentionedUsersSketch(
+                        tweets.subList(i * tweets.size() / shards, (i + 1) * tweets.size() / shards)))
+                .reduce((a, b) -> {
+                    a.merge(b);
+                    return a;
+                }).get();
+    }
+
+    /*
+     * Make tweets from a Zipf-like population of users, a few seconds apart,
+     * each with about a dozen words and one or two mentions.
+     */
+    static List<Tweet> makeTweets(int count) {
+        Random random = new Random(6005);
+        int users = Math.max(count / 20, 1);
+        Instant time = Instant.parse("2016-02-17T10:00:00Z");
+        List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 8 + random.nextInt(8);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(' ');
+                }
+                if (random.nextInt(8) == 0) {
+                    text.append('@').append(user(random, users));
+                } else {
+                    text.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+            }
+            time = time.plusMillis(random.nextInt(4000));
+            tweets.add(new Tweet(i, user(random, users), text.toString(), time));
+        }
+        return tweets;
+    }
+
+    private static String user(Random random, int users) {
+        int rank = (int) Math.floor(Math.pow(users, random.nextDouble()));
+        return (rank % 3 == 0 ? "User" : "user") + rank;
+    }
+}
@@ -2,8 +2,10 @@ package twitter;
 
 import static org.junit.Assert.*;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Test;
 
@@ -90,4 +92,97 @@ public class ExtractTest {
         Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet4));
         assertEquals("expected one mention ignoring invalid formatting", new HashSet<>(Arrays.asList("alyssa")), mentionedUsers);
     }
+
+    // Test getMentionedUsers for usernames containing hyphens
+    @Test
+    public void testGetMentionedUsersHyphen() {
+        Tweet tweet = new Tweet(6, "alyssa", "thanks @ben-bitdiddle and @-_-", d1);
+        Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet));
+        assertEquals("expected whole usernames including hyphens", new HashSet<>(Arrays.asList("ben-bitdiddle", "-_-")), mentionedUsers);
+    }
+
+    // Test getMentionedUsers for mentions bounded by punctuation rather than spaces
+    @Test
+    public void testGetMentionedUsersPunctuation() {
+        Tweet tweet = new Tweet(7, "alyssa", "(@Bitdiddle) \"@alyssa\":@carl!", d1);
+        Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet));
+        assertEquals("expected mentions next to punctuation", new HashSet<>(Arrays.asList("bitdiddle", "alyssa", "carl")), mentionedUsers);
+    }
+
+    // Test getMentionedUsers for "@" preceded by a username character, or not followed by one
+    @Test
+    public void testGetMentionedUsersRejected() {
+        Tweet tweet = new Tweet(8, "alyssa", "a_@b x-@y @ @! @ok@no @@yes", d1);
+        Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet));
+        assertEquals("expected only valid mentions", new HashSet<>(Arrays.asList("ok", "yes")), mentionedUsers);
+    }
+
+    // Test getHashtags for no hashtags, repeats in different case, and several tweets
+    @Test
+    public void testGetHashtags() {
+        assertTrue("expected no hashtags", Extract.getHashtags(Arrays.asList(tweet1, tweet3)).isEmpty());
+        Tweet tweet = new Tweet(9, "alyssa", "#Hype and #HYPE again, #6005_ps1!", d1);
+        Set<String> hashtags = Extract.getHashtags(Arrays.asList(tweet, tweet2));
+        assertEquals("expected distinct lower-case hashtags", new HashSet<>(Arrays.asList("hype", "6005_ps1")), hashtags);
+    }
+
+    // Test getHashtags for "#" preceded by a username character, or not followed by a hashtag character
+    @Test
+    public void testGetHashtagsRejected() {
+        Tweet tweet = new Tweet(10, "alyssa", "a#b x-#y # #! #ok#no ##yes #dash-ed @user#tag", d1);
+        Set<String> hashtags = Extract.getHashtags(Arrays.asList(tweet));
+        assertEquals("expected only valid hashtags", new HashSet<>(Arrays.asList("ok", "yes", "dash")), hashtags);
+    }
+
+    // Test getTimespanParallel agrees with getTimespan on small and large lists
+    @Test
+    public void testGetTimespanParallel() {
+        assertNull("expected null timespan for empty list", Extract.getTimespanParallel(Arrays.asList()));
+        assertEquals("expected same timespan", Extract.getTimespan(Arrays.asList(tweet2, tweet3, tweet4)),
+                Extract.getTimespanParallel(Arrays.asList(tweet2, tweet3, tweet4)));
+
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            tweets.add(new Tweet(i, "alyssa", "tweet", d1.plusSeconds((i * 7919L) % 100003 - 50000)));
+        }
+        assertEquals("expected same timespan", Extract.getTimespan(tweets), Extract.getTimespanParallel(tweets));
+    }
+
+    // Test TimespanAccumulator when empty, adding tweets one at a time and in lists, and merging
+    @Test
+    public void testTimespanAccumulator() {
+        TimespanAccumulator accumulator = new TimespanAccumulator();
+        assertTrue("expected empty accumulator", accumulator.isEmpty());
+        assertNull("expected null timespan when empty", accumulator.getTimespan());
+
+        accumulator.add(tweet1);
+        assertEquals("expected single instant", new Timespan(d1, d1), accumulator.getTimespan());
+        accumulator.addAll(Arrays.asList(tweet2, tweet4));
+        assertEquals("expected widened timespan", new Timespan(d3, d2), accumulator.getTimespan());
+
+        TimespanAccumulator other = new TimespanAccumulator();
+        other.merge(new TimespanAccumulator());
+        assertTrue("expected merging empty to stay empty", other.isEmpty());
+        other.add(tweet3);
+        Instant later = Instant.parse("2016-02-18T00:00:00Z");
+        other.add(new Tweet(6, "alyssa", "later", later));
+        accumulator.merge(other);
+        assertEquals("expected merged timespan", new Timespan(d3, later), accumulator.getTimespan());
+        assertEquals("expected other unchanged", new Timespan(d1, later), other.getTimespan());
+    }
+
+    // Test the mentioned-user and author sketches count small lists exactly, ignoring case
+    @Test
+    public void testSketches() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5);
+        assertEquals("expected no mentions", 0, Extract.getMentionedUsersSketch(Arrays.asList()).estimate());
+        assertEquals("expected bitdiddle and alyssa", 2, Extract.getMentionedUsersSketch(tweets).estimate());
+        assertEquals("expected three authors", 3,
+                Extract.getAuthorsSketch(Arrays.asList(tweet1, tweet2, tweet5,
+                        new Tweet(6, "Alyssa", "shouting", d1))).estimate());
+
+        HyperLogLog shard = Extract.getMentionedUsersSketch(Arrays.asList(tweet3));
+        shard.merge(Extract.getMentionedUsersSketch(Arrays.asList(tweet4, tweet5)));
+        assertEquals("expected merged shards", 2, shard.estimate());
+    }
 }
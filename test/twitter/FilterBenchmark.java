@@ -0,0 +1,173 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark for Filter, TweetPredicate and TweetIndex over a large synthetic list of tweets.
+ * Not a unit test: run main() by hand with assertions disabled.
+ */
+public class FilterBenchmark {
+
+    private static final int TWEETS = 1_000_000;
+    private static final int QUERIES = 1000;
+    private static final int SCAN_QUERIES = 20;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of tweets to generate
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : TWEETS;
+        List<Tweet> tweets = ExtractBenchmark.makeTweets(count);
+        System.out.printf("%d tweets%n", count);
+        TweetIndex index = build("TweetIndex", count, () -> new TweetIndex(tweets));
+
+        Random random = new Random(6005);
+        List<String> authors = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            authors.add(tweets.get(random.nextInt(count)).getAuthor());
+        }
+        query("Filter.writtenBy", authors.subList(0, SCAN_QUERIES), author -> Filter.writtenBy(tweets, author));
+        query("TweetIndex.writtenBy", authors, index::writtenBy);
+
+        Timespan all = Extract.getTimespan(tweets);
+        List<Timespan> minutes = windows(all, QUERIES, 60, random);
+        List<Timespan> halves = windows(all, SCAN_QUERIES, (all.getEnd().getEpochSecond() - all.getStart().getEpochSecond()) / 2, random);
+        query("Filter.inTimespan, 1 minute", minutes.subList(0, SCAN_QUERIES), window -> Filter.inTimespan(tweets, window));
+        query("TweetIndex.inTimespan, 1 minute", minutes, index::inTimespan);
+        query("Filter.inTimespan, half", halves, window -> Filter.inTimespan(tweets, window));
+        query("TweetIndex.inTimespan, half", halves, index::inTimespan);
+
+        List<List<String>> keywords = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            keywords.add(Arrays.asList("#hype", "@" + tweets.get(random.nextInt(count)).getAuthor()));
+        }
+        query("Filter.containing", keywords.subList(0, SCAN_QUERIES), words -> Filter.containing(tweets, words));
+        query("TweetIndex.containing", keywords, index::containing);
+
+        // alerting-rule style combinations: a selective one led by an author,
+        // and a broad one over half the timespan that excludes an author
+        List<Integer> rules = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            rules.add(i);
+        }
+        List<String> topics = Arrays.asList("#hype", "#java", "rivest");
+        query("Filter chain, author+words+half", rules.subList(0, SCAN_QUERIES),
+                i -> Filter.containing(Filter.inTimespan(Filter.writtenBy(tweets, authors.get(i)), halves.get(i % SCAN_QUERIES)), topics));
+        query("TweetIndex.find, author+words+half", rules,
+                i -> index.find(TweetQuery.writtenBy(authors.get(i)).and(TweetQuery.containing(topics))
+                        .and(TweetQuery.inTimespan(halves.get(i % SCAN_QUERIES)))));
+        query("Filter chain, words+half-author", rules.subList(0, SCAN_QUERIES), i -> {
+            List<Tweet> result = Filter.containing(Filter.inTimespan(tweets, halves.get(i)), topics);
+            result.removeIf(tweet -> tweet.getAuthor().equalsIgnoreCase(authors.get(i)));
+            return result;
+        });
+        query("TweetIndex.find, words+half-author", rules.subList(0, SCAN_QUERIES),
+                i -> index.find(TweetQuery.containing(topics).and(TweetQuery.inTimespan(halves.get(i)))
+                        .andNot(TweetQuery.writtenBy(authors.get(i)))));
+
+        // the same rules without an index: chained Filter calls against one fused pass
+        query("Filter chain, author+minute+words", rules.subList(0, SCAN_QUERIES),
+                i -> Filter.containing(Filter.inTimespan(Filter.writtenBy(tweets, authors.get(i)), minutes.get(i)), topics));
+        query("TweetPredicate, author+minute+words", rules.subList(0, SCAN_QUERIES),
+                i -> TweetPredicate.all().writtenBy(authors.get(i)).inTimespan(minutes.get(i)).containing(topics).filter(tweets));
+        query("Filter chain, half+words", rules.subList(0, SCAN_QUERIES),
+                i -> Filter.containing(Filter.inTimespan(tweets, halves.get(i)), topics));
+        query("TweetPredicate, half+words", rules.subList(0, SCAN_QUERIES),
+                i -> TweetPredicate.all().inTimespan(halves.get(i)).containing(topics).filter(tweets));
+
+        // digest and tagger jobs: one call per user or topic against one batch scan
+        // topics are single mentions, since 1000 copies of every #hype tweet would not fit in memory
+        List<List<String>> mentions = new ArrayList<>();
+        Map<String, List<String>> topicWords = new HashMap<>();
+        for (int i = 0; i < QUERIES; i++) {
+            mentions.add(keywords.get(i).subList(1, 2));
+            topicWords.put("topic" + i, mentions.get(i));
+        }
+        batch("Filter.writtenBy, per user", authors.subList(0, SCAN_QUERIES), authors.size(),
+                () -> authors.subList(0, SCAN_QUERIES).stream().mapToInt(author -> Filter.writtenBy(tweets, author).size()).sum());
+        batch("Filter.writtenByEach", authors, authors.size(),
+                () -> Filter.writtenByEach(tweets, authors).values().stream().mapToInt(List::size).sum());
+        batch("Filter.containing, per topic", mentions.subList(0, SCAN_QUERIES), topicWords.size(),
+                () -> mentions.subList(0, SCAN_QUERIES).stream().mapToInt(words -> Filter.containing(tweets, words).size()).sum());
+        batch("Filter.containingByTopic", mentions, topicWords.size(),
+                () -> Filter.containingByTopic(tweets, topicWords).values().stream().mapToInt(List::size).sum());
+    }
+
+    /*
+     * Run a job answering some of a batch of queries, reporting its time
+     * scaled up to the whole batch.
+     */
+    static void batch(String name, List<?> answered, int total, IntSupplier job) {
+        job.getAsInt();
+        long start = System.nanoTime();
+        long results = job.getAsInt();
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-34s %12.1f ms/%d queries %10.1f tweets/query%n", name,
+                nanos / 1e6 * total / answered.size(), total, (double) results / answered.size());
+    }
+
+    /*
+     * @return random windows of the given length in seconds within a timespan
+     */
+    static List<Timespan> windows(Timespan within, int count, long seconds, Random random) {
+        long range = within.getEnd().getEpochSecond() - within.getStart().getEpochSecond() - seconds;
+        List<Timespan> windows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Instant start = within.getStart().plusSeconds((long) (random.nextDouble() * Math.max(range, 0)));
+            windows.add(new Timespan(start, start.plusSeconds(seconds)));
+        }
+        return windows;
+    }
+
+    /*
+     * Build an index, reporting build time and heap retained per tweet.
+     */
+    static <T> T build(String name, int count, Supplier<T> builder) {
+        for (int i = 0; i < 2; i++) {
+            builder.get();
+        }
+        long before = usedHeap();
+        long start = System.nanoTime();
+        T index = builder.get();
+        long nanos = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        System.out.printf("%-34s build %8.1f ms %8.1f bytes/tweet retained%n", name, nanos / 1e6, (double) retained / count);
+        return index;
+    }
+
+    /*
+     * Run a query for each argument, reporting mean latency and result size.
+     */
+    static <A> void query(String name, List<A> arguments, Function<A, List<Tweet>> query) {
+        for (A argument : arguments) {
+            query.apply(argument);
+        }
+        long results = 0;
+        long start = System.nanoTime();
+        for (A argument : arguments) {
+            results += query.apply(argument).size();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-34s %12.1f us/query %10.1f tweets/query%n", name,
+                nanos / 1e3 / arguments.size(), (double) results / arguments.size());
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -5,8 +5,10 @@ import static org.junit.Assert.*;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
@@ -40,8 +42,19 @@ public class FilterTest {
      * - Test with empty words list
      * - Test with empty tweets list
      * - Test with tweets containing punctuation
+     * - Test with words attached to punctuation, which are different words
      * - Test with duplicate words in words list
      * - Test with partial word matches
+     *
+     * writtenByEach():
+     * - Test with no usernames, usernames with and without tweets
+     * - Test with usernames differing only in case
+     * - Test agreement with writtenBy() for each username
+     *
+     * containingByTopic():
+     * - Test with no topics, a topic with no usable words
+     * - Test with topics sharing words, a tweet matching a topic twice
+     * - Test agreement with containing() for each topic
      */
 
     private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
@@ -226,13 +239,11 @@ public class FilterTest {
     public void testContainingSingleWord() {
         List<String> words = Arrays.asList("Java");
         List<Tweet> tweets = Arrays.asList(tweet1, tweet3, tweet4, tweet7, tweet8, tweet9);
-        List<Tweet> expected = Arrays.asList(tweet3, tweet4, tweet7, tweet8);
+        List<Tweet> expected = Arrays.asList(tweet4, tweet8);
         List<Tweet> result = Filter.containing(tweets, words);
 
-        assertEquals("Expected four tweets containing 'Java'", expected.size(), result.size());
-        assertTrue("Expected result to contain tweet3", result.contains(tweet3));
+        assertEquals("Expected two tweets containing the word 'Java'", expected.size(), result.size());
         assertTrue("Expected result to contain tweet4", result.contains(tweet4));
-        assertTrue("Expected result to contain tweet7", result.contains(tweet7));
         assertTrue("Expected result to contain tweet8", result.contains(tweet8));
     }
 
@@ -241,15 +252,13 @@ public class FilterTest {
     public void testContainingMultipleWords() {
         List<String> words = Arrays.asList("Java", "rivest");
         List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5, tweet7, tweet8, tweet9);
-        List<Tweet> expected = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet7, tweet8);
+        List<Tweet> expected = Arrays.asList(tweet1, tweet2, tweet4, tweet8);
         List<Tweet> result = Filter.containing(tweets, words);
 
-        assertEquals("Expected six tweets containing 'Java' or 'rivest'", expected.size(), result.size());
+        assertEquals("Expected four tweets containing 'Java' or 'rivest'", expected.size(), result.size());
         assertTrue("Expected result to contain tweet1", result.contains(tweet1));
         assertTrue("Expected result to contain tweet2", result.contains(tweet2));
-        assertTrue("Expected result to contain tweet3", result.contains(tweet3));
         assertTrue("Expected result to contain tweet4", result.contains(tweet4));
-        assertTrue("Expected result to contain tweet7", result.contains(tweet7));
         assertTrue("Expected result to contain tweet8", result.contains(tweet8));
     }
 
@@ -258,15 +267,13 @@ public class FilterTest {
     public void testContainingDifferentCases() {
         List<String> words = Arrays.asList("java", "RIVEST");
         List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5, tweet7, tweet8, tweet9);
-        List<Tweet> expected = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet7, tweet8);
+        List<Tweet> expected = Arrays.asList(tweet1, tweet2, tweet4, tweet8);
         List<Tweet> result = Filter.containing(tweets, words);
 
-        assertEquals("Expected six tweets containing 'java' or 'RIVEST' (case-insensitive)", expected.size(), result.size());
+        assertEquals("Expected four tweets containing 'java' or 'RIVEST' (case-insensitive)", expected.size(), result.size());
         assertTrue("Expected result to contain tweet1", result.contains(tweet1));
         assertTrue("Expected result to contain tweet2", result.contains(tweet2));
-        assertTrue("Expected result to contain tweet3", result.contains(tweet3));
         assertTrue("Expected result to contain tweet4", result.contains(tweet4));
-        assertTrue("Expected result to contain tweet7", result.contains(tweet7));
         assertTrue("Expected result to contain tweet8", result.contains(tweet8));
     }
 
@@ -316,15 +323,13 @@ public class FilterTest {
     public void testContainingDuplicateWords() {
         List<String> words = Arrays.asList("Java", "java", "Rivest", "RIVEST");
         List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5, tweet7, tweet8, tweet9);
-        List<Tweet> expected = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet7, tweet8);
+        List<Tweet> expected = Arrays.asList(tweet1, tweet2, tweet4, tweet8);
         List<Tweet> result = Filter.containing(tweets, words);
 
-        assertEquals("Expected six tweets containing 'Java' or 'Rivest' with duplicate words handled", expected.size(), result.size());
+        assertEquals("Expected four tweets containing 'Java' or 'Rivest' with duplicate words handled", expected.size(), result.size());
         assertTrue("Expected result to contain tweet1", result.contains(tweet1));
         assertTrue("Expected result to contain tweet2", result.contains(tweet2));
-        assertTrue("Expected result to contain tweet3", result.contains(tweet3));
         assertTrue("Expected result to contain tweet4", result.contains(tweet4));
-        assertTrue("Expected result to contain tweet7", result.contains(tweet7));
         assertTrue("Expected result to contain tweet8", result.contains(tweet8));
     }
 
@@ -347,13 +352,90 @@ public class FilterTest {
         List<String> words = Arrays.asList("java");
         Tweet tweetMultiple = new Tweet(13, "harry", "Java Java Java!", d1);
         List<Tweet> tweets = Arrays.asList(tweetMultiple, tweet3);
-        List<Tweet> expected = Arrays.asList(tweetMultiple, tweet3);
+        List<Tweet> expected = Arrays.asList(tweetMultiple);
         List<Tweet> result = Filter.containing(tweets, words);
 
-        assertEquals("Expected two tweets containing the word 'java' multiple times", expected.size(), result.size());
+        assertEquals("Expected one tweet containing the word 'java' multiple times", expected.size(), result.size());
         assertTrue("Expected result to contain tweetMultiple", result.contains(tweetMultiple));
-        assertTrue("Expected result to contain tweet3", result.contains(tweet3));
     }
 
+    // Test with words attached to punctuation, which are different words
+    @Test
+    public void testContainingWordsWithPunctuation() {
+        List<Tweet> tweets = Arrays.asList(tweet3, tweet6, tweet7);
+        assertTrue("Expected 'Java!' and 'Java.' not to match 'java'",
+                Filter.containing(tweets, Arrays.asList("java")).isEmpty());
+        assertEquals("Expected exact words with punctuation to match", Arrays.asList(tweet3, tweet7),
+                Filter.containing(tweets, Arrays.asList("JAVA!", "java.")));
+        assertEquals("Expected a whole dotted word to match", Arrays.asList(tweet6),
+                Filter.containing(tweets, Arrays.asList("eve.blog.com")));
+    }
+
+    // -------------------- Tests for writtenByEach() --------------------
+
+    // Test with several usernames, including case variants and non-authors
+    @Test
+    public void testWrittenByEach() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet5, tweet6);
+        Map<String, List<Tweet>> result = Filter.writtenByEach(tweets, Arrays.asList("alyssa", "ALYSSA", "eve", "zed"));
+        assertEquals("Expected one entry per username", 4, result.size());
+        assertEquals("Expected alyssa's tweets in order", Arrays.asList(tweet1, tweet3), result.get("alyssa"));
+        assertEquals("Expected same tweets for case variant", Arrays.asList(tweet1, tweet3), result.get("ALYSSA"));
+        assertNotSame("Expected distinct lists for case variants", result.get("alyssa"), result.get("ALYSSA"));
+        assertEquals("Expected Eve's tweet", Arrays.asList(tweet6), result.get("eve"));
+        assertTrue("Expected no tweets for non-author", result.get("zed").isEmpty());
+        assertTrue("Expected empty map for no usernames", Filter.writtenByEach(tweets, Collections.emptyList()).isEmpty());
+    }
+
+    // Test writtenByEach agrees with writtenBy on many users
+    @Test
+    public void testWrittenByEachMatchesWrittenBy() {
+        List<Tweet> tweets = TestTweets.random(6005, 5000);
+        Set<String> usernames = new HashSet<>();
+        for (Tweet tweet : tweets.subList(0, 300)) {
+            usernames.add(tweet.getAuthor());
+        }
+        Map<String, List<Tweet>> result = Filter.writtenByEach(tweets, usernames);
+        for (String username : usernames) {
+            assertEquals("Expected same tweets as writtenBy", Filter.writtenBy(tweets, username), result.get(username));
+        }
+    }
+
+    // -------------------- Tests for containingByTopic() --------------------
 
+    // Test with overlapping topics, a topic without words, and repeated words
+    @Test
+    public void testContainingByTopic() {
+        Tweet tweetMultiple = new Tweet(10, "ivan", "java JAVA talk", d1);
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet4, tweet8, tweetMultiple);
+        Map<String, List<String>> topics = new HashMap<>();
+        topics.put("java", Arrays.asList("Java", "java"));
+        topics.put("talks", Arrays.asList("talk", "rivest"));
+        topics.put("both", Arrays.asList("java", "talk"));
+        topics.put("blank", Arrays.asList(" "));
+        Map<String, List<Tweet>> result = Filter.containingByTopic(tweets, topics);
+        assertEquals("Expected one entry per topic", 4, result.size());
+        assertEquals("Expected java tweets once each", Arrays.asList(tweet4, tweet8, tweetMultiple), result.get("java"));
+        assertEquals("Expected talk tweets", Arrays.asList(tweet1, tweet2, tweetMultiple), result.get("talks"));
+        assertEquals("Expected union for shared words", Arrays.asList(tweet1, tweet2, tweet4, tweet8, tweetMultiple),
+                result.get("both"));
+        assertTrue("Expected no tweets for blank topic", result.get("blank").isEmpty());
+        assertTrue("Expected empty map for no topics", Filter.containingByTopic(tweets, Collections.emptyMap()).isEmpty());
+    }
+
+    // Test containingByTopic agrees with containing on many topics
+    @Test
+    public void testContainingByTopicMatchesContaining() {
+        List<Tweet> tweets = TestTweets.random(6005, 5000);
+        Map<String, List<String>> topics = new HashMap<>();
+        for (int t = 0; t < 200; t++) {
+            String[] words = tweets.get(t * 7).getText().split(" ");
+            topics.put("topic" + t, Arrays.asList(words[t % words.length].toUpperCase(), "@" + tweets.get(t).getAuthor()));
+        }
+        Map<String, List<Tweet>> result = Filter.containingByTopic(tweets, topics);
+        for (Map.Entry<String, List<String>> topic : topics.entrySet()) {
+            assertEquals("Expected same tweets as containing for " + topic.getValue(),
+                    Filter.containing(tweets, topic.getValue()), result.get(topic.getKey()));
+        }
+    }
 }
@@ -0,0 +1,180 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FollowsEvidenceTest {
+
+    /*
+     * Testing Strategy for FollowsEvidence, EvidenceExtractor, TweetTokens:
+     *
+     * TweetTokens:
+     * - mentions: none, repeated in different case, adjacent to "#" or other
+     *   username characters
+     * - hashtags: none, repeated, ending at "-" or punctuation, "#" preceded
+     *   by a username character, "#" with nothing after it
+     * - reply: text starting with a mention, with whitespace then a mention,
+     *   with "@" not followed by a username, mention not at the start
+     *
+     * guessFollowsGraph():
+     * - extractors: none, mentions only (compared against
+     *   FollowsGraphBuilder.build() on random tweets), each built-in signal,
+     *   several combined, a custom extractor
+     * - threshold: reached by one signal alone, only by signals combined,
+     *   not reached
+     * - self-evidence ignored
+     * - shared hashtags: used by fewer and by more authors than maxAuthors
+     * - invalid weights, thresholds and maxAuthors rejected
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test mentions, hashtags and replies found in one tweet
+    @Test
+    public void testTokens() {
+        MentionScanner scanner = new MentionScanner();
+        TweetTokens tokens = TweetTokens.of(
+                new Tweet(1, "Alyssa", "  @Bob #Java and @bob#x #java-8 a#b #, #Go! @carl", d1), scanner);
+        assertEquals("Expected author", "alyssa", tokens.getAuthor());
+        assertEquals("Expected distinct mentions", Arrays.asList("bob", "carl"), tokens.getMentions());
+        assertEquals("Expected distinct hashtags", Arrays.asList("java", "go"), tokens.getHashtags());
+        assertEquals("Expected reply", "bob", tokens.getReplyTo());
+
+        tokens = TweetTokens.of(new Tweet(2, "alyssa", "@ hi @bob", d1), scanner);
+        assertNull("Expected no reply without a username", tokens.getReplyTo());
+        assertEquals("Expected mention", Arrays.asList("bob"), tokens.getMentions());
+        tokens = TweetTokens.of(new Tweet(3, "alyssa", "hi @bob", d1), scanner);
+        assertNull("Expected no reply", tokens.getReplyTo());
+        assertEquals("Expected no hashtags", Collections.emptyList(), tokens.getHashtags());
+    }
+
+    // Test mention evidence alone matches guessFollowsGraph on random tweets
+    @Test
+    public void testMentionsMatchBuilder() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder("hi");
+            for (int m = random.nextInt(4); m > 0; m--) {
+                String user = "user" + random.nextInt(50);
+                text.append(random.nextBoolean() ? " @" : " #").append(random.nextBoolean() ? user : user.toUpperCase());
+            }
+            tweets.add(new Tweet(i, "user" + random.nextInt(50), text.toString(), d1));
+        }
+        assertEquals("Expected mention graph", FollowsGraphBuilder.build(tweets),
+                FollowsEvidence.guessFollowsGraph(tweets, Arrays.asList(EvidenceExtractor.mentions(1)), 1));
+        assertTrue("Expected no follows without extractors",
+                FollowsEvidence.guessFollowsGraph(tweets, Collections.emptyList(), 1).isEmpty());
+    }
+
+    // Test signals that only reach the threshold together
+    @Test
+    public void testCombinedSignals() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "@bob thanks, cc @carl #lab", d1),
+                new Tweet(2, "bob", "@alyssa", d1),
+                new Tweet(3, "carl", "#lab done", d1),
+                new Tweet(4, "dave", "#LAB too", d1));
+        List<EvidenceExtractor> extractors = Arrays.asList(
+                EvidenceExtractor.mentions(0.5),
+                EvidenceExtractor.replies(0.5),
+                EvidenceExtractor.coMentions(0.25),
+                EvidenceExtractor.sharedHashtags(0.5, 10));
+        Map<String, Set<String>> expected = new HashMap<>();
+        // mention + reply: alyssa -> bob, bob -> alyssa
+        // mention + shared hashtag: alyssa -> carl
+        expected.put("alyssa", new HashSet<>(Arrays.asList("bob", "carl")));
+        expected.put("bob", new HashSet<>(Arrays.asList("alyssa")));
+        assertEquals("Expected threshold 1", expected, FollowsEvidence.guessFollowsGraph(tweets, extractors, 1));
+
+        // shared hashtag alone: each pair of alyssa, carl, dave
+        // co-mention alone is too weak: bob, carl
+        Map<String, Set<String>> low = FollowsEvidence.guessFollowsGraph(tweets, Arrays.asList(
+                EvidenceExtractor.mentions(0.5),
+                EvidenceExtractor.replies(0.5),
+                EvidenceExtractor.coMentions(0.25),
+                EvidenceExtractor.sharedHashtags(0.5, 10)), 0.5);
+        expected.put("alyssa", new HashSet<>(Arrays.asList("bob", "carl", "dave")));
+        expected.put("carl", new HashSet<>(Arrays.asList("alyssa", "dave")));
+        expected.put("dave", new HashSet<>(Arrays.asList("alyssa", "carl")));
+        assertEquals("Expected threshold 0.5", expected, low);
+    }
+
+    // Test a hashtag used by too many authors is skipped
+    @Test
+    public void testSharedHashtagCap() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "a", "#big #small", d1),
+                new Tweet(2, "b", "#big #small", d1),
+                new Tweet(3, "c", "#big", d1),
+                new Tweet(4, "d", "#big", d1),
+                new Tweet(5, "c", "#BIG again", d1));
+        Map<String, Set<String>> expected = new HashMap<>();
+        expected.put("a", new HashSet<>(Arrays.asList("b")));
+        expected.put("b", new HashSet<>(Arrays.asList("a")));
+        assertEquals("Expected only #small", expected, FollowsEvidence.guessFollowsGraph(tweets,
+                Arrays.asList(EvidenceExtractor.sharedHashtags(1, 3)), 1));
+        assertEquals("Expected #big at the cap", 4, FollowsEvidence.guessFollowsGraph(tweets,
+                Arrays.asList(EvidenceExtractor.sharedHashtags(1, 4)), 1).size());
+    }
+
+    // Test a custom extractor, with self-evidence ignored
+    @Test
+    public void testCustomExtractor() {
+        List<Tweet> tweets = Arrays.asList(new Tweet(1, "Alyssa", "retweeting BOB", d1));
+        EvidenceExtractor retweets = (tweet, sink) -> {
+            String[] words = tweet.getTweet().getText().split(" ");
+            if (words[0].equals("retweeting")) {
+                sink.add(tweet.getAuthor(), words[1], 2);
+                sink.add("ALYSSA", "alyssa", 2);
+            }
+        };
+        Map<String, Set<String>> expected = new HashMap<>();
+        expected.put("alyssa", new HashSet<>(Arrays.asList("bob")));
+        assertEquals("Expected retweet follow", expected,
+                FollowsEvidence.guessFollowsGraph(tweets, Arrays.asList(retweets), 1));
+    }
+
+    // Test invalid weights, thresholds and caps are rejected
+    @Test
+    public void testInvalidArguments() {
+        for (double weight : new double[] { 0, -1, Double.NaN, Double.POSITIVE_INFINITY }) {
+            try {
+                EvidenceExtractor.mentions(weight);
+                fail("Expected weight " + weight + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                FollowsEvidence.guessFollowsGraph(Collections.emptyList(), Collections.emptyList(), weight);
+                fail("Expected threshold " + weight + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            EvidenceExtractor.sharedHashtags(1, 1);
+            fail("Expected maxAuthors 1 to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class FollowsGraphBuilderTest {
+
+    /*
+     * Testing Strategy for FollowsGraphBuilder:
+     *
+     * build():
+     * - tweets: none, fewer than one chunk, many chunks
+     * - chunk size: 1, a few tweets, larger than the list
+     * - pool: common pool, pools of 1 and several threads
+     * - authors and mentions differing in case across chunks
+     * - results compared against a sequential graph built with
+     *   Extract.getMentionedUsers(), including lower-case names and keys
+     *   only for users who follow somebody
+     * - the same username from different chunks is a single String
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test an empty list and a list with no follows
+    @Test
+    public void testNoFollows() {
+        assertTrue("Expected empty graph", FollowsGraphBuilder.build(Collections.emptyList()).isEmpty());
+        List<Tweet> tweets = Arrays.asList(new Tweet(1, "alyssa", "no mentions, just @alyssa", d1));
+        assertTrue("Expected no keys without follows", FollowsGraphBuilder.build(tweets).isEmpty());
+    }
+
+    // Test case folding and merging of one author's follows across chunks
+    @Test
+    public void testMergeAcrossChunks() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "Alyssa", "@BBitdiddle hi", d1),
+                new Tweet(2, "bbitdiddle", "@alyssa hi", d1),
+                new Tweet(3, "ALYSSA", "@carl @bbitdiddle", d1));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Map<String, Set<String>> graph = FollowsGraphBuilder.build(tweets, pool, 1);
+            Map<String, Set<String>> expected = new HashMap<>();
+            expected.put("alyssa", new HashSet<>(Arrays.asList("bbitdiddle", "carl")));
+            expected.put("bbitdiddle", new HashSet<>(Arrays.asList("alyssa")));
+            assertEquals("Expected merged lower-case graph", expected, graph);
+
+            String fromKey = null;
+            for (String key : graph.keySet()) {
+                if (key.equals("bbitdiddle")) {
+                    fromKey = key;
+                }
+            }
+            String fromSet = null;
+            for (String followed : graph.get("alyssa")) {
+                if (followed.equals("bbitdiddle")) {
+                    fromSet = followed;
+                }
+            }
+            assertSame("Expected one interned String per username", fromKey, fromSet);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Test parallel builds agree with a sequential reference for several chunk sizes and pools
+    @Test
+    public void testMatchesSequential() {
+        List<Tweet> tweets = TestTweets.random(6005, 20000);
+        Map<String, Set<String>> expected = sequentialGraph(tweets);
+        assertEquals("Expected same graph on common pool", expected, FollowsGraphBuilder.build(tweets));
+        for (int threads : new int[] { 1, 4 }) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int chunk : new int[] { 1, 7, 1000, 100000 }) {
+                    assertEquals("Expected same graph for " + threads + " threads, chunk " + chunk, expected,
+                            FollowsGraphBuilder.build(tweets, pool, chunk));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Test an invalid chunk size
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChunk() {
+        FollowsGraphBuilder.build(Collections.emptyList(), ForkJoinPool.commonPool(), 0);
+    }
+
+    /*
+     * @return follows graph built one tweet at a time from getMentionedUsers
+     */
+    private static Map<String, Set<String>> sequentialGraph(List<Tweet> tweets) {
+        Map<String, Set<String>> graph = new HashMap<>();
+        for (Tweet tweet : tweets) {
+            String author = tweet.getAuthor().toLowerCase();
+            for (String mention : Extract.getMentionedUsers(Arrays.asList(tweet))) {
+                if (!mention.equals(author)) {
+                    graph.computeIfAbsent(author, a -> new HashSet<>()).add(mention);
+                }
+            }
+        }
+        return graph;
+    }
+}
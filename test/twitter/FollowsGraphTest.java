@@ -0,0 +1,133 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FollowsGraphTest {
+
+    /*
+     * Testing Strategy for FollowsGraph:
+     *
+     * fromMap(), toMap():
+     * - map: empty, keys with empty sets, users only followed, users that
+     *   neither follow nor are followed
+     * - usernames differing only in case, as keys and as values
+     * - self-follows in the map
+     * - round trip through toMap() gives back an equal lower-case map
+     *
+     * fromTweets():
+     * - tweets: none, without mentions, repeated mentions, self-mentions
+     * - toMap() compared against FollowsGraphBuilder.build()
+     *
+     * id(), username(), follows(), followers(), counts, isFollowing():
+     * - users with no, one, several follows and followers
+     * - unknown usernames, usernames in a different case
+     * - returned arrays are copies
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test an empty network
+    @Test
+    public void testEmpty() {
+        FollowsGraph graph = FollowsGraph.fromMap(Collections.emptyMap());
+        assertEquals("Expected no users", 0, graph.size());
+        assertEquals("Expected no edges", 0, graph.edgeCount());
+        assertTrue("Expected empty map", graph.toMap().isEmpty());
+        assertEquals("Expected unknown user", -1, graph.id("alyssa"));
+        assertEquals("Expected no users from no tweets", 0, FollowsGraph.fromTweets(Collections.emptyList()).size());
+    }
+
+    // Test conversion from a map with mixed case, self-follows and isolated users
+    @Test
+    public void testFromMap() {
+        Map<String, Set<String>> map = new HashMap<>();
+        map.put("Alyssa", new HashSet<>(Arrays.asList("bbitdiddle", "CARL", "alyssa")));
+        map.put("ALYSSA", new HashSet<>(Arrays.asList("Diana")));
+        map.put("carl", new HashSet<>(Arrays.asList("Alyssa")));
+        map.put("erin", new HashSet<>());
+        FollowsGraph graph = FollowsGraph.fromMap(map);
+
+        assertEquals("Expected five users", 5, graph.size());
+        assertEquals("Expected four edges", 4, graph.edgeCount());
+        int alyssa = graph.id("aLySsA");
+        int carl = graph.id("carl");
+        assertEquals("Expected lower-case username", "alyssa", graph.username(alyssa));
+        assertEquals("Expected merged follows", 3, graph.followsCount(alyssa));
+        assertEquals("Expected one follower", 1, graph.followerCount(alyssa));
+        assertTrue("Expected alyssa follows carl", graph.isFollowing(alyssa, carl));
+        assertTrue("Expected carl follows alyssa", graph.isFollowing(carl, alyssa));
+        assertFalse("Expected no self-follow", graph.isFollowing(alyssa, alyssa));
+        assertArrayEquals("Expected carl's followers", new int[] { alyssa }, graph.followers(carl));
+        assertEquals("Expected erin isolated", 0, graph.followsCount(graph.id("erin")) + graph.followerCount(graph.id("erin")));
+
+        Map<String, Set<String>> expected = new HashMap<>();
+        expected.put("alyssa", new HashSet<>(Arrays.asList("bbitdiddle", "carl", "diana")));
+        expected.put("carl", new HashSet<>(Arrays.asList("alyssa")));
+        expected.put("erin", new HashSet<>());
+        assertEquals("Expected lower-case map without self-follows", expected, graph.toMap());
+        assertEquals("Expected round trip", expected, FollowsGraph.fromMap(expected).toMap());
+    }
+
+    // Test follows and followers are sorted copies
+    @Test
+    public void testAdjacencyArrays() {
+        Map<String, Set<String>> map = new HashMap<>();
+        map.put("a", new HashSet<>(Arrays.asList("d", "b", "c")));
+        map.put("b", new HashSet<>(Arrays.asList("c")));
+        map.put("d", new HashSet<>(Arrays.asList("c")));
+        FollowsGraph graph = FollowsGraph.fromMap(map);
+
+        int[] follows = graph.follows(graph.id("a"));
+        int[] sorted = follows.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals("Expected sorted follows", sorted, follows);
+        assertEquals("Expected three followers", 3, graph.followers(graph.id("c")).length);
+        follows[0] = -1;
+        assertEquals("Expected unchanged graph", sorted[0], graph.follows(graph.id("a"))[0]);
+        for (int u = 0; u < graph.size(); u++) {
+            for (int v : graph.followers(u)) {
+                assertTrue("Expected follower to follow", graph.isFollowing(v, u));
+            }
+        }
+    }
+
+    // Test building from tweets with repeated mentions and self-mentions
+    @Test
+    public void testFromTweets() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "Alyssa", "@bbitdiddle @BBitdiddle @alyssa", d1),
+                new Tweet(2, "carl", "no mentions", d1),
+                new Tweet(3, "bbitdiddle", "@Alyssa", d1));
+        FollowsGraph graph = FollowsGraph.fromTweets(tweets);
+        assertEquals("Expected users in edges only", 2, graph.size());
+        assertEquals("Expected two edges", 2, graph.edgeCount());
+        assertEquals("Expected same graph as builder", FollowsGraphBuilder.build(tweets), graph.toMap());
+    }
+
+    // Test building from many tweets agrees with the map-form builder
+    @Test
+    public void testFromTweetsMatchesBuilder() {
+        List<Tweet> tweets = TestTweets.random(6005, 20000);
+        Map<String, Set<String>> expected = FollowsGraphBuilder.build(tweets);
+        FollowsGraph graph = FollowsGraph.fromTweets(tweets);
+        assertEquals("Expected same graph as builder", expected, graph.toMap());
+        assertEquals("Expected same graph from map", expected, FollowsGraph.fromMap(expected).toMap());
+    }
+}
@@ -0,0 +1,128 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HeavyHittersTest {
+
+    /*
+     * Testing Strategy for HeavyHitters:
+     *
+     * add(), estimate(), guaranteed(), minCount():
+     * - fewer distinct items than counters (exact), more (approximate)
+     * - capacity: 1, several
+     * - skewed random streams compared against exact counts: guaranteed()
+     *   <= true count <= estimate() <= true count + total() / capacity(),
+     *   and every item occurring more than total() / capacity() times is
+     *   among the counted items
+     * - item never seen
+     *
+     * top():
+     * - k: 0, less than, more than the counters in use
+     * - equal counts ordered by item
+     *
+     * withError(), constructor:
+     * - capacity from epsilon, up to MAX_CAPACITY; invalid epsilon and
+     *   capacity rejected, including epsilon needing too many counters
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test exact counts while counters are free
+    @Test
+    public void testExact() {
+        HeavyHitters counter = new HeavyHitters(4);
+        assertEquals("Expected nothing", Collections.emptyList(), counter.top(3));
+        for (String item : Arrays.asList("b", "a", "b", "c", "a", "b")) {
+            counter.add(item);
+        }
+        assertEquals("Expected total", 6, counter.total());
+        assertEquals("Expected b counted", 3, counter.estimate("b"));
+        assertEquals("Expected exact count", 3, counter.guaranteed("b"));
+        assertEquals("Expected a before c", Arrays.asList("b", "a", "c"), counter.top(5));
+        assertEquals("Expected top 1", Arrays.asList("b"), counter.top(1));
+        assertEquals("Expected none", Collections.emptyList(), counter.top(0));
+        assertEquals("Expected no untracked count yet", 0, counter.minCount());
+        assertEquals("Expected unseen item", 0, counter.estimate("z"));
+    }
+
+    // Test a single counter takes over, with its inherited error
+    @Test
+    public void testTakeOver() {
+        HeavyHitters counter = new HeavyHitters(1);
+        counter.add("a");
+        counter.add("a");
+        counter.add("b");
+        assertEquals("Expected b to take over", Arrays.asList("b"), counter.top(1));
+        assertEquals("Expected overestimate", 3, counter.estimate("b"));
+        assertEquals("Expected lower bound", 1, counter.guaranteed("b"));
+        assertEquals("Expected a bounded by minCount", 3, counter.estimate("a"));
+        assertEquals("Expected nothing guaranteed for a", 0, counter.guaranteed("a"));
+    }
+
+    // Test skewed random streams against exact counts
+    @Test
+    public void testErrorBound() {
+        Random random = new Random(6005);
+        for (int capacity : new int[] { 5, 50, 200 }) {
+            HeavyHitters counter = new HeavyHitters(capacity);
+            Map<String, Long> exact = new HashMap<>();
+            for (int i = 0; i < 50000; i++) {
+                String item = "item" + (int) (5000 * Math.pow(random.nextDouble(), 4));
+                counter.add(item);
+                exact.merge(item, 1L, Long::sum);
+            }
+            long bound = counter.total() / capacity;
+            List<String> tracked = counter.top(capacity);
+            for (Map.Entry<String, Long> entry : exact.entrySet()) {
+                String item = entry.getKey();
+                long count = entry.getValue();
+                assertTrue("Expected lower bound", counter.guaranteed(item) <= count);
+                assertTrue("Expected upper bound", counter.estimate(item) >= count);
+                assertTrue("Expected error within n/m", counter.estimate(item) <= count + bound);
+                if (count > bound) {
+                    assertTrue("Expected heavy item tracked", tracked.contains(item));
+                }
+            }
+        }
+    }
+
+    // Test capacity from an error bound, and invalid arguments
+    @Test
+    public void testWithError() {
+        assertEquals("Expected 1/epsilon counters", 100, HeavyHitters.withError(0.01).capacity());
+        assertEquals("Expected rounding up", 3, HeavyHitters.withError(0.4).capacity());
+        assertEquals("Expected largest capacity", HeavyHitters.MAX_CAPACITY,
+                HeavyHitters.withError(1.0 / HeavyHitters.MAX_CAPACITY).capacity());
+        List<Runnable> invalid = new ArrayList<>();
+        invalid.add(() -> HeavyHitters.withError(1e-9));
+        invalid.add(() -> HeavyHitters.withError(Double.MIN_VALUE));
+        invalid.add(() -> new HeavyHitters(HeavyHitters.MAX_CAPACITY + 1));
+        invalid.add(() -> HeavyHitters.withError(0));
+        invalid.add(() -> HeavyHitters.withError(1.5));
+        invalid.add(() -> HeavyHitters.withError(Double.NaN));
+        invalid.add(() -> new HeavyHitters(0));
+        invalid.add(() -> new HeavyHitters(1).top(-1));
+        for (Runnable call : invalid) {
+            try {
+                call.run();
+                fail("Expected invalid argument to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
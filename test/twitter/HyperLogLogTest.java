@@ -0,0 +1,138 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+    /*
+     * Testing Strategy for HyperLogLog:
+     *
+     * add(), estimate():
+     * - distinct strings: 0, a few, far fewer than registers, many times the
+     *   number of registers
+     * - strings added more than once
+     * - precision: MIN_PRECISION, DEFAULT_PRECISION, MAX_PRECISION
+     * - estimates within 4 standard errors of the true count
+     * - counts of 2.5 to 3 times the number of registers, where a switch from
+     *   linear counting to the raw estimate would be biased; root mean
+     *   square error over many sketches within the documented error
+     *
+     * merge():
+     * - empty sketch, overlapping sketches; same estimate as one sketch of
+     *   the union
+     * - different precision rejected
+     *
+     * constructor, standardError():
+     * - precision below and above the allowed range rejected
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test small sets are counted exactly, whatever the repeats
+    @Test
+    public void testSmall() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals("Expected default precision", HyperLogLog.DEFAULT_PRECISION, sketch.precision());
+        assertEquals("Expected empty", 0, sketch.estimate());
+        for (String item : Arrays.asList("alyssa", "bob", "alyssa", "carl", "bob", "alyssa")) {
+            sketch.add(item);
+        }
+        assertEquals("Expected three", 3, sketch.estimate());
+        for (int i = 0; i < 100; i++) {
+            sketch.add("user" + i);
+            sketch.add("user" + i);
+        }
+        assertEquals("Expected 103", 103, sketch.estimate(), 2);
+    }
+
+    // Test large sets are estimated within the documented error, at each precision
+    @Test
+    public void testErrorBound() {
+        for (int precision : new int[] { HyperLogLog.MIN_PRECISION, HyperLogLog.DEFAULT_PRECISION,
+                HyperLogLog.MAX_PRECISION }) {
+            HyperLogLog sketch = new HyperLogLog(precision);
+            assertEquals("Expected 1.04 / sqrt(m)", 1.04 / Math.sqrt(1 << precision), sketch.standardError(), 1e-12);
+            int count = 0;
+            int m = 1 << precision;
+            int[] counts = { 1000, 20000, 300000, 5 * m / 2, 11 * m / 4, 3 * m };
+            Arrays.sort(counts);
+            for (int n : counts) {
+                for (; count < n; count++) {
+                    sketch.add("user" + count);
+                }
+                double error = Math.abs(sketch.estimate() - n) / (double) n;
+                assertTrue("Expected estimate of " + n + " within 4 standard errors at precision " + precision,
+                        error < 4 * sketch.standardError());
+            }
+        }
+    }
+
+    // Test counts of 2.5m to 3m are estimated within the documented error on average
+    @Test
+    public void testErrorAfterFewEmptyRegisters() {
+        int m = 1 << HyperLogLog.DEFAULT_PRECISION;
+        int sketches = 25;
+        for (int n : new int[] { 5 * m / 2, 11 * m / 4, 3 * m }) {
+            double squares = 0;
+            for (int s = 0; s < sketches; s++) {
+                HyperLogLog sketch = new HyperLogLog();
+                for (int i = 0; i < n; i++) {
+                    sketch.add("sketch" + s + "-user" + i);
+                }
+                double error = (sketch.estimate() - n) / (double) n;
+                squares += error * error;
+            }
+            double rootMeanSquare = Math.sqrt(squares / sketches);
+            assertTrue("Expected root mean square error " + rootMeanSquare + " of " + n
+                    + " within the standard error", rootMeanSquare < 1.2 * new HyperLogLog().standardError());
+        }
+    }
+
+    // Test merging shards gives the sketch of their union
+    @Test
+    public void testMerge() {
+        List<HyperLogLog> shards = Arrays.asList(new HyperLogLog(), new HyperLogLog(), new HyperLogLog());
+        HyperLogLog whole = new HyperLogLog();
+        for (int i = 0; i < 50000; i++) {
+            // shards overlap: each user is in one or two of them
+            shards.get(i % 3).add("user" + i / 2);
+            whole.add("user" + i / 2);
+        }
+        HyperLogLog merged = new HyperLogLog();
+        merged.merge(new HyperLogLog());
+        assertEquals("Expected merging empty to stay empty", 0, merged.estimate());
+        for (HyperLogLog shard : shards) {
+            merged.merge(shard);
+        }
+        assertEquals("Expected same estimate as the union", whole.estimate(), merged.estimate());
+        assertTrue("Expected shard unchanged", shards.get(0).estimate() < merged.estimate());
+    }
+
+    // Test invalid precisions are rejected
+    @Test
+    public void testInvalidPrecision() {
+        for (int precision : new int[] { HyperLogLog.MIN_PRECISION - 1, HyperLogLog.MAX_PRECISION + 1 }) {
+            try {
+                new HyperLogLog(precision);
+                fail("Expected precision " + precision + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            new HyperLogLog(10).merge(new HyperLogLog(11));
+            fail("Expected different precisions to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
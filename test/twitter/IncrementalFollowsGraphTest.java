@@ -0,0 +1,161 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class IncrementalFollowsGraphTest {
+
+    /*
+     * Testing Strategy for IncrementalFollowsGraph:
+     *
+     * addTweet(), addAll():
+     * - tweets: none, no mentions, self-mentions, repeated mentions, authors
+     *   and mentions differing in case
+     * - batches: one tweet at a time, batches of random size
+     * - results compared against FollowsGraphBuilder.build() and
+     *   FollowsGraph.fromTweets() over all tweets added so far
+     *
+     * topInfluencers():
+     * - leaderboard size: 1, larger than the number of users
+     * - users with equal follower counts ordered by username
+     * - a user overtaking the last user on the leaderboard
+     * - read while another thread adds tweets: every read is sorted and
+     *   never larger than the leaderboard
+     *
+     * constructor:
+     * - invalid leaderboard size rejected
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test an empty graph and tweets that give no follows
+    @Test
+    public void testNoFollows() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        assertEquals("Expected no influencers", Collections.emptyList(), graph.topInfluencers());
+        graph.addAll(Collections.emptyList());
+        graph.addTweet(new Tweet(1, "alyssa", "no mentions, just @Alyssa", d1));
+        assertEquals("Expected no users", 0, graph.size());
+        assertEquals("Expected no edges", 0, graph.edgeCount());
+        assertTrue("Expected empty map", graph.toMap().isEmpty());
+        assertEquals("Expected no influencers", Collections.emptyList(), graph.topInfluencers());
+    }
+
+    // Test case folding, repeated mentions and follower counts
+    @Test
+    public void testCaseAndRepeats() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.addTweet(new Tweet(1, "Alyssa", "@BBitdiddle @bbitdiddle", d1));
+        graph.addTweet(new Tweet(2, "ALYSSA", "again @bBitDiddle", d1));
+        graph.addTweet(new Tweet(3, "carl", "@BBITDIDDLE @alyssa", d1));
+        assertEquals("Expected three users", 3, graph.size());
+        assertEquals("Expected three edges", 3, graph.edgeCount());
+        assertEquals("Expected two followers", 2, graph.followerCount("BBitdiddle"));
+        assertEquals("Expected no followers", 0, graph.followerCount("carl"));
+        assertEquals("Expected unknown user has no followers", 0, graph.followerCount("nobody"));
+        assertEquals("Expected ranking", Arrays.asList("bbitdiddle", "alyssa", "carl"), graph.topInfluencers());
+    }
+
+    // Test a leaderboard of one, with ties and a user overtaking the leader
+    @Test
+    public void testOvertake() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph(1);
+        graph.addTweet(new Tweet(1, "x", "@bob", d1));
+        assertEquals("Expected bob", Arrays.asList("bob"), graph.topInfluencers());
+        graph.addTweet(new Tweet(2, "y", "@alice", d1));
+        assertEquals("Expected tie broken by username", Arrays.asList("alice"), graph.topInfluencers());
+        graph.addTweet(new Tweet(3, "z", "@bob", d1));
+        assertEquals("Expected bob to overtake", Arrays.asList("bob"), graph.topInfluencers());
+    }
+
+    // Test random batches against graphs rebuilt from every tweet so far
+    @Test
+    public void testMatchesRebuild() {
+        Random random = new Random(6005);
+        for (int size : new int[] { 1, 3, 50 }) {
+            List<Tweet> tweets = randomTweets(random, 2000, 40);
+            IncrementalFollowsGraph graph = new IncrementalFollowsGraph(size);
+            int added = 0;
+            while (added < tweets.size()) {
+                int end = Math.min(tweets.size(), added + random.nextInt(200));
+                if (end == added + 1) {
+                    graph.addTweet(tweets.get(added));
+                } else {
+                    graph.addAll(tweets.subList(added, end));
+                }
+                added = end;
+                List<Tweet> sofar = tweets.subList(0, added);
+                FollowsGraph expected = FollowsGraph.fromTweets(sofar);
+                assertEquals("Expected same follows", FollowsGraphBuilder.build(sofar), graph.toMap());
+                assertEquals("Expected same snapshot", expected.toMap(), graph.snapshot().toMap());
+                assertEquals("Expected same edge count", expected.edgeCount(), graph.edgeCount());
+                assertEquals("Expected same influencers", expected.influencers(size), graph.topInfluencers());
+            }
+        }
+    }
+
+    // Test reads while another thread adds tweets
+    @Test
+    public void testConcurrentReads() throws InterruptedException {
+        List<Tweet> tweets = randomTweets(new Random(6005), 20000, 200);
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph(5);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < tweets.size(); i += 100) {
+                    graph.addAll(tweets.subList(i, Math.min(tweets.size(), i + 100)));
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            List<String> top = graph.topInfluencers();
+            assertTrue("Expected at most 5 influencers", top.size() <= 5);
+            assertEquals("Expected distinct influencers", top.size(), top.stream().distinct().count());
+        }
+        writer.join();
+        assertNull("Expected writer to succeed", failure.get());
+        assertEquals("Expected final influencers", FollowsGraph.fromTweets(tweets).influencers(5),
+                graph.topInfluencers());
+    }
+
+    // Test an invalid leaderboard size is rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new IncrementalFollowsGraph(0);
+    }
+
+    /*
+     * @return tweets by random users among the given number, each mentioning
+     *         up to three random users, in random case
+     */
+    private static List<Tweet> randomTweets(Random random, int count, int users) {
+        List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder("hi");
+            for (int m = random.nextInt(4); m > 0; m--) {
+                String user = "user" + (int) (users * Math.pow(random.nextDouble(), 2));
+                text.append(" @").append(random.nextBoolean() ? user : user.toUpperCase());
+            }
+            tweets.add(new Tweet(i, "user" + random.nextInt(users), text.toString(), d1));
+        }
+        return tweets;
+    }
+}
@@ -0,0 +1,60 @@
+package twitter;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark for PageRank over a large synthetic follows graph with skewed
+ * follower counts. Not a unit test: run main() by hand with assertions
+ * disabled.
+ */
+public class PageRankBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int EDGES = 10_000_000;
+    private static final int FIXED_ITERATIONS = 20;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of users and number of edges to generate
+     */
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : USERS;
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : EDGES;
+        FollowsGraph graph = SocialNetworkBenchmark.measure("build graph", edges, "edge",
+                () -> randomGraph(users, edges, new Random(6005)));
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d users, %d edges, %d cores%n", graph.size(), graph.edgeCount(), cores);
+
+        for (int threads = 1; threads < 2 * cores; threads *= 2) {
+            int poolThreads = Math.min(threads, cores);
+            ForkJoinPool pool = new ForkJoinPool(poolThreads);
+            try {
+                SocialNetworkBenchmark.measure("PageRank, " + FIXED_ITERATIONS + " iterations, " + poolThreads + " threads",
+                        edges, "edge", () -> PageRank.scores(graph, PageRank.DEFAULT_DAMPING, 0, FIXED_ITERATIONS, pool));
+                SocialNetworkBenchmark.measure("PageRank, to tolerance, " + poolThreads + " threads", edges, "edge",
+                        () -> PageRank.scores(graph, PageRank.DEFAULT_DAMPING, PageRank.DEFAULT_TOLERANCE,
+                                PageRank.DEFAULT_MAX_ITERATIONS, pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        SocialNetworkBenchmark.measure("PageRank.influencers, top 10", edges, "edge", () -> PageRank.influencers(graph, 10));
+    }
+
+    /*
+     * @return graph whose followers pick followed users with a heavy skew
+     *         towards low ids, like the follower counts of real networks
+     */
+    static FollowsGraph randomGraph(int users, int edges, Random random) {
+        FollowsGraph.Builder builder = new FollowsGraph.Builder();
+        for (int u = 0; u < users; u++) {
+            builder.id("user" + u);
+        }
+        for (int e = 0; e < edges; e++) {
+            builder.addEdge(random.nextInt(users), (int) (users * Math.pow(random.nextDouble(), 3)));
+        }
+        return builder.build();
+    }
+}
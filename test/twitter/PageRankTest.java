@@ -0,0 +1,187 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PageRankTest {
+
+    /*
+     * Testing Strategy for PageRank:
+     *
+     * scores():
+     * - graph: empty, one user, a cycle, a star, users who follow nobody
+     *   (dangling), random graphs
+     * - iteration cap reached before the tolerance, tolerance reached first
+     * - pool: common pool, 1 thread, several threads
+     * - results compared against closed-form values and a sequential
+     *   reference; scores always sum to 1
+     * - invalid parameters rejected
+     *
+     * influencers(), SocialNetwork.influencersByPageRank():
+     * - users with equal scores ordered by username
+     * - a user followed by many users nobody follows, against one followed
+     *   by fewer but influential users
+     */
+
+    private static final double EPSILON = 1e-9;
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test an empty graph and a cycle, where every user has the same score
+    @Test
+    public void testEmptyAndCycle() {
+        assertEquals("Expected no scores", 0, PageRank.scores(FollowsGraph.fromMap(new HashMap<>())).length);
+
+        FollowsGraph cycle = graph("a", "b", "b", "c", "c", "a");
+        double[] scores = PageRank.scores(cycle);
+        for (double score : scores) {
+            assertEquals("Expected equal scores", 1.0 / 3, score, EPSILON);
+        }
+        assertEquals("Expected ties by username", Arrays.asList("a", "b", "c"), PageRank.influencers(cycle, 3));
+    }
+
+    // Test a user who follows nobody, against the closed-form solution
+    @Test
+    public void testDangling() {
+        FollowsGraph graph = graph("a", "b");
+        double[] scores = PageRank.scores(graph);
+        // r_a = 0.15/2 + 0.85 r_b/2 and r_a + r_b = 1
+        assertEquals("Expected a's score", 0.5 / 1.425, scores[graph.id("a")], EPSILON);
+        assertEquals("Expected b's score", 1 - 0.5 / 1.425, scores[graph.id("b")], EPSILON);
+    }
+
+    // Test the iteration cap stops after a single step from uniform scores
+    @Test
+    public void testIterationCap() {
+        FollowsGraph graph = graph("a", "c", "b", "c");
+        double[] scores = PageRank.scores(graph, 0.5, 0, 1, ForkJoinPool.commonPool());
+        // c dangles: base = (0.5 + 0.5 / 3) / 3, and c pulls 0.5 * (1/3 + 1/3)
+        double base = (0.5 + 0.5 / 3) / 3;
+        assertEquals("Expected a after one step", base, scores[graph.id("a")], EPSILON);
+        assertEquals("Expected c after one step", base + 0.5 * (2.0 / 3), scores[graph.id("c")], EPSILON);
+    }
+
+    // Test random graphs against a sequential reference, on several pools
+    @Test
+    public void testMatchesReference() {
+        Random random = new Random(6005);
+        for (int trial = 0; trial < 5; trial++) {
+            int users = 2 + random.nextInt(3000);
+            FollowsGraph.Builder builder = new FollowsGraph.Builder();
+            for (int u = 0; u < users; u++) {
+                builder.id("user" + u);
+            }
+            for (int e = random.nextInt(10 * users); e > 0; e--) {
+                builder.addEdge(random.nextInt(users), (int) (users * Math.pow(random.nextDouble(), 3)));
+            }
+            FollowsGraph graph = builder.build();
+            double[] expected = reference(graph, 0.85, 60);
+            for (int threads : new int[] { 1, 4 }) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    double[] scores = PageRank.scores(graph, 0.85, 0, 60, pool);
+                    double sum = 0;
+                    for (int u = 0; u < users; u++) {
+                        assertEquals("Expected reference score", expected[u], scores[u], 1e-12);
+                        sum += scores[u];
+                    }
+                    assertEquals("Expected scores to sum to 1", 1, sum, EPSILON);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    // Test followers who are followed count for more than throwaway followers
+    @Test
+    public void testSpamResistance() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            followsGraph.put("throwaway" + i, new HashSet<>(Arrays.asList("spammer")));
+        }
+        for (int i = 0; i < 3; i++) {
+            followsGraph.put("expert" + i, new HashSet<>(Arrays.asList("celebrity")));
+            for (int j = 0; j < 8; j++) {
+                followsGraph.computeIfAbsent("fan" + i + "_" + j, f -> new HashSet<>()).add("expert" + i);
+            }
+        }
+        List<String> byCount = SocialNetwork.influencers(followsGraph, 1);
+        List<String> byPageRank = SocialNetwork.influencersByPageRank(followsGraph);
+        assertEquals("Expected spammer to have most followers", Arrays.asList("spammer"), byCount);
+        assertEquals("Expected celebrity to rank first", "celebrity", byPageRank.get(0));
+        assertEquals("Expected every user", FollowsGraph.fromMap(followsGraph).size(), byPageRank.size());
+    }
+
+    // Test invalid parameters are rejected
+    @Test
+    public void testInvalidParameters() {
+        FollowsGraph graph = graph("a", "b");
+        for (double damping : new double[] { -0.1, 1, Double.NaN }) {
+            try {
+                PageRank.scores(graph, damping, 0, 1, ForkJoinPool.commonPool());
+                fail("Expected damping " + damping + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            PageRank.scores(graph, 0.85, 0, 0, ForkJoinPool.commonPool());
+            fail("Expected zero iterations to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /*
+     * @return graph with the given (follower, followed) pairs of usernames
+     */
+    private static FollowsGraph graph(String... pairs) {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            followsGraph.computeIfAbsent(pairs[i], u -> new HashSet<>()).add(pairs[i + 1]);
+        }
+        return FollowsGraph.fromMap(followsGraph);
+    }
+
+    /*
+     * Straightforward sequential power iteration, pushing score along follows.
+     */
+    private static double[] reference(FollowsGraph graph, double damping, int iterations) {
+        int n = graph.size();
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int i = 0; i < iterations; i++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                int[] follows = graph.follows(u);
+                if (follows.length == 0) {
+                    dangling += rank[u];
+                }
+                for (int v : follows) {
+                    next[v] += damping * rank[u] / follows.length;
+                }
+            }
+            for (int u = 0; u < n; u++) {
+                next[u] += (1 - damping + damping * dangling) / n;
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
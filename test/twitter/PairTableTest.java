@@ -0,0 +1,88 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PairTableTest {
+
+    /*
+     * Testing Strategy for PairTable:
+     *
+     * add(), get():
+     * - pair: missing, present; ints 0, large, equal, swapped
+     * - delta: positive, negative, bringing the value to 0 (removed), to 0
+     *   for a missing pair (not added)
+     * - enough pairs to grow the table several times
+     * - random adds and removals compared against a HashMap, with pairs
+     *   crowded into long probe runs
+     *
+     * size(), forEach():
+     * - every pair with a nonzero value visited once
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test adding to and removing single pairs
+    @Test
+    public void testAddAndRemove() {
+        PairTable table = new PairTable();
+        assertEquals("Expected missing pair", 0, table.get(1, 2));
+        assertEquals("Expected new value", 3, table.add(1, 2, 3));
+        assertEquals("Expected swapped pair missing", 0, table.get(2, 1));
+        assertEquals("Expected sum", 5, table.add(1, 2, 2));
+        assertEquals("Expected large ints", -7, table.add(Integer.MAX_VALUE, 0, -7));
+        assertEquals("Expected two pairs", 2, table.size());
+        assertEquals("Expected removal at 0", 0, table.add(1, 2, -5));
+        assertEquals("Expected pair gone", 0, table.get(1, 2));
+        assertEquals("Expected zero delta to add nothing", 0, table.add(3, 3, 0));
+        assertEquals("Expected one pair", 1, table.size());
+    }
+
+    // Test random adds and removals against a HashMap
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(6005);
+        for (int users : new int[] { 30, 3000 }) {
+            PairTable table = new PairTable();
+            Map<Long, Long> expected = new HashMap<>();
+            for (int op = 0; op < 200000; op++) {
+                int first = random.nextInt(users);
+                int second = random.nextInt(users);
+                long delta = random.nextInt(5) - 2;
+                long key = ((long) first << 32) | second;
+                long value = expected.getOrDefault(key, 0L) + delta;
+                if (value == 0) {
+                    expected.remove(key);
+                } else {
+                    expected.put(key, value);
+                }
+                assertEquals("Expected same value", value, table.add(first, second, delta));
+                if (op % 1000 == 0) {
+                    checkSame(expected, table);
+                }
+            }
+            checkSame(expected, table);
+        }
+    }
+
+    private static void checkSame(Map<Long, Long> expected, PairTable table) {
+        assertEquals("Expected same size", expected.size(), table.size());
+        Map<Long, Long> actual = new HashMap<>();
+        table.forEach((first, second, value) -> actual.put(((long) first << 32) | second, value));
+        assertEquals("Expected same entries", expected, actual);
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            long key = entry.getKey();
+            assertEquals("Expected get to agree", (long) entry.getValue(),
+                    table.get((int) (key >>> 32), (int) key));
+        }
+    }
+}
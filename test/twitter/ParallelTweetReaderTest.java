@@ -0,0 +1,124 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class ParallelTweetReaderTest {
+
+    /*
+     * Testing Strategy for ParallelTweetReader.readTweets():
+     *
+     * - number of tweets: 0, 1, many
+     * - chunk size: one tweet per chunk, several tweets per chunk, whole file in one chunk
+     * - text containing braces, brackets, escaped quotes and non-ASCII characters
+     * - result compared against the sequential TweetStreamReader on the same file
+     * - malformed files: empty, not an array, non-object element, missing comma,
+     *   trailing comma, truncated, content after the array
+     */
+
+    private static final String TRICKY_TEXT = "{\\\"not\\\": [\\\"a tweet\\\"]} \\\\ ]}, caf\u00e9 \u2603 @bitdiddle";
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test with an empty array
+    @Test
+    public void testReadTweetsEmpty() throws IOException {
+        assertTrue("Expected no tweets", read(" [ ] \n", 1).isEmpty());
+    }
+
+    // Test with one tweet
+    @Test
+    public void testReadTweetsOne() throws IOException {
+        List<Tweet> tweets = read("[" + tweet(1) + "]", ParallelTweetReader.DEFAULT_CHUNK_BYTES);
+        assertEquals("Expected one tweet", 1, tweets.size());
+        String unescaped = TRICKY_TEXT.replace("\\\\", "\\").replace("\\\"", "\"");
+        assertEquals("Expected unescaped text", unescaped + " 1", tweets.get(0).getText());
+    }
+
+    // Test with many tweets and chunk sizes from one tweet to the whole file
+    @Test
+    public void testReadTweetsMatchesSequential() throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "  " : ",\n  ").append(tweet(i));
+        }
+        json.append("\n]\n");
+        List<Tweet> expected = TweetStreamReader.readTweets(new StringReader(json.toString()));
+        for (int chunkBytes : new int[] { 1, 1000, 50000, Integer.MAX_VALUE }) {
+            TweetStreamReaderTest.assertTweets(expected, read(json.toString(), chunkBytes));
+        }
+    }
+
+    // Test with an empty file
+    @Test(expected = JsonException.class)
+    public void testReadTweetsEmptyFile() throws IOException {
+        read("", 1);
+    }
+
+    // Test with a top-level object
+    @Test(expected = JsonException.class)
+    public void testReadTweetsNotArray() throws IOException {
+        read(tweet(1), 1);
+    }
+
+    // Test with an element that is not an object
+    @Test(expected = JsonException.class)
+    public void testReadTweetsNonObject() throws IOException {
+        read("[" + tweet(1) + ", 2]", 1);
+    }
+
+    // Test with a missing comma between tweets
+    @Test(expected = JsonException.class)
+    public void testReadTweetsMissingComma() throws IOException {
+        read("[" + tweet(1) + tweet(2) + "]", 1);
+    }
+
+    // Test with a trailing comma
+    @Test(expected = JsonException.class)
+    public void testReadTweetsTrailingComma() throws IOException {
+        read("[" + tweet(1) + ",]", 1);
+    }
+
+    // Test with a truncated file
+    @Test(expected = JsonException.class)
+    public void testReadTweetsTruncated() throws IOException {
+        read("[" + tweet(1) + ", " + tweet(2), 1);
+    }
+
+    // Test with content after the array
+    @Test(expected = JsonException.class)
+    public void testReadTweetsTrailingContent() throws IOException {
+        read("[" + tweet(1) + "] []", 1);
+    }
+
+    private static String tweet(int id) {
+        return "{\"id\": " + id + ", \"user\": {\"screen_name\": \"user" + id % 7 + "\", \"tags\": [[], {}]},"
+                + " \"text\": \"" + TRICKY_TEXT + " " + id + "\","
+                + " \"created_at\": \"Wed Feb 17 10:00:" + String.format("%02d", id % 60) + " +0000 2016\"}";
+    }
+
+    private static List<Tweet> read(String json, int chunkBytes) throws IOException {
+        Path file = Files.createTempFile("tweets", ".json");
+        try {
+            Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+            return ParallelTweetReader.readTweets(file, ForkJoinPool.commonPool(), chunkBytes);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark for building follows graphs over a large synthetic list of tweets.
+ * Not a unit test: run main() by hand with assertions disabled.
+ */
+public class SocialNetworkBenchmark {
+
+    private static final int TWEETS = 2_000_000;
+    private static final int RUNS = 5;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of tweets to generate
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : TWEETS;
+        List<Tweet> tweets = ExtractBenchmark.makeTweets(count);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d tweets, %d cores%n", count, cores);
+
+        measure("sequential, per-tweet extract", count, () -> sequentialGraph(tweets));
+        for (int threads = 1; threads < 2 * cores; threads *= 2) {
+            int poolThreads = Math.min(threads, cores);
+            ForkJoinPool pool = new ForkJoinPool(poolThreads);
+            try {
+                measure("FollowsGraphBuilder, " + poolThreads + " threads", count,
+                        () -> FollowsGraphBuilder.build(tweets, pool, FollowsGraphBuilder.DEFAULT_CHUNK_TWEETS));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        FollowsGraph graph = measure("FollowsGraph.fromTweets", count, () -> FollowsGraph.fromTweets(tweets));
+        measure("FollowsGraph.toMap", count, graph::toMap);
+        measure("FollowsGraph.fromMap", count, () -> FollowsGraph.fromMap(graph.toMap()));
+        Map<String, Set<String>> map = graph.toMap();
+        measure("SocialNetwork.influencers, all", count, () -> SocialNetwork.influencers(map));
+        measure("SocialNetwork.influencers, top 10", count, () -> SocialNetwork.influencers(map, 10));
+        measure("FollowsGraph.influencers, top 10", count, () -> graph.influencers(10));
+        int edges = graph.edgeCount();
+        System.out.printf("%d users, %d edges%n", graph.size(), edges);
+        retained("Map<String, Set<String>>", edges, () -> FollowsGraphBuilder.build(tweets));
+        retained("FollowsGraph", edges, () -> FollowsGraph.fromTweets(tweets));
+
+        int batch = count / 100;
+        measure("full rebuild + top 10", count, () -> FollowsGraph.fromTweets(tweets).influencers(10));
+        refresh("IncrementalFollowsGraph, 1% refresh", tweets, batch);
+
+        measure("WindowedFollowsGraph, stream + top 10", count, () -> {
+            WindowedFollowsGraph window = new WindowedFollowsGraph();
+            window.addAll(tweets);
+            return window.influencers(10);
+        });
+        Instant end = tweets.get(count - 1).getTimestamp();
+        Instant start = end.minus(WindowedFollowsGraph.DEFAULT_WINDOW);
+        List<Tweet> lastDay = Filter.inTimespan(tweets, new Timespan(start, end));
+        measure("rebuild last 24 hours + top 10", lastDay.size(),
+                () -> FollowsGraph.fromTweets(lastDay).influencers(10));
+    }
+
+    /*
+     * Append all but the last 10 batches of tweets to an incremental graph,
+     * then append the last batches one at a time, reporting the best time
+     * to add a batch and read the leaderboard, per tweet of the whole list.
+     */
+    private static void refresh(String name, List<Tweet> tweets, int batch) {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        int start = tweets.size() - 10 * batch;
+        graph.addAll(tweets.subList(0, start));
+        long best = Long.MAX_VALUE;
+        for (int from = start; from + batch <= tweets.size(); from += batch) {
+            long begin = System.nanoTime();
+            graph.addAll(tweets.subList(from, from + batch));
+            graph.topInfluencers();
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        System.out.printf("%-40s %10.1f ms %8.1f ns/%s%n", name, best / 1e6, (double) best / tweets.size(), "tweet");
+    }
+
+    /*
+     * Build a graph, reporting the heap it retains per edge.
+     */
+    static <T> T retained(String name, int edges, Supplier<T> builder) {
+        long before = FilterBenchmark.usedHeap();
+        T graph = builder.get();
+        long retained = FilterBenchmark.usedHeap() - before;
+        System.out.printf("%-40s %8.1f bytes/edge retained%n", name, (double) retained / edges);
+        return graph;
+    }
+
+    /*
+     * Build a graph RUNS times after warming up, reporting the best time per tweet.
+     */
+    static <T> T measure(String name, int count, Supplier<T> builder) {
+        return measure(name, count, "tweet", builder);
+    }
+
+    /*
+     * Run a job RUNS times after warming up, reporting the best time per
+     * count units.
+     */
+    static <T> T measure(String name, int count, String unit, Supplier<T> builder) {
+        T result = builder.get();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            result = builder.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-40s %10.1f ms %8.1f ns/%s%n", name, best / 1e6, (double) best / count, unit);
+        return result;
+    }
+
+    /*
+     * The straightforward single-threaded graph, for comparison.
+     */
+    private static Map<String, Set<String>> sequentialGraph(List<Tweet> tweets) {
+        Map<String, Set<String>> graph = new HashMap<>();
+        for (Tweet tweet : tweets) {
+            String author = tweet.getAuthor().toLowerCase(Locale.ROOT);
+            for (String mention : Extract.getMentionedUsers(Arrays.asList(tweet))) {
+                if (!mention.equals(author)) {
+                    graph.computeIfAbsent(author, a -> new HashSet<>()).add(mention);
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -5,8 +5,12 @@ package twitter;
 
 import static org.junit.Assert.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -16,10 +20,27 @@ import org.junit.Test;
 public class SocialNetworkTest {
 
     /*
-     * TODO: your testing strategies for these methods should go here.
-     * See the ic03-testing exercise for examples of what a testing strategy comment looks like.
-     * Make sure you have partitions.
+     * Testing Strategy for SocialNetwork:
+     *
+     * guessFollowsGraph():
+     * - tweets: none, without mentions, with one or several mentions
+     * - mentions: of another user, of the author (self-mention), repeated,
+     *   differing in case from each other or from authors
+     * - mentions that getMentionedUsers() rejects, like email addresses
+     * - authors: one tweet, several tweets mentioning different users
+     * - every username in the graph is an author or a mention
+     *
+     * influencers():
+     * - graph: empty, one user, users only as keys or only as values
+     * - follower counts: all equal, all distinct
+     * - every username in the graph appears exactly once
+     *
+     * Results are compared case-insensitively, since usernames are not case
+     * sensitive and the spec doesn't fix the case of the returned names.
      */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
     
     @Test(expected=AssertionError.class)
     public void testAssertionsEnabled() {
@@ -33,6 +54,65 @@ public class SocialNetworkTest {
         assertTrue("expected empty graph", followsGraph.isEmpty());
     }
     
+    // Test tweets without any mentions
+    @Test
+    public void testGuessFollowsGraphNoMentions() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1),
+                new Tweet(2, "bbitdiddle", "mail me at bitdiddle@mit.edu", d2));
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+
+        for (Set<String> follows : followsGraph.values()) {
+            assertTrue("expected nobody followed", follows.isEmpty());
+        }
+    }
+
+    // Test mentions of other users, repeated and in different cases
+    @Test
+    public void testGuessFollowsGraphMentions() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "@bbitdiddle @Carl talk about rivest", d1),
+                new Tweet(2, "Alyssa", "@BBITDIDDLE again, and @carl.", d2),
+                new Tweet(3, "carl", "thanks @alyssa", d2));
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+
+        assertEquals("expected alyssa to follow two users", lowerCase(Arrays.asList("bbitdiddle", "carl")),
+                lowerCase(follows(followsGraph, "alyssa")));
+        assertEquals("expected carl to follow alyssa", lowerCase(Arrays.asList("alyssa")),
+                lowerCase(follows(followsGraph, "carl")));
+        assertTrue("expected bbitdiddle to follow nobody", follows(followsGraph, "bbitdiddle").isEmpty());
+    }
+
+    // Test self-mentions and mentions rejected by getMentionedUsers
+    @Test
+    public void testGuessFollowsGraphSelfAndInvalidMentions() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "note to @ALYSSA: mail bitdiddle@mit.edu", d1),
+                new Tweet(2, "carl", "@diana@erin and @-frank", d2));
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+
+        assertTrue("expected no self-follow", follows(followsGraph, "alyssa").isEmpty());
+        assertEquals("expected only valid mentions", lowerCase(Arrays.asList("diana", "-frank")),
+                lowerCase(follows(followsGraph, "carl")));
+    }
+
+    // Test every username in the graph is an author or a mention
+    @Test
+    public void testGuessFollowsGraphUsernames() {
+        List<Tweet> tweets = TestTweets.random(6005, 2000);
+        Set<String> allowed = lowerCase(Extract.getMentionedUsers(tweets));
+        for (Tweet tweet : tweets) {
+            allowed.add(tweet.getAuthor().toLowerCase());
+        }
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            assertTrue("expected author or mention", allowed.contains(entry.getKey().toLowerCase()));
+            assertTrue("expected no self-follow", !lowerCase(entry.getValue()).contains(entry.getKey().toLowerCase()));
+            assertTrue("expected authors or mentions", allowed.containsAll(lowerCase(entry.getValue())));
+        }
+    }
+
     @Test
     public void testInfluencersEmpty() {
         Map<String, Set<String>> followsGraph = new HashMap<>();
@@ -41,6 +121,35 @@ public class SocialNetworkTest {
         assertTrue("expected empty list", influencers.isEmpty());
     }
 
+    // Test users that only follow, only are followed, or neither
+    @Test
+    public void testInfluencersAllUsers() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("alyssa", new HashSet<>(Arrays.asList("bbitdiddle")));
+        followsGraph.put("carl", new HashSet<>());
+        List<String> influencers = SocialNetwork.influencers(followsGraph);
+
+        assertEquals("expected every user once", 3, influencers.size());
+        assertEquals("expected all users", lowerCase(Arrays.asList("alyssa", "bbitdiddle", "carl")), lowerCase(influencers));
+        assertEquals("expected most followed first", "bbitdiddle", influencers.get(0).toLowerCase());
+    }
+
+    // Test users with distinct follower counts
+    @Test
+    public void testInfluencersOrder() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("alyssa", new HashSet<>(Arrays.asList("bbitdiddle", "carl", "diana")));
+        followsGraph.put("bbitdiddle", new HashSet<>(Arrays.asList("carl", "diana")));
+        followsGraph.put("carl", new HashSet<>(Arrays.asList("diana")));
+        List<String> influencers = SocialNetwork.influencers(followsGraph);
+
+        List<String> lowered = new ArrayList<>();
+        for (String username : influencers) {
+            lowered.add(username.toLowerCase());
+        }
+        assertEquals("expected descending follower count", Arrays.asList("diana", "carl", "bbitdiddle", "alyssa"), lowered);
+    }
+
     /*
      * Warning: all the tests you write here must be runnable against any
      * SocialNetwork class that follows the spec. It will be run against several
@@ -55,4 +164,25 @@ public class SocialNetworkTest {
      * class, then keep them in this test class.
      */
 
+    /*
+     * @return the users that username follows in followsGraph, matching
+     *         username case-insensitively
+     */
+    private static Set<String> follows(Map<String, Set<String>> followsGraph, String username) {
+        Set<String> follows = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(username)) {
+                follows.addAll(entry.getValue());
+            }
+        }
+        return follows;
+    }
+
+    private static Set<String> lowerCase(Collection<String> usernames) {
+        Set<String> lowered = new HashSet<>();
+        for (String username : usernames) {
+            lowered.add(username.toLowerCase());
+        }
+        return lowered;
+    }
 }
@@ -0,0 +1,66 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random tweet fixtures for tests that compare an implementation against a
+ * simpler oracle on more tweets than are practical to write out by hand.
+ *
+ * Kept apart from the benchmarks' generators so that tuning a benchmark never
+ * changes what a test checks.
+ */
+class TestTweets {
+
+    private static final String[] WORDS = {
+        "rivest", "talk", "in", "30", "minutes", "#hype", "is", "it", "reasonable", "so", "much?",
+        "email", "bob@mit.edu", "(see", "this)", "-", "and", "the", "6.005", "ps1"
+    };
+
+    private TestTweets() {
+    }
+
+    /**
+     * Make random tweets. Authors and mentions are drawn from a skewed
+     * population of count / 20 users, with the same user sometimes written
+     * "User" and sometimes "user". Each tweet has 8 to 15 words, about one in
+     * eight of them a mention; ids are 0 to count - 1 and timestamps increase
+     * by up to 4 seconds from 2016-02-17T10:00:00Z.
+     *
+     * @param seed
+     *            seed for the random choices; equal seeds give equal tweets
+     * @param count
+     *            number of tweets, count >= 0
+     * @return new list of count tweets, in increasing order of id
+     */
+    static List<Tweet> random(long seed, int count) {
+        Random random = new Random(seed);
+        int users = Math.max(count / 20, 1);
+        Instant time = Instant.parse("2016-02-17T10:00:00Z");
+        List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 8 + random.nextInt(8);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(' ');
+                }
+                if (random.nextInt(8) == 0) {
+                    text.append('@').append(user(random, users));
+                } else {
+                    text.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+            }
+            time = time.plusMillis(random.nextInt(4000));
+            tweets.add(new Tweet(i, user(random, users), text.toString(), time));
+        }
+        return tweets;
+    }
+
+    private static String user(Random random, int users) {
+        int rank = (int) Math.floor(Math.pow(users, random.nextDouble()));
+        return (rank % 3 == 0 ? "User" : "user") + rank;
+    }
+}
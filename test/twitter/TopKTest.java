@@ -0,0 +1,122 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TopKTest {
+
+    /*
+     * Testing Strategy for TopK and the top-k influencer methods:
+     *
+     * TopK.select():
+     * - n: 0, 1, many; k: 0, 1, less than n, equal to n, more than n
+     * - results compared against a full sort
+     *
+     * SocialNetwork.influencers(graph, k), FollowsGraph.influencers(k):
+     * - follower counts with ties, broken by ascending username
+     * - usernames differing in case from each other
+     * - more users who follow nobody than the initial count array holds
+     * - k: 0, less than the number of users, more than it
+     * - k < 0 rejected
+     * - results compared against a prefix of SocialNetwork.influencers(graph)
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test selection agrees with sorting for many n and k
+    @Test
+    public void testSelectMatchesSort() {
+        Random random = new Random(6005);
+        for (int n : new int[] { 0, 1, 2, 10, 1000 }) {
+            int[] scores = new int[n];
+            for (int i = 0; i < n; i++) {
+                scores[i] = random.nextInt(20);
+            }
+            List<Integer> sorted = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                sorted.add(i);
+            }
+            Comparator<Integer> order = Comparator.comparing((Integer i) -> -scores[i]).thenComparing(i -> i);
+            Collections.sort(sorted, order);
+            for (int k : new int[] { 0, 1, 5, n, n + 3 }) {
+                int[] top = TopK.select(n, k, (a, b) -> scores[a] != scores[b] ? scores[a] > scores[b] : a < b);
+                int[] expected = new int[Math.min(n, k)];
+                for (int i = 0; i < expected.length; i++) {
+                    expected[i] = sorted.get(i);
+                }
+                assertArrayEquals("Expected first " + k + " of " + n, expected, top);
+            }
+        }
+    }
+
+    // Test ties are broken by username, and mixed case merges users
+    @Test
+    public void testInfluencersTies() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("Erin", new HashSet<>(Arrays.asList("carl", "bbitdiddle", "Diana")));
+        followsGraph.put("frank", new HashSet<>(Arrays.asList("CARL", "alyssa", "diana")));
+        followsGraph.put("gina", new HashSet<>(Arrays.asList("bbitdiddle")));
+        List<String> expected = Arrays.asList("bbitdiddle", "carl", "diana", "alyssa", "erin", "frank", "gina");
+
+        assertEquals("Expected all users, ties by username", expected, SocialNetwork.influencers(followsGraph));
+        assertEquals("Expected first three", expected.subList(0, 3), SocialNetwork.influencers(followsGraph, 3));
+        assertEquals("Expected all for large k", expected, SocialNetwork.influencers(followsGraph, 100));
+        assertTrue("Expected none for k = 0", SocialNetwork.influencers(followsGraph, 0).isEmpty());
+        assertEquals("Expected same from FollowsGraph", expected.subList(0, 4),
+                FollowsGraph.fromMap(followsGraph).influencers(4));
+    }
+
+    // Test many users who follow nobody, then a newly followed user
+    @Test
+    public void testInfluencersManyUsersFollowingNobody() {
+        Map<String, Set<String>> followsGraph = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            followsGraph.put("loner" + i, new HashSet<>());
+        }
+        followsGraph.put("alyssa", new HashSet<>(Arrays.asList("newcomer")));
+        assertEquals("Expected newcomer first", Arrays.asList("newcomer", "alyssa"),
+                SocialNetwork.influencers(followsGraph, 2));
+        assertEquals("Expected every user", 42, SocialNetwork.influencers(followsGraph).size());
+    }
+
+    // Test top-k agrees with a prefix of the full ranking on a large graph
+    @Test
+    public void testInfluencersMatchFullRanking() {
+        Map<String, Set<String>> followsGraph = FollowsGraphBuilder.build(TestTweets.random(6005, 20000));
+        List<String> all = SocialNetwork.influencers(followsGraph);
+        FollowsGraph graph = FollowsGraph.fromMap(followsGraph);
+        assertEquals("Expected every user", graph.size(), all.size());
+        for (int i = 1; i < all.size(); i++) {
+            int previous = graph.followerCount(graph.id(all.get(i - 1)));
+            int current = graph.followerCount(graph.id(all.get(i)));
+            assertTrue("Expected descending follower counts", previous >= current);
+        }
+        for (int k : new int[] { 1, 10, 100 }) {
+            assertEquals("Expected prefix for k = " + k, all.subList(0, k), SocialNetwork.influencers(followsGraph, k));
+            assertEquals("Expected same from FollowsGraph for k = " + k, all.subList(0, k), graph.influencers(k));
+        }
+    }
+
+    // Test negative k is rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfluencersNegativeK() {
+        SocialNetwork.influencers(new HashMap<>(), -1);
+    }
+}
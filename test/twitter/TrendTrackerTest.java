@@ -0,0 +1,66 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TrendTrackerTest {
+
+    /*
+     * Testing Strategy for TrendTracker:
+     *
+     * addTweet(), addAll():
+     * - tweets: none, with neither hashtags nor mentions, repeating a
+     *   hashtag or mention in different case, with both
+     * - counts compared against Extract.getHashtags() and
+     *   Extract.getMentionedUsers() per tweet
+     * - more distinct hashtags than counters
+     *
+     * topHashtags(), topMentions(), hashtagCount(), mentionCount():
+     * - lookups in any case
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test counts once per tweet, in any case
+    @Test
+    public void testCounts() {
+        TrendTracker tracker = new TrendTracker();
+        assertEquals("Expected no tweets", 0, tracker.tweets());
+        tracker.addAll(Arrays.asList(
+                new Tweet(1, "alyssa", "#Hype #hype @Bob @bob", d1),
+                new Tweet(2, "bob", "#hype @carl #6005", d1),
+                new Tweet(3, "carl", "nothing to see", d1),
+                new Tweet(4, "dave", "@CARL bob@mit.edu a#b", d1)));
+        assertEquals("Expected four tweets", 4, tracker.tweets());
+        assertEquals("Expected hype twice", 2, tracker.hashtagCount("HYPE"));
+        assertEquals("Expected carl twice", 2, tracker.mentionCount("Carl"));
+        assertEquals("Expected bob once", 1, tracker.mentionCount("bob"));
+        assertEquals("Expected no mit", 0, tracker.mentionCount("mit"));
+        assertEquals("Expected hashtag ranking", Arrays.asList("hype", "6005"), tracker.topHashtags(5));
+        assertEquals("Expected mention ranking", Arrays.asList("carl", "bob"), tracker.topMentions(5));
+    }
+
+    // Test a trending hashtag stays on top with more hashtags than counters
+    @Test
+    public void testBoundedMemory() {
+        TrendTracker tracker = new TrendTracker(10);
+        for (int i = 0; i < 1000; i++) {
+            String text = i % 3 == 0 ? "#trend @star" : "#tag" + i + " @user" + i;
+            tracker.addTweet(new Tweet(i, "alyssa", text, d1));
+        }
+        assertEquals("Expected trend on top", "trend", tracker.topHashtags(1).get(0));
+        assertEquals("Expected star on top", "star", tracker.topMentions(1).get(0));
+        assertTrue("Expected estimate within n/m", tracker.hashtagCount("trend") <= 334 + 1000 / 10);
+        assertTrue("Expected estimate at least the true count", tracker.hashtagCount("trend") >= 334);
+    }
+}
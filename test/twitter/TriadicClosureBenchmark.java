@@ -0,0 +1,45 @@
+package twitter;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark for TriadicClosure over a large synthetic follows graph with
+ * skewed follower counts. Not a unit test: run main() by hand with assertions
+ * disabled.
+ */
+public class TriadicClosureBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int EDGES = 10_000_000;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of users and number of edges to generate
+     */
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : USERS;
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : EDGES;
+        FollowsGraph graph = PageRankBenchmark.randomGraph(users, edges, new Random(6005));
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d users, %d edges, %d cores%n", graph.size(), graph.edgeCount(), cores);
+
+        for (int minCommon : new int[] { 2, 3 }) {
+            for (int threads = 1; threads < 2 * cores; threads *= 2) {
+                int poolThreads = Math.min(threads, cores);
+                ForkJoinPool pool = new ForkJoinPool(poolThreads);
+                try {
+                    long start = System.nanoTime();
+                    FollowsGraph closed = TriadicClosure.close(graph, minCommon, pool);
+                    long nanos = System.nanoTime() - start;
+                    System.out.printf("%-40s %10.1f s %8d inferred edges%n",
+                            "minCommon " + minCommon + ", " + poolThreads + " threads", nanos / 1e9,
+                            closed.edgeCount() - graph.edgeCount());
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class TriadicClosureTest {
+
+    /*
+     * Testing Strategy for TriadicClosure, SocialNetwork.closeTriads():
+     *
+     * countCommon():
+     * - ranges: empty, disjoint, equal, one inside the other, offsets into
+     *   larger arrays
+     * - length ratio: below the galloping threshold, above it either way
+     * - common ids at the first and last positions
+     * - counts: incremented only at common ids, added to existing counts
+     * - compared against a brute-force count on random sorted ranges
+     *
+     * close():
+     * - graph: empty, a path, a hub followed by and following many users,
+     *   random graphs with skewed degrees
+     * - minCommon: 1, 2, 3, more than any user follows
+     * - pairs already followed, and A == C, never duplicated or added
+     * - pool: 1 thread, several threads
+     * - compared against a brute-force reference over all pairs
+     * - invalid minCommon rejected
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test small intersections, merging and galloping, and the counts
+    @Test
+    public void testIntersectionSize() {
+        int[] a = { 9, 1, 3, 5, 9 };
+        int[] b = { 0, 1, 2, 3, 4, 5 };
+        assertEquals("Expected empty", 0, size(a, 1, 1, b, 0, 6));
+        assertEquals("Expected 1, 3, 5", 3, size(a, 1, 4, b, 0, 6));
+        assertEquals("Expected symmetric", 3, size(b, 0, 6, a, 1, 4));
+        assertEquals("Expected offsets respected", 1, size(a, 1, 4, b, 0, 2));
+
+        int[] longer = new int[1000];
+        for (int i = 0; i < longer.length; i++) {
+            longer[i] = 2 * i;
+        }
+        int[] ends = { 0, 1, 999, 1998 };
+        assertEquals("Expected first and last", 2, size(ends, 0, 4, longer, 0, 1000));
+        assertEquals("Expected beyond the end", 0, size(new int[] { 5000 }, 0, 1, longer, 0, 1000));
+        assertEquals("Expected galloping through the first range", 2, size(longer, 0, 1000, ends, 0, 4));
+
+        int[] counts = { 5, 0, 0, 0 };
+        TriadicClosure.countCommon(ends, 0, 4, longer, 0, 1000, counts);
+        assertArrayEquals("Expected counts for 0 and 1998", new int[] { 6, 0, 0, 1 }, counts);
+        counts = new int[1000];
+        TriadicClosure.countCommon(longer, 0, 1000, ends, 0, 4, counts);
+        assertEquals("Expected count for 0", 1, counts[0]);
+        assertEquals("Expected count for 1998", 1, counts[999]);
+    }
+
+    // Test random intersections against a brute-force count
+    @Test
+    public void testIntersectionMatchesBruteForce() {
+        Random random = new Random(6005);
+        for (int trial = 0; trial < 500; trial++) {
+            int[] a = sortedSample(random, random.nextInt(50), 2000);
+            int[] b = sortedSample(random, random.nextInt(trial % 2 == 0 ? 50 : 1500), 2000);
+            Set<Integer> common = new HashSet<>();
+            for (int x : a) {
+                common.add(x);
+            }
+            Set<Integer> inB = new HashSet<>();
+            for (int x : b) {
+                inB.add(x);
+            }
+            common.retainAll(inB);
+            assertEquals("Expected brute-force count", common.size(),
+                    size(a, 0, a.length, b, 0, b.length));
+        }
+    }
+
+    // Test a path and a pair already followed
+    @Test
+    public void testSmallGraphs() {
+        assertEquals("Expected empty graph", 0,
+                TriadicClosure.close(FollowsGraph.fromMap(new HashMap<>())).size());
+
+        Map<String, Set<String>> path = new HashMap<>();
+        path.put("a", new HashSet<>(Arrays.asList("b")));
+        path.put("b", new HashSet<>(Arrays.asList("c")));
+        Map<String, Set<String>> closed = SocialNetwork.closeTriads(path, 1);
+        assertEquals("Expected a to follow c", new HashSet<>(Arrays.asList("b", "c")), closed.get("a"));
+        assertEquals("Expected nothing new at 2", FollowsGraph.fromMap(path).toMap(),
+                SocialNetwork.closeTriads(path, 2));
+
+        // a follows b1, b2, c; both b follow c and a
+        Map<String, Set<String>> followed = new HashMap<>();
+        followed.put("a", new HashSet<>(Arrays.asList("b1", "b2", "c")));
+        followed.put("b1", new HashSet<>(Arrays.asList("c", "a")));
+        followed.put("b2", new HashSet<>(Arrays.asList("c", "a")));
+        FollowsGraph graph = TriadicClosure.close(FollowsGraph.fromMap(followed), 2, ForkJoinPool.commonPool());
+        assertEquals("Expected no new edges", FollowsGraph.fromMap(followed).edgeCount(), graph.edgeCount());
+    }
+
+    // Test random graphs with hubs against a brute-force reference
+    @Test
+    public void testMatchesReference() {
+        Random random = new Random(6005);
+        for (int trial = 0; trial < 4; trial++) {
+            int users = 50 + random.nextInt(400);
+            FollowsGraph.Builder builder = new FollowsGraph.Builder();
+            for (int u = 0; u < users; u++) {
+                builder.id("user" + u);
+            }
+            for (int e = random.nextInt(8 * users); e > 0; e--) {
+                int follower = (int) (users * Math.pow(random.nextDouble(), trial % 2 == 0 ? 1 : 3));
+                builder.addEdge(follower, (int) (users * Math.pow(random.nextDouble(), 3)));
+            }
+            FollowsGraph graph = builder.build();
+            for (int minCommon : new int[] { 1, 2, 3, 1000 }) {
+                Set<Long> expected = reference(graph, minCommon);
+                for (int threads : new int[] { 1, 4 }) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    try {
+                        FollowsGraph closed = TriadicClosure.close(graph, minCommon, pool);
+                        assertEquals("Expected same users", graph.size(), closed.size());
+                        Set<Long> actual = new HashSet<>();
+                        for (int u = 0; u < closed.size(); u++) {
+                            assertEquals("Expected same ids", graph.username(u), closed.username(u));
+                            for (int v : closed.follows(u)) {
+                                actual.add(pair(u, v));
+                            }
+                        }
+                        assertEquals("Expected reference closure", expected, actual);
+                    } finally {
+                        pool.shutdown();
+                    }
+                }
+            }
+        }
+    }
+
+    // Test invalid minCommon is rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMinCommon() {
+        TriadicClosure.close(FollowsGraph.fromMap(new HashMap<>()), 0, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * @return every edge of graph plus every pair (a, c), a != c, with at
+     *         least minCommon users followed by a who follow c
+     */
+    private static Set<Long> reference(FollowsGraph graph, int minCommon) {
+        Set<Long> edges = new HashSet<>();
+        for (int a = 0; a < graph.size(); a++) {
+            for (int c = 0; c < graph.size(); c++) {
+                int common = 0;
+                for (int b : graph.follows(a)) {
+                    if (graph.isFollowing(b, c)) {
+                        common++;
+                    }
+                }
+                if (graph.isFollowing(a, c) || (a != c && common >= minCommon)) {
+                    edges.add(pair(a, c));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /*
+     * @return TriadicClosure.countCommon(), checking it counts each common id
+     *         once
+     */
+    private static int size(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo) {
+        int[] counts = new int[aTo - aFrom];
+        int common = TriadicClosure.countCommon(a, aFrom, aTo, b, bFrom, bTo, counts);
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            assertTrue("Expected 0 or 1", counts[i] == 0 || counts[i] == 1);
+            assertTrue("Expected only common ids counted", counts[i] == 0
+                    || Arrays.binarySearch(b, bFrom, bTo, a[aFrom + i]) >= 0);
+            total += counts[i];
+        }
+        assertEquals("Expected counts to sum to the result", common, total);
+        return common;
+    }
+
+    private static long pair(int follower, int followed) {
+        return ((long) follower << 32) | followed;
+    }
+
+    /*
+     * @return size distinct ints below bound, in increasing order
+     */
+    private static int[] sortedSample(Random random, int size, int bound) {
+        Set<Integer> sample = new HashSet<>();
+        while (sample.size() < size) {
+            sample.add(random.nextInt(bound));
+        }
+        return sample.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}
@@ -0,0 +1,137 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetBitmapTest {
+
+    /*
+     * Testing Strategy for TweetBitmap:
+     *
+     * of(), range(), empty():
+     * - positions: none, one, in one container, spanning several containers
+     * - container density: sparse (array), dense (bitmap), exactly at the
+     *   array/bitmap threshold
+     *
+     * and(), or(), andNot():
+     * - operands: empty, disjoint, equal, overlapping
+     * - containers: array with array, array with bitmap, bitmap with bitmap,
+     *   present in only one operand
+     * - results that shrink a bitmap container back to an array or empty it
+     * - results compared against java.util.BitSet on random sets
+     *
+     * contains(), cardinality(), toArray():
+     * - positions present, absent, negative, beyond the last container
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test the empty set and small sets
+    @Test
+    public void testSmallSets() {
+        assertTrue("Expected empty", TweetBitmap.empty().isEmpty());
+        assertEquals("Expected no positions", 0, TweetBitmap.range(0).cardinality());
+
+        TweetBitmap bitmap = TweetBitmap.of(new int[] { 9, 1, 5, 70000, 3 }, 1, 4);
+        assertArrayEquals("Expected the given range", new int[] { 1, 5, 70000 }, bitmap.toArray());
+        assertEquals("Expected three positions", 3, bitmap.cardinality());
+        assertTrue("Expected position in second container", bitmap.contains(70000));
+        assertFalse("Expected absent position", bitmap.contains(3));
+        assertFalse("Expected negative position absent", bitmap.contains(-1));
+        assertFalse("Expected position beyond last container absent", bitmap.contains(1 << 20));
+        assertEquals("Expected readable string", "[1, 5, 70000]", bitmap.toString());
+    }
+
+    // Test set operations across sparse and dense containers
+    @Test
+    public void testOperations() {
+        TweetBitmap dense = TweetBitmap.range(100000);
+        TweetBitmap sparse = TweetBitmap.of(new int[] { 2, 65536, 99999, 100000, 200000 }, 0, 5);
+        assertArrayEquals("Expected intersection", new int[] { 2, 65536, 99999 }, dense.and(sparse).toArray());
+        assertEquals("Expected union", 100002, dense.or(sparse).cardinality());
+        assertArrayEquals("Expected difference", new int[] { 100000, 200000 }, sparse.andNot(dense).toArray());
+        assertEquals("Expected dense difference", 99997, dense.andNot(sparse).cardinality());
+        assertTrue("Expected empty difference", dense.andNot(dense).isEmpty());
+        assertTrue("Expected empty intersection", sparse.and(TweetBitmap.empty()).isEmpty());
+        assertArrayEquals("Expected union with empty", sparse.toArray(), TweetBitmap.empty().or(sparse).toArray());
+    }
+
+    // Test operations agree with BitSet on random sets of varying density
+    @Test
+    public void testOperationsMatchBitSet() {
+        Random random = new Random(6005);
+        for (int trial = 0; trial < 40; trial++) {
+            BitSet a = randomSet(random);
+            BitSet b = randomSet(random);
+            TweetBitmap x = bitmapOf(a);
+            TweetBitmap y = bitmapOf(b);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+
+            assertArrayEquals("Expected same positions", a.stream().toArray(), x.toArray());
+            assertArrayEquals("Expected same intersection", and.stream().toArray(), x.and(y).toArray());
+            assertArrayEquals("Expected same union", or.stream().toArray(), x.or(y).toArray());
+            assertArrayEquals("Expected same difference", andNot.stream().toArray(), x.andNot(y).toArray());
+            assertEquals("Expected same cardinality", or.cardinality(), x.or(y).cardinality());
+        }
+    }
+
+    // Test containers exactly at and around the array/bitmap threshold
+    @Test
+    public void testThreshold() {
+        int[] evens = new int[4097];
+        for (int i = 0; i < evens.length; i++) {
+            evens[i] = 2 * i;
+        }
+        TweetBitmap small = TweetBitmap.of(evens, 0, 4096);
+        TweetBitmap large = TweetBitmap.of(evens, 0, 4097);
+        TweetBitmap last = TweetBitmap.of(evens, 4096, 4097);
+        assertArrayEquals("Expected union across threshold", large.toArray(), small.or(last).toArray());
+        assertArrayEquals("Expected difference back under threshold", small.toArray(), large.andNot(last).toArray());
+        assertArrayEquals("Expected intersection", last.toArray(), large.and(last).toArray());
+        assertTrue("Expected contains after union", small.or(last).contains(8192));
+    }
+
+    // Test toArray does not expose the representation
+    @Test
+    public void testToArrayIsCopy() {
+        TweetBitmap bitmap = TweetBitmap.range(3);
+        bitmap.toArray()[0] = 7;
+        assertArrayEquals("Expected unchanged", new int[] { 0, 1, 2 }, bitmap.toArray());
+    }
+
+    /*
+     * @return random subset of [0, 300000), dense or sparse in each 65536 block
+     */
+    private static BitSet randomSet(Random random) {
+        BitSet set = new BitSet();
+        for (int block = 0; block < 5; block++) {
+            double density = new double[] { 0, 0.001, 0.05, 0.5, 1 }[random.nextInt(5)];
+            for (int low = 0; low < 1 << 16; low++) {
+                int position = (block << 16) | low;
+                if (position < 300000 && random.nextDouble() < density) {
+                    set.set(position);
+                }
+            }
+        }
+        return set;
+    }
+
+    private static TweetBitmap bitmapOf(BitSet set) {
+        int[] positions = set.stream().toArray();
+        return TweetBitmap.of(positions, 0, positions.length);
+    }
+}
@@ -0,0 +1,238 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TweetIndexTest {
+
+    /*
+     * Testing Strategy for TweetIndex:
+     *
+     * writtenBy():
+     * - indexed list: empty, one author, many interleaved authors
+     * - username: not an author, differs from the author only in case
+     * - results compared against Filter.writtenBy(), including order
+     * - indexed list modified after building the index
+     *
+     * inTimespan():
+     * - indexed list: empty, in time order, out of time order, with equal timestamps
+     * - timespan: before, after, or covering all tweets; a single instant;
+     *   boundaries equal to tweet timestamps
+     * - timestamps far from 1970, beyond the range of epoch nanoseconds
+     * - results compared against Filter.inTimespan(), including order
+     *
+     * containing():
+     * - words: none, empty after trimming, not in any tweet, one, several,
+     *   duplicates, differing in case, attached to punctuation
+     * - a word repeated within one tweet
+     * - results compared against Filter.containing(), including order
+     *
+     * find():
+     * - query: single condition, and, or, not, andNot, nested combinations
+     * - query matching no tweets, all tweets
+     * - results compared against chained and merged Filter calls, including order
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "I love programming in Java!", d3);
+    private static final Tweet tweet4 = new Tweet(4, "carl", "Java is versatile.", d2);
+    private static final Tweet tweet5 = new Tweet(5, "ALYSSA", "@bbitdiddle Have you seen the latest updates?", d1);
+
+    private static final List<Tweet> TWEETS = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5);
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test writtenBy over an empty list
+    @Test
+    public void testWrittenByEmpty() {
+        TweetIndex index = new TweetIndex(Collections.emptyList());
+        assertEquals("Expected empty index", 0, index.size());
+        assertTrue("Expected no tweets", index.writtenBy("alyssa").isEmpty());
+    }
+
+    // Test writtenBy with interleaved authors in different cases
+    @Test
+    public void testWrittenByMixedAuthors() {
+        TweetIndex index = new TweetIndex(TWEETS);
+        assertEquals("Expected alyssa's tweets in order", Arrays.asList(tweet1, tweet3, tweet5), index.writtenBy("aLySsA"));
+        assertEquals("Expected carl's tweet", Arrays.asList(tweet4), index.writtenBy("carl"));
+        assertTrue("Expected no tweets by a non-author", index.writtenBy("diana").isEmpty());
+    }
+
+    // Test writtenBy agrees with Filter for every author
+    @Test
+    public void testWrittenByMatchesFilter() {
+        List<Tweet> tweets = TestTweets.random(6005, 5000);
+        TweetIndex index = new TweetIndex(tweets);
+        for (Tweet tweet : tweets.subList(0, 500)) {
+            assertEquals("Expected same tweets as Filter", Filter.writtenBy(tweets, tweet.getAuthor()),
+                    index.writtenBy(tweet.getAuthor().toUpperCase()));
+        }
+    }
+
+    // Test the index doesn't change when the list does
+    @Test
+    public void testIndexIsSnapshot() {
+        List<Tweet> tweets = new ArrayList<>(TWEETS);
+        TweetIndex index = new TweetIndex(tweets);
+        tweets.clear();
+        assertEquals("Expected index unchanged", Arrays.asList(tweet2), index.writtenBy("bbitdiddle"));
+    }
+
+    // Test inTimespan over an empty list
+    @Test
+    public void testInTimespanEmpty() {
+        TweetIndex index = new TweetIndex(Collections.emptyList());
+        assertTrue("Expected no tweets", index.inTimespan(new Timespan(d1, d3)).isEmpty());
+    }
+
+    // Test inTimespan with unsorted, tied timestamps and boundaries on tweets
+    @Test
+    public void testInTimespanBoundaries() {
+        TweetIndex index = new TweetIndex(TWEETS);
+        assertEquals("Expected input order", Arrays.asList(tweet1, tweet2, tweet4, tweet5), index.inTimespan(new Timespan(d1, d2)));
+        assertEquals("Expected single instant", Arrays.asList(tweet2, tweet4), index.inTimespan(new Timespan(d2, d2)));
+        assertEquals("Expected all tweets", TWEETS, index.inTimespan(new Timespan(Instant.MIN, Instant.MAX)));
+        assertTrue("Expected none before", index.inTimespan(new Timespan(Instant.MIN, d1.minusNanos(1))).isEmpty());
+        assertTrue("Expected none after", index.inTimespan(new Timespan(d3.plusNanos(1), Instant.MAX)).isEmpty());
+    }
+
+    // Test inTimespan with timestamps beyond the range of epoch nanoseconds
+    @Test
+    public void testInTimespanExtremeInstants() {
+        Instant farPast = Instant.parse("-50000-01-01T00:00:00Z");
+        Instant farFuture = Instant.parse("+50000-01-01T00:00:00Z");
+        Tweet past = new Tweet(6, "alyssa", "past", farPast);
+        Tweet future = new Tweet(7, "alyssa", "future", farFuture);
+        Tweet min = new Tweet(8, "alyssa", "min", Instant.MIN);
+        List<Tweet> tweets = Arrays.asList(future, tweet1, past, min);
+        TweetIndex index = new TweetIndex(tweets);
+        assertEquals("Expected far past only", Arrays.asList(past), index.inTimespan(new Timespan(farPast, farPast.plusSeconds(1))));
+        assertEquals("Expected far future and now", Arrays.asList(future, tweet1), index.inTimespan(new Timespan(d1, Instant.MAX)));
+        assertEquals("Expected all but min", Arrays.asList(future, tweet1, past),
+                index.inTimespan(new Timespan(Instant.MIN.plusSeconds(1), farFuture)));
+    }
+
+    // Test inTimespan agrees with Filter on random windows over shuffled tweets
+    @Test
+    public void testInTimespanMatchesFilter() {
+        List<Tweet> tweets = new ArrayList<>(TestTweets.random(6005, 5000));
+        Collections.shuffle(tweets, new Random(6005));
+        TweetIndex index = new TweetIndex(tweets);
+        Timespan all = Extract.getTimespan(tweets);
+        long seconds = all.getEnd().getEpochSecond() - all.getStart().getEpochSecond();
+        Random random = new Random(6005);
+        for (int i = 0; i < 200; i++) {
+            Instant start = all.getStart().plusSeconds((long) (random.nextDouble() * seconds) - 10);
+            Timespan window = new Timespan(start, start.plusSeconds(random.nextInt(600)));
+            assertEquals("Expected same tweets as Filter", Filter.inTimespan(tweets, window), index.inTimespan(window));
+        }
+    }
+
+    // Test containing with no usable words
+    @Test
+    public void testContainingNoWords() {
+        TweetIndex index = new TweetIndex(TWEETS);
+        assertTrue("Expected no tweets for no words", index.containing(Collections.emptyList()).isEmpty());
+        assertTrue("Expected no tweets for blank words", index.containing(Arrays.asList(" ", "")).isEmpty());
+        assertTrue("Expected no tweets for unknown words", index.containing(Arrays.asList("python")).isEmpty());
+    }
+
+    // Test containing with one or several words, in different cases and repeated
+    @Test
+    public void testContainingWords() {
+        Tweet repeated = new Tweet(6, "carl", "java JAVA Java.", d3);
+        TweetIndex index = new TweetIndex(Arrays.asList(tweet1, tweet2, tweet3, tweet4, repeated));
+        assertEquals("Expected one word", Arrays.asList(tweet4, repeated), index.containing(Arrays.asList("JAVA")));
+        assertEquals("Expected union in input order", Arrays.asList(tweet1, tweet2, tweet4, repeated),
+                index.containing(Arrays.asList("java", "Rivest", "rivest", "java.")));
+        assertEquals("Expected punctuation to be part of the word", Arrays.asList(tweet3),
+                index.containing(Arrays.asList("java!")));
+    }
+
+    // Test containing agrees with Filter on random word lists
+    @Test
+    public void testContainingMatchesFilter() {
+        List<Tweet> tweets = TestTweets.random(6005, 5000);
+        TweetIndex index = new TweetIndex(tweets);
+        Random random = new Random(6005);
+        for (int i = 0; i < 200; i++) {
+            List<String> words = new ArrayList<>();
+            for (int w = random.nextInt(4); w >= 0; w--) {
+                String[] candidates = tweets.get(random.nextInt(tweets.size())).getText().split(" ");
+                words.add(candidates[random.nextInt(candidates.length)].toUpperCase());
+            }
+            assertEquals("Expected same tweets as Filter for " + words, Filter.containing(tweets, words), index.containing(words));
+        }
+    }
+
+    // Test find with single conditions and combinations
+    @Test
+    public void testFindCombinations() {
+        TweetIndex index = new TweetIndex(TWEETS);
+        TweetQuery alyssa = TweetQuery.writtenBy("alyssa");
+        TweetQuery java = TweetQuery.containing(Arrays.asList("java", "java!"));
+        TweetQuery early = TweetQuery.inTimespan(new Timespan(d1, d2));
+        assertEquals("Expected single condition", index.writtenBy("alyssa"), index.find(alyssa));
+        assertEquals("Expected and", Arrays.asList(tweet3), index.find(alyssa.and(java)));
+        assertEquals("Expected or in input order", Arrays.asList(tweet1, tweet3, tweet4, tweet5), index.find(alyssa.or(java)));
+        assertEquals("Expected not", Arrays.asList(tweet2, tweet4), index.find(alyssa.not()));
+        assertEquals("Expected andNot", Arrays.asList(tweet1, tweet5), index.find(alyssa.andNot(java)));
+        assertEquals("Expected nested", Arrays.asList(tweet1, tweet4, tweet5),
+                index.find(alyssa.and(early).or(java.and(alyssa.not()))));
+        assertTrue("Expected no tweets", index.find(alyssa.and(alyssa.not())).isEmpty());
+        assertEquals("Expected all tweets", TWEETS, index.find(early.or(early.not())));
+    }
+
+    // Test find agrees with chained Filter calls on random queries
+    @Test
+    public void testFindMatchesFilter() {
+        List<Tweet> tweets = new ArrayList<>(TestTweets.random(6005, 5000));
+        Collections.shuffle(tweets, new Random(6005));
+        TweetIndex index = new TweetIndex(tweets);
+        Timespan all = Extract.getTimespan(tweets);
+        long seconds = all.getEnd().getEpochSecond() - all.getStart().getEpochSecond();
+        Random random = new Random(6005);
+        for (int i = 0; i < 100; i++) {
+            String author = tweets.get(random.nextInt(tweets.size())).getAuthor();
+            String[] candidates = tweets.get(random.nextInt(tweets.size())).getText().split(" ");
+            List<String> words = Arrays.asList(candidates[random.nextInt(candidates.length)], "#java");
+            Instant start = all.getStart().plusSeconds((long) (random.nextDouble() * seconds));
+            Timespan window = new Timespan(start, start.plusSeconds(random.nextInt(3600)));
+
+            List<Tweet> chained = Filter.containing(Filter.inTimespan(Filter.writtenBy(tweets, author), window), words);
+            TweetQuery query = TweetQuery.writtenBy(author).and(TweetQuery.containing(words))
+                    .and(TweetQuery.inTimespan(window));
+            assertEquals("Expected same tweets as chained Filter", chained, index.find(query));
+
+            Set<Tweet> byAuthor = new HashSet<>(Filter.writtenBy(tweets, author));
+            List<Tweet> either = new ArrayList<>();
+            for (Tweet tweet : tweets) {
+                if (byAuthor.contains(tweet) || !Filter.containing(Arrays.asList(tweet), words).isEmpty()) {
+                    either.add(tweet);
+                }
+            }
+            assertEquals("Expected same tweets as merged Filter", either,
+                    index.find(TweetQuery.writtenBy(author).or(TweetQuery.containing(words))));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetPredicateTest {
+
+    /*
+     * Testing Strategy for TweetPredicate:
+     *
+     * conditions: none, one of each kind, all three, repeated kinds
+     * - writtenBy: same author in different cases, conflicting authors
+     * - inTimespan: overlapping timespans, disjoint timespans, boundaries
+     * - containing: no usable words, several word lists that must all match,
+     *   matched by words in any order, one word matching several lists
+     * test(): tweet failing each condition, passing all
+     * filter(): empty list, results compared against chained Filter calls,
+     *   including order
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "I love programming in Java!", d3);
+    private static final Tweet tweet4 = new Tweet(4, "carl", "Java is versatile.", d2);
+    private static final Tweet tweet5 = new Tweet(5, "ALYSSA", "@bbitdiddle talk about java", d1);
+
+    private static final List<Tweet> TWEETS = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5);
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test the predicate with no conditions
+    @Test
+    public void testAll() {
+        assertEquals("Expected every tweet", TWEETS, TweetPredicate.all().filter(TWEETS));
+        assertTrue("Expected no tweets from empty list", TweetPredicate.all().filter(Collections.emptyList()).isEmpty());
+    }
+
+    // Test each kind of condition alone
+    @Test
+    public void testSingleConditions() {
+        assertEquals("Expected tweets by alyssa", Arrays.asList(tweet1, tweet3, tweet5),
+                TweetPredicate.all().writtenBy("aLySsA").filter(TWEETS));
+        assertEquals("Expected tweets on the boundaries", Arrays.asList(tweet1, tweet2, tweet4, tweet5),
+                TweetPredicate.all().inTimespan(new Timespan(d1, d2)).filter(TWEETS));
+        assertEquals("Expected tweets containing the words", Arrays.asList(tweet4, tweet5),
+                TweetPredicate.all().containing(Arrays.asList("JAVA")).filter(TWEETS));
+        assertTrue("Expected no tweets for no words",
+                TweetPredicate.all().containing(Arrays.asList(" ", "")).filter(TWEETS).isEmpty());
+    }
+
+    // Test all three conditions, and repeated conditions of one kind
+    @Test
+    public void testCombinedConditions() {
+        TweetPredicate predicate = TweetPredicate.all().containing(Arrays.asList("talk", "java"))
+                .writtenBy("alyssa").inTimespan(new Timespan(d1, d2));
+        assertEquals("Expected tweets satisfying all conditions", Arrays.asList(tweet1, tweet5), predicate.filter(TWEETS));
+        assertFalse("Expected tweet by another author to fail", predicate.test(tweet2));
+        assertFalse("Expected tweet outside timespan to fail", predicate.test(tweet3));
+
+        assertEquals("Expected every word list to match", Arrays.asList(tweet5),
+                predicate.containing(Arrays.asList("java")).filter(TWEETS));
+        assertEquals("Expected lists matched in either order", Arrays.asList(tweet1, tweet2, tweet5),
+                TweetPredicate.all().containing(Arrays.asList("rivest", "@bbitdiddle"))
+                        .containing(Arrays.asList("talk")).filter(TWEETS));
+        assertEquals("Expected one word to match two lists", Arrays.asList(tweet4, tweet5),
+                TweetPredicate.all().containing(Arrays.asList("java")).containing(Arrays.asList("Java", "x"))
+                        .filter(TWEETS));
+        assertEquals("Expected same author in another case", Arrays.asList(tweet1, tweet5),
+                predicate.writtenBy("ALYSSA").filter(TWEETS));
+        assertTrue("Expected conflicting authors to match nothing",
+                predicate.writtenBy("carl").filter(TWEETS).isEmpty());
+        assertEquals("Expected intersection of timespans", Arrays.asList(tweet2, tweet4),
+                TweetPredicate.all().inTimespan(new Timespan(d1, d2)).inTimespan(new Timespan(d2, d3)).filter(TWEETS));
+        assertTrue("Expected disjoint timespans to match nothing",
+                TweetPredicate.all().inTimespan(new Timespan(d1, d1)).inTimespan(new Timespan(d2, d3)).filter(TWEETS).isEmpty());
+    }
+
+    // Test filter agrees with chained Filter calls on random queries
+    @Test
+    public void testFilterMatchesChainedFilter() {
+        List<Tweet> tweets = new ArrayList<>(TestTweets.random(6005, 5000));
+        Collections.shuffle(tweets, new Random(6005));
+        Timespan all = Extract.getTimespan(tweets);
+        long seconds = all.getEnd().getEpochSecond() - all.getStart().getEpochSecond();
+        Random random = new Random(6005);
+        for (int i = 0; i < 100; i++) {
+            String author = tweets.get(random.nextInt(tweets.size())).getAuthor();
+            String[] candidates = tweets.get(random.nextInt(tweets.size())).getText().split(" ");
+            List<String> words = Arrays.asList(candidates[random.nextInt(candidates.length)], "#hype");
+            Instant start = all.getStart().plusSeconds((long) (random.nextDouble() * seconds));
+            Timespan window = new Timespan(start, start.plusSeconds(random.nextInt(3600 * 24)));
+
+            assertEquals("Expected same tweets as chained Filter",
+                    Filter.containing(Filter.inTimespan(Filter.writtenBy(tweets, author), window), words),
+                    TweetPredicate.all().writtenBy(author).inTimespan(window).containing(words).filter(tweets));
+            assertEquals("Expected same tweets as chained Filter without author",
+                    Filter.containing(Filter.inTimespan(tweets, window), words),
+                    TweetPredicate.all().containing(words).inTimespan(window).filter(tweets));
+        }
+    }
+}
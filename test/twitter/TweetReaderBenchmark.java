@@ -0,0 +1,180 @@
+package twitter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for the ways of reading tweets from JSON. Not a unit test: run
+ * main() by hand with assertions disabled.
+ *
+ * Writes a synthetic file of tweets shaped like the Twitter API output (nested
+ * user and entities objects alongside the fields Tweet needs), then reports
+ * time and bytes allocated per tweet for each reader.
+ */
+public class TweetReaderBenchmark {
+
+    private static final int TWEETS = 200_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    private static final DateTimeFormatter TWITTER_DATE_FORMAT = TwitterDateParser.FORMAT.withZone(ZoneOffset.UTC);
+
+    /*
+     * Something that reads every tweet in the benchmark file.
+     */
+    interface TweetSource {
+        List<Tweet> read(File file) throws IOException;
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional number of tweets to generate
+     * @throws IOException if the temporary file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : TWEETS;
+        File file = File.createTempFile("tweets", ".json");
+        File snapshot = File.createTempFile("tweets", ".snapshot");
+        try {
+            writeTweets(file, count);
+            System.out.printf("%d tweets, %d bytes%n", count, file.length());
+            measure("TweetReader (DOM)", file, count,
+                f -> TweetReader.readTweetsFromWeb(f.toURI().toURL()));
+            measure("TweetStreamReader (URL)", file, count,
+                f -> TweetStreamReader.readTweets(new InputStreamReader(
+                        f.toURI().toURL().openStream(), StandardCharsets.UTF_8)));
+            measure("TweetStreamReader (mapped)", file, count,
+                f -> TweetStreamReader.readTweetsFromFile(f.toPath()));
+            measure("ParallelTweetReader", file, count,
+                f -> ParallelTweetReader.readTweets(f.toPath()));
+
+            TweetSnapshotWriter.writeToFile(TweetStreamReader.readTweetsFromFile(file.toPath()), snapshot.toPath());
+            System.out.printf("snapshot of %d tweets, %d bytes%n", count, snapshot.length());
+            measure("TweetSnapshotReader", snapshot, count,
+                f -> TweetSnapshotReader.readFromFile(f.toPath()));
+        } finally {
+            file.delete();
+            snapshot.delete();
+        }
+        measureDates(count);
+    }
+
+    /*
+     * Time parsing created_at strings alone, with the formatter and with
+     * TwitterDateParser.
+     */
+    static void measureDates(int count) {
+        String[] dates = new String[count];
+        Instant time = Instant.parse("2016-02-17T10:00:00Z");
+        for (int i = 0; i < count; i++) {
+            time = time.plusMillis(200);
+            dates[i] = TWITTER_DATE_FORMAT.format(time);
+        }
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long sum = 0;
+            long start = System.nanoTime();
+            for (String date : dates) {
+                sum += ZonedDateTime.parse(date, TwitterDateParser.FORMAT).toEpochSecond();
+            }
+            long formatterNanos = System.nanoTime() - start;
+            TwitterDateParser parser = new TwitterDateParser();
+            start = System.nanoTime();
+            for (String date : dates) {
+                sum -= parser.parseEpochSecond(date);
+            }
+            long parserNanos = System.nanoTime() - start;
+            if (sum != 0) {
+                throw new AssertionError("parsers disagree");
+            }
+            if (round == WARMUP_ROUNDS) {
+                System.out.printf("%-28s %9.0f ns/date%n", "DateTimeFormatter", (double) formatterNanos / count);
+                System.out.printf("%-28s %9.0f ns/date%n", "TwitterDateParser", (double) parserNanos / count);
+            }
+        }
+    }
+
+    /*
+     * Time a tweet source and report its allocation per tweet.
+     */
+    static void measure(String name, File file, int count, TweetSource source) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            check(source.read(file), count);
+        }
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = allocatedBytes();
+            long startNanos = System.nanoTime();
+            check(source.read(file), count);
+            nanos += System.nanoTime() - startNanos;
+            bytes += allocatedBytes() - startBytes;
+        }
+        double millis = nanos / 1e6 / ROUNDS;
+        System.out.printf("%-28s %9.1f ms %10.0f tweets/s %8.0f bytes/tweet%n",
+                name, millis, count / (millis / 1000), (double) bytes / ROUNDS / count);
+    }
+
+    /*
+     * @return bytes allocated so far by all live threads, or 0 if the JVM
+     *         can't tell us
+     */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            total += Math.max(bytes, 0);
+        }
+        return total;
+    }
+
+    private static void check(List<Tweet> tweets, int count) {
+        if (tweets.size() != count) {
+            throw new AssertionError("expected " + count + " tweets, read " + tweets.size());
+        }
+    }
+
+    /*
+     * Write a JSON array of synthetic tweets, in increasing time order with a
+     * few tweets per second.
+     */
+    static void writeTweets(File file, int count) throws IOException {
+        Random random = new Random(6005);
+        Instant time = Instant.parse("2016-02-17T10:00:00Z");
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            for (int i = 0; i < count; i++) {
+                String author = "user" + random.nextInt(count / 10 + 1);
+                String mention = "user" + random.nextInt(count / 10 + 1);
+                time = time.plusMillis(random.nextInt(400));
+                out.write("{\"created_at\": \"" + TWITTER_DATE_FORMAT.format(time) + "\", "
+                        + "\"id\": " + (700000000000000000L + i) + ", "
+                        + "\"text\": \"talking to @" + mention + " about rivest and #hype " + i + "\", "
+                        + "\"user.screen_name\": \"" + author + "\", "
+                        + "\"user\": {\"id\": " + random.nextInt(1 << 30) + ", \"name\": \"User " + author
+                        + "\", \"followers_count\": " + random.nextInt(10000) + ", \"verified\": false, "
+                        + "\"location\": null}, "
+                        + "\"entities\": {\"hashtags\": [{\"text\": \"hype\", \"indices\": [40, 45]}], "
+                        + "\"user_mentions\": [{\"screen_name\": \"" + mention + "\", \"indices\": [12, 20]}]}, "
+                        + "\"retweet_count\": " + random.nextInt(100) + ", \"favorited\": false, "
+                        + "\"lang\": \"en\"}");
+                out.write(i + 1 < count ? ",\n" : "\n");
+            }
+            out.write("]\n");
+        }
+    }
+}
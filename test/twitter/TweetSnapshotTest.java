@@ -0,0 +1,186 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetSnapshotTest {
+
+    /*
+     * Testing Strategy for TweetSnapshotWriter and TweetSnapshotReader:
+     *
+     * - number of tweets: 0, 1, many
+     * - authors: all distinct, repeated, differing only in case
+     * - ids and timestamps: increasing, decreasing, extreme values, sub-second nanos
+     * - text: empty, ASCII, non-ASCII, longer than the I/O buffer
+     * - stream and file entry points
+     * - invalid input: wrong magic, wrong version, truncated, counts and
+     *   lengths larger than the input or negative, timestamp out of range
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00.123456789Z");
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test with no tweets
+    @Test
+    public void testRoundTripEmpty() throws IOException {
+        assertTrue("Expected no tweets", roundTrip(Collections.emptyList()).isEmpty());
+    }
+
+    // Test with edge-case field values
+    @Test
+    public void testRoundTripFieldValues() throws IOException {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(Long.MAX_VALUE, "alyssa", "caf\u00e9 \u2603 \ud83d\ude00", d2),
+                new Tweet(Long.MIN_VALUE, "Alyssa", "", Instant.MIN),
+                new Tweet(0, "alyssa", "rivest", Instant.MAX),
+                new Tweet(-5, "bbitdiddle_-", "@alyssa hi", d1));
+        List<Tweet> read = roundTrip(tweets);
+        TweetStreamReaderTest.assertTweets(tweets, read);
+        assertEquals("Expected Tweet.equals to hold", tweets, read);
+    }
+
+    // Test with many tweets by a few authors, some text longer than the buffer
+    @Test
+    public void testRoundTripMany() throws IOException {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        Instant time = d1;
+        char[] longText = new char[100000];
+        Arrays.fill(longText, 'x');
+        for (int i = 0; i < 5000; i++) {
+            time = time.plusMillis(random.nextInt(2000) - 500);
+            String text = i % 1000 == 0 ? new String(longText) : "tweet number " + i;
+            tweets.add(new Tweet(1000000 + random.nextInt(100000), "user" + random.nextInt(50), text, time));
+        }
+        TweetStreamReaderTest.assertTweets(tweets, roundTrip(tweets));
+    }
+
+    // Test writing and reading a file, and that repeated authors share one String
+    @Test
+    public void testRoundTripFile() throws IOException {
+        List<Tweet> tweets = Arrays.asList(new Tweet(1, "alyssa", "one", d1), new Tweet(2, "alyssa", "two", d2));
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            TweetSnapshotWriter.writeToFile(tweets, file);
+            List<Tweet> read = TweetSnapshotReader.readFromFile(file);
+            TweetStreamReaderTest.assertTweets(tweets, read);
+            assertSame("Expected shared author", read.get(0).getAuthor(), read.get(1).getAuthor());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // Test with input that is not a snapshot
+    @Test(expected = IOException.class)
+    public void testReadWrongMagic() throws IOException {
+        TweetSnapshotReader.read(new ByteArrayInputStream("[{\"id\": 1}]".getBytes("UTF-8")));
+    }
+
+    // Test with an unknown format version
+    @Test(expected = IOException.class)
+    public void testReadWrongVersion() throws IOException {
+        byte[] bytes = write(Collections.emptyList());
+        bytes[TweetSnapshotWriter.MAGIC.length]++;
+        TweetSnapshotReader.read(new ByteArrayInputStream(bytes));
+    }
+
+    // Test with a truncated snapshot
+    @Test(expected = IOException.class)
+    public void testReadTruncated() throws IOException {
+        byte[] bytes = write(Arrays.asList(new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1)));
+        TweetSnapshotReader.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 5)));
+    }
+
+    // Test counts and lengths beyond the input fail without allocating them
+    @Test
+    public void testReadCorruptCounts() throws IOException {
+        long huge = Integer.MAX_VALUE;
+        List<byte[]> corrupt = Arrays.asList(
+                snapshot(huge),            // authors
+                snapshot(-1),              // authors, negative
+                snapshot(1, huge),         // author length
+                snapshot(0, huge),         // tweets
+                snapshot(0, 1),            // tweets, more than the bytes left
+                snapshot(1, 0, 1, 0, 0, 0, 0, huge),  // text length
+                snapshot(1, 0, 1, -1, 0, 0, 0, 0));   // author index, negative
+        for (byte[] bytes : corrupt) {
+            assertReadFails(bytes);
+        }
+    }
+
+    // Test a timestamp beyond Instant's range
+    @Test
+    public void testReadTimestampOutOfRange() throws IOException {
+        // one author "", one tweet at 2^60 seconds
+        assertReadFails(snapshot(1, 0, 1, 0, 0, 1L << 61, 0, 0));
+    }
+
+    /*
+     * Assert reading bytes as a stream and as a file both throw IOException.
+     */
+    private static void assertReadFails(byte[] bytes) throws IOException {
+        try {
+            TweetSnapshotReader.read(new ByteArrayInputStream(bytes));
+            fail("Expected IOException from stream");
+        } catch (IOException e) {
+            // expected
+        }
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            Files.write(file, bytes);
+            TweetSnapshotReader.readFromFile(file);
+            fail("Expected IOException from file");
+        } catch (IOException e) {
+            // expected
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /*
+     * @return a snapshot header followed by values as unsigned LEB128
+     *         integers
+     */
+    private static byte[] snapshot(long... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(TweetSnapshotWriter.MAGIC, 0, TweetSnapshotWriter.MAGIC.length);
+        out.write(TweetSnapshotWriter.VERSION);
+        for (long value : values) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] write(List<Tweet> tweets) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TweetSnapshotWriter.write(tweets, out);
+        return out.toByteArray();
+    }
+
+    private static List<Tweet> roundTrip(List<Tweet> tweets) throws IOException {
+        return TweetSnapshotReader.read(new ByteArrayInputStream(write(tweets)));
+    }
+}
@@ -0,0 +1,172 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class TweetStreamReaderTest {
+
+    /*
+     * Testing Strategy for TweetStreamReader:
+     *
+     * - empty array, one tweet, several tweets
+     * - screen name as a flat "user.screen_name" key, or nested in a "user" object
+     * - tweets with extra fields: nested objects, arrays, booleans, nulls
+     * - iterator, stream and callback entry points
+     * - malformed input: not an array, missing field, truncated input
+     * - same tweets and field values as TweetReader on the same input
+     */
+
+    private static final String TWEET1 = "{\"id\": 1, \"user.screen_name\": \"alyssa\","
+            + " \"text\": \"is it reasonable to talk about rivest so much?\","
+            + " \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"}";
+    private static final String TWEET2 = "{\"created_at\": \"Wed Feb 17 06:00:00 -0500 2016\","
+            + " \"favorited\": false, \"place\": null, \"entities\": {\"hashtags\": [{\"text\": \"hype\"}]},"
+            + " \"user\": {\"id\": 99, \"screen_name\": \"bbitdiddle\"},"
+            + " \"text\": \"rivest talk in 30 minutes #hype\", \"id\": 2}";
+    private static final String JSON = "[" + TWEET1 + ", " + TWEET2 + "]";
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test with empty array
+    @Test
+    public void testReadTweetsEmpty() {
+        List<Tweet> tweets = TweetStreamReader.readTweets(new StringReader("[]"));
+        assertTrue("Expected no tweets", tweets.isEmpty());
+    }
+
+    // Test with flat and nested screen names and extra fields
+    @Test
+    public void testReadTweetsFields() {
+        List<Tweet> tweets = TweetStreamReader.readTweets(new StringReader(JSON));
+        assertEquals("Expected two tweets", 2, tweets.size());
+        assertTweet(new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?",
+                Instant.parse("2016-02-17T10:00:00Z")), tweets.get(0));
+        assertTweet(new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype",
+                Instant.parse("2016-02-17T11:00:00Z")), tweets.get(1));
+    }
+
+    // Test the iterator is lazy and ends cleanly
+    @Test
+    public void testIterator() {
+        try (TweetStreamReader reader = new TweetStreamReader(new StringReader(JSON))) {
+            assertTrue("Expected first tweet", reader.hasNext());
+            assertEquals("Expected tweet 1", 1, reader.next().getId());
+            assertEquals("Expected tweet 2", 2, reader.next().getId());
+            assertFalse("Expected end of tweets", reader.hasNext());
+            assertFalse("Expected end of tweets to be stable", reader.hasNext());
+        }
+    }
+
+    // Test stream and callback entry points agree
+    @Test
+    public void testStreamAndForEach() {
+        List<Long> streamed;
+        try (Stream<Tweet> stream = TweetStreamReader.stream(new StringReader(JSON))) {
+            streamed = stream.map(Tweet::getId).collect(Collectors.toList());
+        }
+        List<Long> called = new ArrayList<>();
+        TweetStreamReader.forEach(new StringReader(JSON), tweet -> called.add(tweet.getId()));
+        assertEquals("Expected ids in order", Arrays.asList(1L, 2L), streamed);
+        assertEquals("Expected ids in order", streamed, called);
+    }
+
+    // Test with a top-level value that is not an array
+    @Test(expected = JsonException.class)
+    public void testNotAnArray() {
+        TweetStreamReader.readTweets(new StringReader(TWEET1));
+    }
+
+    // Test with a tweet missing a required field
+    @Test(expected = JsonException.class)
+    public void testMissingField() {
+        TweetStreamReader.readTweets(new StringReader("[{\"id\": 1, \"text\": \"hi\"}]"));
+    }
+
+    // Test with truncated input
+    @Test(expected = JsonException.class)
+    public void testTruncated() {
+        TweetStreamReader.readTweets(new StringReader("[" + TWEET1 + ", {\"id\": 2"));
+    }
+
+    // Test the same tweets are read as TweetReader reads
+    @Test
+    public void testMatchesTweetReader() throws IOException {
+        String flat = "[" + TWEET1 + ", " + TWEET1.replace("\"id\": 1", "\"id\": 3") + "]";
+        File file = File.createTempFile("tweets", ".json");
+        try {
+            Files.write(file.toPath(), flat.getBytes(StandardCharsets.UTF_8));
+            List<Tweet> expected = TweetReader.readTweetsFromWeb(file.toURI().toURL());
+            List<Tweet> actual = TweetStreamReader.readTweets(new StringReader(flat));
+            assertTweets(expected, actual);
+        } finally {
+            file.delete();
+        }
+    }
+
+    // Test reading a memory-mapped file, including non-ASCII text, through every entry point
+    @Test
+    public void testReadTweetsFromFile() throws IOException {
+        String json = "[" + TWEET1.replace("rivest", "r\u00efvest \u2603 \ud83d\ude00") + ", " + TWEET2 + "]";
+        List<Tweet> expected = TweetStreamReader.readTweets(new StringReader(json));
+        File file = File.createTempFile("tweets", ".json");
+        try {
+            Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+            assertTweets(expected, TweetStreamReader.readTweetsFromFile(file.toPath()));
+            try (Stream<Tweet> stream = TweetStreamReader.streamTweetsFromFile(file.toPath())) {
+                assertTweets(expected, stream.collect(Collectors.toList()));
+            }
+            List<Tweet> called = new ArrayList<>();
+            TweetStreamReader.forEachTweetInFile(file.toPath(), called::add);
+            assertTweets(expected, called);
+        } finally {
+            file.delete();
+        }
+    }
+
+    // Test reading an empty file
+    @Test(expected = JsonException.class)
+    public void testReadTweetsFromEmptyFile() throws IOException {
+        File file = File.createTempFile("tweets", ".json");
+        try {
+            TweetStreamReader.readTweetsFromFile(file.toPath());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /*
+     * Assert that two lists hold tweets with the same ids and field values, in the same order.
+     */
+    static void assertTweets(List<Tweet> expected, List<Tweet> actual) {
+        assertEquals("Expected same number of tweets", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTweet(expected.get(i), actual.get(i));
+        }
+    }
+
+    static void assertTweet(Tweet expected, Tweet actual) {
+        assertEquals("Expected same id", expected.getId(), actual.getId());
+        assertEquals("Expected same author", expected.getAuthor(), actual.getAuthor());
+        assertEquals("Expected same text", expected.getText(), actual.getText());
+        assertEquals("Expected same timestamp", expected.getTimestamp(), actual.getTimestamp());
+    }
+}
@@ -0,0 +1,115 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TwitterDateParserTest {
+
+    /*
+     * Testing Strategy for TwitterDateParser:
+     *
+     * - offset: zero, positive, negative, non-whole hours
+     * - consecutive timestamps: same day (cache hit), different day, different year
+     * - calendar edges: leap day, new year's eve crossing into the next UTC day
+     * - many random timestamps compared against the DateTimeFormatter
+     * - malformed input: wrong length, bad digits, bad month, impossible date,
+     *   day of week that doesn't match the date, out-of-range offset
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test with zero offset
+    @Test
+    public void testParseUtc() {
+        TwitterDateParser parser = new TwitterDateParser();
+        assertEquals("Expected UTC instant", Instant.parse("2016-02-17T10:00:00Z"),
+                parser.parse("Wed Feb 17 10:00:00 +0000 2016"));
+    }
+
+    // Test with positive, negative and non-whole-hour offsets on the same day
+    @Test
+    public void testParseOffsets() {
+        TwitterDateParser parser = new TwitterDateParser();
+        assertEquals("Expected negative offset", Instant.parse("2016-02-17T11:00:00Z"),
+                parser.parse("Wed Feb 17 06:00:00 -0500 2016"));
+        assertEquals("Expected positive offset", Instant.parse("2016-02-17T04:30:00Z"),
+                parser.parse("Wed Feb 17 10:00:00 +0530 2016"));
+    }
+
+    // Test across day and year boundaries, including a leap day
+    @Test
+    public void testParseDayChanges() {
+        TwitterDateParser parser = new TwitterDateParser();
+        assertEquals("Expected leap day", Instant.parse("2016-02-29T23:59:59Z"),
+                parser.parse("Mon Feb 29 23:59:59 +0000 2016"));
+        assertEquals("Expected next UTC day", Instant.parse("2017-01-01T03:00:00Z"),
+                parser.parse("Sat Dec 31 22:00:00 -0500 2016"));
+        assertEquals("Expected same day as before", Instant.parse("2017-01-01T04:00:00Z"),
+                parser.parse("Sat Dec 31 23:00:00 -0500 2016"));
+    }
+
+    // Test many random timestamps against the formatter
+    @Test
+    public void testParseMatchesFormatter() {
+        TwitterDateParser parser = new TwitterDateParser();
+        Random random = new Random(6005);
+        long start = Instant.parse("1970-01-01T00:00:00Z").getEpochSecond();
+        long end = Instant.parse("2100-01-01T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < 10000; i++) {
+            long second = start + (long) (random.nextDouble() * (end - start));
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(24 * 4 + 1) - 48) * 15 * 60);
+            String text = TwitterDateParser.FORMAT.format(Instant.ofEpochSecond(second).atOffset(offset));
+            assertEquals("Expected same instant for " + text,
+                    ZonedDateTime.parse(text, TwitterDateParser.FORMAT).toInstant(), parser.parse(text));
+        }
+    }
+
+    // Test with the wrong length
+    @Test(expected = DateTimeParseException.class)
+    public void testParseWrongLength() {
+        new TwitterDateParser().parse("Wed Feb 17 10:00:00 +0000 16");
+    }
+
+    // Test with a letter where a digit belongs
+    @Test(expected = DateTimeParseException.class)
+    public void testParseBadDigit() {
+        new TwitterDateParser().parse("Wed Feb 17 10:0O:00 +0000 2016");
+    }
+
+    // Test with an unknown month
+    @Test(expected = DateTimeParseException.class)
+    public void testParseBadMonth() {
+        new TwitterDateParser().parse("Wed Fbe 17 10:00:00 +0000 2016");
+    }
+
+    // Test with a date that doesn't exist
+    @Test(expected = DateTimeParseException.class)
+    public void testParseImpossibleDate() {
+        new TwitterDateParser().parse("Tue Feb 30 10:00:00 +0000 2016");
+    }
+
+    // Test with a day of week that doesn't match the date, after a valid parse of that date
+    @Test(expected = DateTimeParseException.class)
+    public void testParseWrongDayOfWeek() {
+        TwitterDateParser parser = new TwitterDateParser();
+        parser.parse("Wed Feb 17 10:00:00 +0000 2016");
+        parser.parse("Thu Feb 17 10:00:00 +0000 2016");
+    }
+
+    // Test with an offset beyond 18 hours
+    @Test(expected = DateTimeParseException.class)
+    public void testParseBadOffset() {
+        new TwitterDateParser().parse("Wed Feb 17 10:00:00 +1830 2016");
+    }
+}
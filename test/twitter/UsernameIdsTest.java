@@ -0,0 +1,78 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class UsernameIdsTest {
+
+    /*
+     * Testing Strategy for UsernameIds:
+     *
+     * id(), find(), username():
+     * - username: new, already numbered, removed
+     * - usernames differing only in case are different
+     *
+     * remove(), size(), bound():
+     * - no ids removed, some removed and not yet reused, removed and reused
+     *   in last-freed-first order
+     *
+     * toArray(), toMap():
+     * - copies, not views
+     */
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test numbering without removal
+    @Test
+    public void testNumbering() {
+        UsernameIds ids = new UsernameIds();
+        assertEquals("Expected first id", 0, ids.id("alyssa"));
+        assertEquals("Expected next id", 1, ids.id("bob"));
+        assertEquals("Expected same id", 0, ids.id("alyssa"));
+        assertEquals("Expected case to matter", 2, ids.id("Alyssa"));
+        assertEquals("Expected lookup", 1, ids.find("bob"));
+        assertEquals("Expected missing", -1, ids.find("carl"));
+        assertEquals("Expected username", "bob", ids.username(1));
+        assertEquals("Expected size", 3, ids.size());
+        assertEquals("Expected bound", 3, ids.bound());
+
+        String[] array = ids.toArray();
+        Map<String, Integer> map = ids.toMap();
+        ids.id("carl");
+        assertEquals("Expected array copy", Arrays.asList("alyssa", "bob", "Alyssa"), Arrays.asList(array));
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("alyssa", 0);
+        expected.put("bob", 1);
+        expected.put("Alyssa", 2);
+        assertEquals("Expected map copy", expected, map);
+    }
+
+    // Test removed ids are reused, last freed first, before new ids
+    @Test
+    public void testReuse() {
+        UsernameIds ids = new UsernameIds();
+        for (String username : Arrays.asList("a", "b", "c", "d")) {
+            ids.id(username);
+        }
+        ids.remove(1);
+        ids.remove(3);
+        assertEquals("Expected two in use", 2, ids.size());
+        assertEquals("Expected bound unchanged", 4, ids.bound());
+        assertEquals("Expected removed username forgotten", -1, ids.find("b"));
+        assertEquals("Expected last freed id", 3, ids.id("e"));
+        assertEquals("Expected other freed id", 1, ids.id("b"));
+        assertEquals("Expected new id", 4, ids.id("f"));
+        assertEquals("Expected reused username", "e", ids.username(3));
+        assertEquals("Expected kept id", 2, ids.find("c"));
+        assertEquals("Expected five in use", 5, ids.size());
+    }
+}
@@ -0,0 +1,192 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WindowedFollowsGraphTest {
+
+    /*
+     * Testing Strategy for WindowedFollowsGraph:
+     *
+     * addTweet(), addAll(), advanceTo():
+     * - tweet in the current bucket, in an older live bucket, in an expired
+     *   bucket (ignored), later than the window (advances it)
+     * - advanceTo() earlier than, equal to and later than the window end
+     * - edge supported by one tweet, by several tweets in one bucket and in
+     *   different buckets; a tweet mentioning the same user twice
+     * - expiry of some, all and none of an edge's evidence
+     * - many expiries, exercising removal from the edge table
+     * - users whose edges all expire: forgotten, so size() shrinks, and
+     *   their ids reused by new users without mixing up their edges
+     * - results compared against FollowsGraphBuilder.build() and
+     *   FollowsGraph.fromTweets() over the live tweets
+     *
+     * influencers():
+     * - k: 0, fewer than, more than the number of users
+     * - users with equal follower counts ordered by username
+     * - users whose edges have all expired are not ranked
+     *
+     * constructor:
+     * - invalid durations rejected
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    // Test that assertions are enabled
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // Ensure that assertions are enabled with VM argument: -ea
+    }
+
+    // Test an empty graph and tweets that give no follows
+    @Test
+    public void testNoFollows() {
+        WindowedFollowsGraph graph = new WindowedFollowsGraph();
+        assertEquals("Expected no influencers", Collections.emptyList(), graph.influencers(10));
+        assertTrue("Expected tweet added", graph.addTweet(new Tweet(1, "alyssa", "just @Alyssa", d1)));
+        assertEquals("Expected no users", 0, graph.size());
+        assertEquals("Expected no edges", 0, graph.edgeCount());
+        assertTrue("Expected empty map", graph.toMap().isEmpty());
+    }
+
+    // Test evidence counts and expiry of an edge supported in two buckets
+    @Test
+    public void testEvidenceExpiry() {
+        WindowedFollowsGraph graph = new WindowedFollowsGraph(Duration.ofHours(2), HOUR);
+        graph.addTweet(new Tweet(1, "Alyssa", "@bob @BOB", d1));
+        graph.addTweet(new Tweet(2, "alyssa", "@bob @carl", d1.plus(HOUR)));
+        assertEquals("Expected two tweets of evidence", 2, graph.evidence("ALYSSA", "Bob"));
+        assertEquals("Expected one follower", 1, graph.followerCount("bob"));
+        assertEquals("Expected ranking", Arrays.asList("bob", "carl", "alyssa"), graph.influencers(5));
+
+        graph.advanceTo(d1.plus(HOUR));
+        assertEquals("Expected nothing expired yet", 2, graph.evidence("alyssa", "bob"));
+        graph.advanceTo(d1.plus(Duration.ofHours(3)));
+        assertEquals("Expected first bucket expired", 1, graph.evidence("alyssa", "bob"));
+        assertEquals("Expected edge kept", 2, graph.edgeCount());
+        assertFalse("Expected expired tweet ignored", graph.addTweet(new Tweet(3, "dave", "@erin", d1)));
+        assertEquals("Expected no new edge", 2, graph.edgeCount());
+
+        graph.advanceTo(d1);
+        assertEquals("Expected going back to do nothing", 2, graph.edgeCount());
+        graph.addTweet(new Tweet(4, "x", "@y", d1.plus(Duration.ofHours(10))));
+        assertEquals("Expected only the new edge", 1, graph.edgeCount());
+        assertEquals("Expected alyssa's evidence gone", 0, graph.evidence("alyssa", "bob"));
+        assertEquals("Expected bob unranked", Arrays.asList("y", "x"), graph.influencers(5));
+        assertEquals("Expected two users", 2, graph.size());
+        assertEquals("Expected no users", Collections.emptyList(), graph.influencers(0));
+    }
+
+    // Test users are forgotten once their edges expire, and new users take their place
+    @Test
+    public void testExpiredUsersForgotten() {
+        WindowedFollowsGraph graph = new WindowedFollowsGraph(HOUR, HOUR);
+        for (int round = 0; round < 5; round++) {
+            Instant time = d1.plus(Duration.ofHours(2 * round));
+            List<Tweet> tweets = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tweets.add(new Tweet(i, "fan" + round + "_" + i, "@star" + round + "_" + i % 10, time));
+            }
+            graph.addAll(tweets);
+            assertEquals("Expected only this round's users", 110, graph.size());
+            assertEquals("Expected ids reused", 110, graph.idBound());
+            assertEquals("Expected same follows", FollowsGraphBuilder.build(tweets), graph.toMap());
+            assertEquals("Expected this round's stars", "star" + round + "_0", graph.influencers(1).get(0));
+            assertEquals("Expected ten followers", 10, graph.followerCount("star" + round + "_3"));
+            if (round > 0) {
+                assertEquals("Expected last round's star forgotten", 0, graph.followerCount("star" + (round - 1) + "_3"));
+                assertEquals("Expected last round's evidence gone", 0,
+                        graph.evidence("fan" + (round - 1) + "_3", "star" + (round - 1) + "_3"));
+            }
+            graph.advanceTo(time.plus(Duration.ofHours(2)));
+            assertEquals("Expected everyone forgotten", 0, graph.size());
+            assertEquals("Expected no influencers", Collections.emptyList(), graph.influencers(3));
+        }
+    }
+
+    // Test random streams with jittered timestamps against rebuilt graphs
+    @Test
+    public void testMatchesRebuild() {
+        Random random = new Random(6005);
+        Duration window = Duration.ofMinutes(30);
+        Duration bucket = Duration.ofMinutes(7);
+        for (int trial = 0; trial < 3; trial++) {
+            WindowedFollowsGraph graph = new WindowedFollowsGraph(window, bucket);
+            List<Tweet> added = new ArrayList<>();
+            long latest = Long.MIN_VALUE;
+            Instant time = d1;
+            for (int i = 0; i < 3000; i++) {
+                time = time.plusSeconds(random.nextInt(10));
+                Instant timestamp = time.minusSeconds(random.nextInt(2400));
+                Tweet tweet = new Tweet(i, "user" + random.nextInt(40), text(random), timestamp);
+                latest = Math.max(latest, timestamp.toEpochMilli());
+                boolean live = graph.addTweet(tweet);
+                assertEquals("Expected tweet added iff live", live(tweet, latest, window, bucket), live);
+                if (live) {
+                    added.add(tweet);
+                }
+                if (i % 100 == 0) {
+                    List<Tweet> expected = new ArrayList<>();
+                    for (Tweet t : added) {
+                        if (live(t, latest, window, bucket)) {
+                            expected.add(t);
+                        }
+                    }
+                    assertEquals("Expected same follows", FollowsGraphBuilder.build(expected), graph.toMap());
+                    FollowsGraph rebuilt = FollowsGraph.fromTweets(expected);
+                    assertEquals("Expected same edge count", rebuilt.edgeCount(), graph.edgeCount());
+                    assertEquals("Expected same size", rebuilt.size(), graph.size());
+                    assertEquals("Expected same influencers", rebuilt.influencers(7), graph.influencers(7));
+                }
+            }
+        }
+    }
+
+    // Test invalid durations are rejected
+    @Test
+    public void testInvalidDurations() {
+        try {
+            new WindowedFollowsGraph(Duration.ZERO, HOUR);
+            fail("Expected empty window to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new WindowedFollowsGraph(HOUR, Duration.ofNanos(1));
+            fail("Expected sub-millisecond bucket to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /*
+     * @return true iff tweet's bucket ends after latest - window
+     */
+    private static boolean live(Tweet tweet, long latest, Duration window, Duration bucket) {
+        long bucketMillis = bucket.toMillis();
+        long end = (Math.floorDiv(tweet.getTimestamp().toEpochMilli(), bucketMillis) + 1) * bucketMillis;
+        return end > latest - window.toMillis();
+    }
+
+    /*
+     * @return text mentioning up to three random users in random case
+     */
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder("hi");
+        for (int m = random.nextInt(4); m > 0; m--) {
+            String user = "user" + random.nextInt(40);
+            text.append(" @").append(random.nextBoolean() ? user : user.toUpperCase());
+        }
+        return text.toString();
+    }
+}